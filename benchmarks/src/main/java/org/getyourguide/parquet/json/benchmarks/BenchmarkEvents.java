@@ -0,0 +1,136 @@
+package org.getyourguide.parquet.json.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.getyourguide.parquet.json.benchmarks.proto.BenchmarkProtos;
+
+/**
+ * The same synthetic events as JSON, Avro and Protobuf records, so that the three writers are compared on
+ * identical data. The generator is seeded, every run writes the same records.
+ */
+final class BenchmarkEvents {
+
+    static final String SCHEMA_NAME = "BenchmarkEvent";
+
+    static final Schema AVRO_SCHEMA = SchemaBuilder.record(SCHEMA_NAME).fields()
+            .requiredString("event_id")
+            .requiredLong("user_id")
+            .requiredString("country")
+            .requiredDouble("price")
+            .requiredInt("quantity")
+            .requiredBoolean("is_mobile")
+            .name("created_at").type().longBuilder().prop("logicalType", "timestamp-millis").endLong().noDefault()
+            .name("tags").type().nullable().array().items().stringType().noDefault()
+            .name("location").type().record("Location").fields()
+                .requiredString("city")
+                .requiredDouble("lat")
+                .requiredDouble("lon")
+                .endRecord().noDefault()
+            .name("attributes").type().nullable().map().values().stringType().noDefault()
+            .endRecord();
+
+    private static final String[] COUNTRIES = {"DE", "CH", "FR", "ES", "IT", "US", "GB", "JP"};
+    private static final String[] CITIES = {"Berlin", "Zürich", "Paris", "Barcelona", "Roma", "New York"};
+    private static final String[] TAGS = {"outdoor", "family", "skip-the-line", "guided", "food", "night"};
+
+    final List<JsonNode> json = new ArrayList<>();
+    final List<byte[]> serialized = new ArrayList<>();
+    final List<GenericRecord> avro = new ArrayList<>();
+    final List<BenchmarkProtos.BenchmarkEvent> protobuf = new ArrayList<>();
+    long serializedBytes;
+
+    BenchmarkEvents(int count) {
+        ObjectMapper mapper = new ObjectMapper();
+        Random random = new Random(42);
+        long start = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+        for (int i = 0; i < count; i++) {
+            String eventId = new UUID(random.nextLong(), random.nextLong()).toString();
+            long userId = random.nextInt(1_000_000);
+            String country = COUNTRIES[random.nextInt(COUNTRIES.length)];
+            double price = Math.round(random.nextDouble() * 50000) / 100.0;
+            int quantity = 1 + random.nextInt(10);
+            boolean mobile = random.nextBoolean();
+            long createdAt = start + random.nextInt(86_400_000) * 30L;
+            List<String> tags = new ArrayList<>();
+            for (int t = random.nextInt(4); t > 0; t--) {
+                tags.add(TAGS[random.nextInt(TAGS.length)]);
+            }
+            String city = CITIES[random.nextInt(CITIES.length)];
+            double lat = random.nextDouble() * 180 - 90;
+            double lon = random.nextDouble() * 360 - 180;
+            Map<String, String> attributes = new HashMap<>();
+            for (int a = random.nextInt(3); a > 0; a--) {
+                attributes.put("attr_" + random.nextInt(20), Integer.toHexString(random.nextInt()));
+            }
+
+            ObjectNode node = mapper.createObjectNode();
+            node.put("event_id", eventId);
+            node.put("user_id", userId);
+            node.put("country", country);
+            node.put("price", price);
+            node.put("quantity", quantity);
+            node.put("is_mobile", mobile);
+            node.put("created_at", Instant.ofEpochMilli(createdAt).atOffset(ZoneOffset.UTC).toString());
+            tags.forEach(node.putArray("tags")::add);
+            ObjectNode location = node.putObject("location");
+            location.put("city", city);
+            location.put("lat", lat);
+            location.put("lon", lon);
+            ObjectNode attributesNode = node.putObject("attributes");
+            attributes.forEach(attributesNode::put);
+            json.add(node);
+
+            try {
+                byte[] bytes = mapper.writeValueAsBytes(node);
+                serialized.add(bytes);
+                serializedBytes += bytes.length;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+
+            GenericRecord avroLocation = new GenericData.Record(AVRO_SCHEMA.getField("location").schema());
+            avroLocation.put("city", city);
+            avroLocation.put("lat", lat);
+            avroLocation.put("lon", lon);
+            GenericRecord record = new GenericData.Record(AVRO_SCHEMA);
+            record.put("event_id", eventId);
+            record.put("user_id", userId);
+            record.put("country", country);
+            record.put("price", price);
+            record.put("quantity", quantity);
+            record.put("is_mobile", mobile);
+            record.put("created_at", createdAt);
+            record.put("tags", tags);
+            record.put("location", avroLocation);
+            record.put("attributes", attributes);
+            avro.add(record);
+
+            protobuf.add(BenchmarkProtos.BenchmarkEvent.newBuilder()
+                    .setEventId(eventId)
+                    .setUserId(userId)
+                    .setCountry(country)
+                    .setPrice(price)
+                    .setQuantity(quantity)
+                    .setIsMobile(mobile)
+                    .setCreatedAt(createdAt)
+                    .addAllTags(tags)
+                    .setLocation(BenchmarkProtos.Location.newBuilder().setCity(city).setLat(lat).setLon(lon))
+                    .putAllAttributes(attributes)
+                    .build());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.getyourguide.parquet.json.benchmarks;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.BooleanSchema;
+import io.swagger.v3.oas.models.media.DateTimeSchema;
+import io.swagger.v3.oas.models.media.IntegerSchema;
+import io.swagger.v3.oas.models.media.MapSchema;
+import io.swagger.v3.oas.models.media.NumberSchema;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.swagger.v3.parser.OpenAPIV3Parser;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Schemas used by the benchmarks.
+ */
+final class BenchmarkSchemas {
+
+    private BenchmarkSchemas() {
+    }
+
+    /**
+     * Loads the OpenAPI definition of a classpath resource.
+     */
+    static OpenAPI load(String resourceName) {
+        try (InputStream in = Objects.requireNonNull(
+                BenchmarkSchemas.class.getClassLoader().getResourceAsStream(resourceName), resourceName)) {
+            String yaml = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            return new OpenAPIV3Parser().readContents(yaml, null, null).getOpenAPI();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static ObjectSchema get(OpenAPI openAPI, String schemaName) {
+        return (ObjectSchema) Objects.requireNonNull(openAPI.getComponents().getSchemas().get(schemaName), schemaName);
+    }
+
+    /**
+     * Generates an object schema with the given number of properties, cycling through the supported
+     * primitives, arrays, maps and nested objects.
+     */
+    @SuppressWarnings("rawtypes")
+    static ObjectSchema wide(int properties) {
+        ObjectSchema schema = new ObjectSchema();
+        schema.setTitle("Wide" + properties);
+        for (int i = 0; i < properties; i++) {
+            Schema field;
+            switch (i % 8) {
+                case 0:
+                    field = new StringSchema();
+                    break;
+                case 1:
+                    field = new IntegerSchema();
+                    break;
+                case 2:
+                    field = new IntegerSchema().format("int64");
+                    break;
+                case 3:
+                    field = new NumberSchema().format("double");
+                    break;
+                case 4:
+                    field = new BooleanSchema();
+                    break;
+                case 5:
+                    field = new DateTimeSchema();
+                    break;
+                case 6:
+                    field = new ArraySchema().items(new StringSchema());
+                    break;
+                default:
+                    field = new MapSchema().additionalProperties(new IntegerSchema());
+                    break;
+            }
+            field.setNullable(true);
+            schema.addProperty("field_" + i, field);
+        }
+
+        ObjectSchema nested = new ObjectSchema();
+        nested.addProperty("name", new StringSchema());
+        nested.addProperty("value", new NumberSchema().format("double"));
+        schema.addProperty("nested", nested.nullable(true));
+        return schema;
+    }
+}
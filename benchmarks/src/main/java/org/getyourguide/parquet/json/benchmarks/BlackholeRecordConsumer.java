@@ -0,0 +1,73 @@
+package org.getyourguide.parquet.json.benchmarks;
+
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Record consumer sinking every call into a {@link Blackhole}, to measure the write support alone without
+ * the column writers.
+ */
+final class BlackholeRecordConsumer extends RecordConsumer {
+
+    private final Blackhole blackhole;
+
+    BlackholeRecordConsumer(Blackhole blackhole) {
+        this.blackhole = blackhole;
+    }
+
+    @Override
+    public void startMessage() {
+    }
+
+    @Override
+    public void endMessage() {
+    }
+
+    @Override
+    public void startField(String field, int index) {
+        blackhole.consume(index);
+    }
+
+    @Override
+    public void endField(String field, int index) {
+    }
+
+    @Override
+    public void startGroup() {
+    }
+
+    @Override
+    public void endGroup() {
+    }
+
+    @Override
+    public void addInteger(int value) {
+        blackhole.consume(value);
+    }
+
+    @Override
+    public void addLong(long value) {
+        blackhole.consume(value);
+    }
+
+    @Override
+    public void addBoolean(boolean value) {
+        blackhole.consume(value);
+    }
+
+    @Override
+    public void addBinary(Binary value) {
+        blackhole.consume(value);
+    }
+
+    @Override
+    public void addFloat(float value) {
+        blackhole.consume(value);
+    }
+
+    @Override
+    public void addDouble(double value) {
+        blackhole.consume(value);
+    }
+}
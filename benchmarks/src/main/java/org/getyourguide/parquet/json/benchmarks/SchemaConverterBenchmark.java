@@ -0,0 +1,49 @@
+package org.getyourguide.parquet.json.benchmarks;
+
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import java.util.concurrent.TimeUnit;
+import org.apache.parquet.schema.MessageType;
+import org.getyourguide.parquet.json.JsonSchemaConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of converting an OpenAPI schema to a parquet {@link MessageType}, for a small schema of the tests
+ * and for generated wide schemas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SchemaConverterBenchmark {
+
+    @Param({"TestPrimitives", "wide-100", "wide-1500"})
+    public String schemaName;
+
+    private ObjectSchema schema;
+
+    @Setup
+    public void setup() {
+        if (schemaName.startsWith("wide-")) {
+            schema = BenchmarkSchemas.wide(Integer.parseInt(schemaName.substring("wide-".length())));
+        } else {
+            schema = BenchmarkSchemas.get(BenchmarkSchemas.load("openapi.yaml"), schemaName);
+        }
+    }
+
+    @Benchmark
+    public MessageType convert() {
+        return new JsonSchemaConverter().convert(schema);
+    }
+}
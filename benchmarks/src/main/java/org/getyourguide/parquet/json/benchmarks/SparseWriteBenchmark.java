@@ -0,0 +1,70 @@
+package org.getyourguide.parquet.json.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import java.util.concurrent.TimeUnit;
+import org.apache.hadoop.conf.Configuration;
+import org.getyourguide.parquet.json.JsonWriteOptions;
+import org.getyourguide.parquet.json.JsonWriteSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cost of writing a record filling a few fields of a wide schema, iterating over the schema (default)
+ * or over the payload.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SparseWriteBenchmark {
+
+    @Param({"100", "1500"})
+    public int width;
+
+    @Param({"20"})
+    public int filled;
+
+    @Param({"false", "true"})
+    public boolean payloadDriven;
+
+    private JsonNode record;
+    private JsonWriteSupport<JsonNode> writeSupport;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        ObjectSchema schema = BenchmarkSchemas.wide(width);
+
+        // string fields only, every 8th field of the generated schema
+        ObjectNode node = JsonNodeFactory.instance.objectNode();
+        for (int i = 0; i < filled; i++) {
+            node.put("field_" + (i * 8 % width), "value " + i);
+        }
+        record = node;
+
+        writeSupport = new JsonWriteSupport<>(schema, JsonWriteOptions.builder()
+                .withPayloadDrivenIteration(payloadDriven)
+                .build());
+        writeSupport.init(new Configuration());
+        writeSupport.prepareForWrite(new BlackholeRecordConsumer(blackhole));
+    }
+
+    @Benchmark
+    public void write() {
+        writeSupport.write(record);
+    }
+}
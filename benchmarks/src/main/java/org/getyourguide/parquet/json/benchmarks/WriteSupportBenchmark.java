@@ -0,0 +1,86 @@
+package org.getyourguide.parquet.json.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.apache.hadoop.conf.Configuration;
+import org.getyourguide.parquet.json.JsonStreamingWriteSupport;
+import org.getyourguide.parquet.json.JsonWriteSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cost of writing a single record with the write supports, on the examples of the test schemas. The
+ * record consumer discards the values, so only the schema walk and the value conversions are measured.
+ *
+ * <p>{@code tree} writes an already parsed {@link JsonNode}; {@code parseTree} and {@code stream} both
+ * start from the serialized payload, respectively going through a {@link JsonNode} and a {@link JsonParser}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WriteSupportBenchmark {
+
+    @Param({"TestPrimitives", "TestNestedStructure", "TestArraysPrimitives", "TestMapStructure",
+            "TestMapStructureofObject"})
+    public String schemaName;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final JsonFactory factory = new JsonFactory();
+
+    private JsonNode record;
+    private byte[] payload;
+    private JsonWriteSupport<JsonNode> writeSupport;
+    private JsonStreamingWriteSupport streamingWriteSupport;
+
+    @Setup
+    public void setup(Blackhole blackhole) throws IOException {
+        ObjectSchema schema = BenchmarkSchemas.get(BenchmarkSchemas.load("openapi.yaml"), schemaName);
+        Object example = schema.getExample();
+        record = example instanceof JsonNode && ((JsonNode) example).isArray()
+                ? ((JsonNode) example).get(0) : (JsonNode) example;
+        payload = mapper.writeValueAsBytes(record);
+
+        writeSupport = new JsonWriteSupport<>(schema);
+        writeSupport.init(new Configuration());
+        writeSupport.prepareForWrite(new BlackholeRecordConsumer(blackhole));
+
+        streamingWriteSupport = new JsonStreamingWriteSupport(schema);
+        streamingWriteSupport.init(new Configuration());
+        streamingWriteSupport.prepareForWrite(new BlackholeRecordConsumer(blackhole));
+    }
+
+    @Benchmark
+    public void tree() {
+        writeSupport.write(record);
+    }
+
+    @Benchmark
+    public void parseTree() throws IOException {
+        writeSupport.write(mapper.readTree(payload));
+    }
+
+    @Benchmark
+    public void stream() throws IOException {
+        try (JsonParser parser = factory.createParser(payload)) {
+            streamingWriteSupport.write(parser);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package org.getyourguide.parquet.json.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.avro.AvroParquetWriter;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.proto.ProtoParquetWriter;
+import org.getyourguide.parquet.json.JsonParquetWriter;
+import org.getyourguide.parquet.json.JsonStreamingParquetWriter;
+import org.getyourguide.parquet.json.benchmarks.proto.BenchmarkProtos;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End to end throughput of writing the same events to a local parquet file with parquet-json (from a
+ * {@link JsonNode} tree and from a token stream), parquet-avro and parquet-protobuf.
+ *
+ * <p>The primary score is in records per second. The {@link Bytes} counters report the size of the JSON
+ * input and of the parquet output per second, which gives the MB/s for the run.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class WriterThroughputBenchmark {
+
+    private static final int RECORDS = 10_000;
+
+    @Param({"json", "json-streaming", "avro", "protobuf"})
+    public String format;
+
+    @Param({"UNCOMPRESSED", "SNAPPY"})
+    public CompressionCodecName codec;
+
+    private final JsonFactory factory = new JsonFactory();
+    private final Configuration conf = new Configuration();
+
+    private ObjectSchema jsonSchema;
+    private BenchmarkEvents events;
+    private File directory;
+    private Path path;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Bytes {
+        public long inputBytes;
+        public long outputBytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        conf.set("fs.file.impl", org.apache.hadoop.fs.LocalFileSystem.class.getName());
+        jsonSchema = BenchmarkSchemas.get(BenchmarkSchemas.load("benchmark.yaml"), BenchmarkEvents.SCHEMA_NAME);
+        events = new BenchmarkEvents(RECORDS);
+        directory = Files.createTempDirectory("parquet-json-benchmark").toFile();
+        path = new Path(new File(directory, format + ".parquet").toURI());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void write(Bytes bytes) throws IOException {
+        switch (format) {
+            case "json":
+                writeJson();
+                break;
+            case "json-streaming":
+                writeJsonStreaming();
+                break;
+            case "avro":
+                writeAvro();
+                break;
+            case "protobuf":
+                writeProtobuf();
+                break;
+            default:
+                throw new IllegalArgumentException(format);
+        }
+        bytes.inputBytes += events.serializedBytes;
+        bytes.outputBytes += new File(path.toUri()).length();
+    }
+
+    private void writeJson() throws IOException {
+        try (ParquetWriter<JsonNode> writer = JsonParquetWriter.Builder(path)
+                .withSchema(jsonSchema)
+                .withConf(conf)
+                .withCompressionCodec(codec)
+                .withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+                .build()) {
+            for (JsonNode record : events.json) {
+                writer.write(record);
+            }
+        }
+    }
+
+    private void writeJsonStreaming() throws IOException {
+        try (ParquetWriter<JsonParser> writer = JsonStreamingParquetWriter.Builder(path)
+                .withSchema(jsonSchema)
+                .withConf(conf)
+                .withCompressionCodec(codec)
+                .withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+                .build()) {
+            for (byte[] record : events.serialized) {
+                try (JsonParser parser = factory.createParser(record)) {
+                    writer.write(parser);
+                }
+            }
+        }
+    }
+
+    private void writeAvro() throws IOException {
+        try (ParquetWriter<GenericRecord> writer = AvroParquetWriter.<GenericRecord>builder(path)
+                .withSchema(BenchmarkEvents.AVRO_SCHEMA)
+                .withConf(conf)
+                .withCompressionCodec(codec)
+                .withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+                .build()) {
+            for (GenericRecord record : events.avro) {
+                writer.write(record);
+            }
+        }
+    }
+
+    private void writeProtobuf() throws IOException {
+        try (ParquetWriter<BenchmarkProtos.BenchmarkEvent> writer =
+                     ProtoParquetWriter.<BenchmarkProtos.BenchmarkEvent>builder(path)
+                             .withMessage(BenchmarkProtos.BenchmarkEvent.class)
+                             .withConf(conf)
+                             .withCompressionCodec(codec)
+                             .withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+                             .build()) {
+            for (BenchmarkProtos.BenchmarkEvent record : events.protobuf) {
+                writer.write(record);
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.getyourguide.parquet.json;
+
+import java.util.Arrays;
+import org.apache.parquet.io.api.Binary;
+
+/**
+ * Reusable buffer decoding base64 text, as for {@code format: byte} fields, straight from the characters into
+ * bytes for {@link org.apache.parquet.io.api.RecordConsumer#addBinary}.
+ *
+ * <p>The input is read like {@link java.util.Base64#getDecoder()} does: the basic alphabet, with the padding
+ * optional, and any other character rejected with an {@link IllegalArgumentException}. As with
+ * {@link Utf8Buffer}, the returned {@link Binary} is backed by the reused byte array and is only valid until
+ * the next call.
+ */
+final class Base64Buffer {
+
+    private static final int INITIAL_SIZE = 256;
+    private static final int PADDING = -2;
+    // value of each ASCII character, -1 when it isn't part of the alphabet
+    private static final int[] VALUES = new int[128];
+
+    static {
+        Arrays.fill(VALUES, -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        for (int i = 0; i < alphabet.length(); i++) {
+            VALUES[alphabet.charAt(i)] = i;
+        }
+        VALUES['='] = PADDING;
+    }
+
+    private final CharArrayView view = new CharArrayView();
+    private byte[] buffer = new byte[INITIAL_SIZE];
+
+    /**
+     * @throws IllegalArgumentException if the text is not valid base64
+     */
+    Binary decode(CharSequence text) {
+        int length = text.length();
+        ensureCapacity(length);
+
+        int position = 0;
+        int bits = 0;
+        int chars = 0;
+        int i = 0;
+        for (; i < length; i++) {
+            int value = value(text, text.charAt(i));
+            if (value == PADDING) {
+                // "xx==" or "xxx=", nothing after
+                if (chars == 2 && i + 1 < length && text.charAt(i + 1) == '=' && i + 2 == length
+                        || chars == 3 && i + 1 == length) {
+                    break;
+                }
+                throw invalid(text);
+            }
+            bits = bits << 6 | value;
+            if (++chars == 4) {
+                buffer[position++] = (byte) (bits >> 16);
+                buffer[position++] = (byte) (bits >> 8);
+                buffer[position++] = (byte) bits;
+                bits = 0;
+                chars = 0;
+            }
+        }
+
+        if (chars == 1) {
+            throw invalid(text);
+        } else if (chars == 2) {
+            buffer[position++] = (byte) (bits >> 4);
+        } else if (chars == 3) {
+            buffer[position++] = (byte) (bits >> 10);
+            buffer[position++] = (byte) (bits >> 2);
+        }
+        return Binary.fromReusedByteArray(buffer, 0, position);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the characters are not valid base64
+     */
+    Binary decode(char[] chars, int offset, int length) {
+        return decode(view.reset(chars, offset, length));
+    }
+
+    // 4 characters decode to at most 3 bytes
+    private void ensureCapacity(int chars) {
+        int required = (chars + 3) / 4 * 3;
+        if (required > buffer.length) {
+            buffer = new byte[Math.max(required, buffer.length * 2)];
+        }
+    }
+
+    private static int value(CharSequence text, char c) {
+        int value = c < VALUES.length ? VALUES[c] : -1;
+        if (value == -1) {
+            throw invalid(text);
+        }
+        return value;
+    }
+
+    private static IllegalArgumentException invalid(CharSequence text) {
+        CharSequence start = text.length() > 32 ? text.subSequence(0, 32) + "..." : text;
+        return new IllegalArgumentException("Invalid base64: " + start);
+    }
+}
@@ -0,0 +1,38 @@
+package org.getyourguide.parquet.json;
+
+/**
+ * Reusable {@link CharSequence} view on a slice of a char array, e.g. the text buffer of a
+ * {@link com.fasterxml.jackson.core.JsonParser}, so that parsers take both inputs through the same code.
+ */
+final class CharArrayView implements CharSequence {
+    private char[] chars;
+    private int offset;
+    private int length;
+
+    CharArrayView reset(char[] chars, int offset, int length) {
+        this.chars = chars;
+        this.offset = offset;
+        this.length = length;
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return chars[offset + index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new String(chars, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        return new String(chars, offset, length);
+    }
+}
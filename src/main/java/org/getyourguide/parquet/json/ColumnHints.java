@@ -0,0 +1,279 @@
+package org.getyourguide.parquet.json;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.apache.parquet.hadoop.ParquetWriter;
+
+/**
+ * Writer settings of a single column, given as {@code x-parquet-*} vendor extensions on the OpenAPI
+ * property of the column:
+ *
+ * <pre>
+ * booking_id:
+ *   type: string
+ *   x-parquet-bloom-filter: {ndv: 1000000, fpp: 0.01}
+ *   x-parquet-dictionary: false
+ * </pre>
+ *
+ * <ul>
+ *     <li>{@code x-parquet-bloom-filter}: {@code true}, or the expected number of distinct values
+ *     {@code ndv} and the false positive probability {@code fpp}, both optional</li>
+ *     <li>{@code x-parquet-dictionary}: whether to dictionary encode the column</li>
+ *     <li>{@code x-parquet-encoding}: {@code PLAIN}, or {@code BYTE_STREAM_SPLIT} for floating point
+ *     columns; both turn the dictionary off unless {@code x-parquet-dictionary} is {@code true}. Delta
+ *     encodings cannot be chosen per column, parquet uses them for all columns with
+ *     {@code WriterVersion.PARQUET_2_0}</li>
+ *     <li>{@code x-parquet-statistics}: whether to keep min/max statistics of the column</li>
+ *     <li>{@code x-parquet-statistics-truncate}: maximum length of the min/max values of binary columns.
+ *     Parquet only has a length for the whole file, the smallest one given is used for all columns</li>
+ *     <li>{@code x-parquet-decimal}: {@code {precision, scale}} of a number column, which makes it a
+ *     {@code DECIMAL} column</li>
+ *     <li>{@code x-parquet-timestamp}: {@code {unit, adjustedToUTC}} of a date-time column, both optional,
+ *     e.g. {@code {unit: MICROS}}</li>
+ * </ul>
+ *
+ * <p>Extensions on a list or map property apply to its elements or values, those on an object property are
+ * ignored: each nested property carries its own. The hints are collected with the parquet schema by
+ * {@link JsonSchemaConverter#columnHints} and applied by the writer builders.
+ */
+public final class ColumnHints {
+
+    static final String PREFIX = "x-parquet-";
+    static final String BLOOM_FILTER = PREFIX + "bloom-filter";
+    static final String DICTIONARY = PREFIX + "dictionary";
+    static final String ENCODING = PREFIX + "encoding";
+    static final String STATISTICS = PREFIX + "statistics";
+    static final String STATISTICS_TRUNCATE = PREFIX + "statistics-truncate";
+    // the column type, see JsonSchemaConverter#decimalType
+    static final String DECIMAL = PREFIX + "decimal";
+    // the column type, see JsonSchemaConverter#timestampType
+    static final String TIMESTAMP = PREFIX + "timestamp";
+
+    public enum Encoding {
+        PLAIN,
+        BYTE_STREAM_SPLIT
+    }
+
+    private final String path;
+    private final Map<String, Object> extensions;
+    private final boolean bloomFilter;
+    private final long bloomFilterNdv;
+    private final double bloomFilterFpp;
+    private final Boolean dictionary;
+    private final Encoding encoding;
+    private final Boolean statistics;
+    private final int statisticsTruncate;
+
+    private ColumnHints(String path, Map<String, Object> extensions) {
+        this.path = path;
+        this.extensions = Collections.unmodifiableMap(new LinkedHashMap<>(extensions));
+
+        boolean bloomFilter = false;
+        long bloomFilterNdv = -1;
+        double bloomFilterFpp = -1;
+        Boolean dictionary = null;
+        Encoding encoding = null;
+        Boolean statistics = null;
+        int statisticsTruncate = -1;
+        for (Map.Entry<String, Object> extension : extensions.entrySet()) {
+            Object value = extension.getValue();
+            switch (extension.getKey()) {
+                case BLOOM_FILTER:
+                    if (value instanceof Map) {
+                        Map<?, ?> settings = (Map<?, ?>) value;
+                        bloomFilter = true;
+                        if (settings.get("ndv") != null) {
+                            bloomFilterNdv = number(extension.getKey(), settings.get("ndv")).longValue();
+                            if (bloomFilterNdv <= 0) {
+                                throw invalid(extension.getKey(), value);
+                            }
+                        }
+                        if (settings.get("fpp") != null) {
+                            bloomFilterFpp = number(extension.getKey(), settings.get("fpp")).doubleValue();
+                            if (bloomFilterFpp <= 0 || bloomFilterFpp >= 1) {
+                                throw invalid(extension.getKey(), value);
+                            }
+                        }
+                    } else if (value instanceof Boolean) {
+                        bloomFilter = (Boolean) value;
+                    } else {
+                        throw invalid(extension.getKey(), value);
+                    }
+                    break;
+                case DICTIONARY:
+                    dictionary = bool(extension.getKey(), value);
+                    break;
+                case ENCODING:
+                    try {
+                        encoding = Encoding.valueOf(String.valueOf(value));
+                    } catch (IllegalArgumentException e) {
+                        throw invalid(extension.getKey(), value);
+                    }
+                    break;
+                case STATISTICS:
+                    statistics = bool(extension.getKey(), value);
+                    break;
+                case STATISTICS_TRUNCATE:
+                    statisticsTruncate = number(extension.getKey(), value).intValue();
+                    if (statisticsTruncate <= 0) {
+                        throw invalid(extension.getKey(), value);
+                    }
+                    break;
+                case DECIMAL:
+                    if (!(value instanceof Map)) {
+                        throw invalid(extension.getKey(), value);
+                    }
+                    break;
+                case TIMESTAMP:
+                    if (!(value instanceof Map)) {
+                        throw invalid(extension.getKey(), value);
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown extension " + extension.getKey() + " on column "
+                            + path);
+            }
+        }
+        this.bloomFilter = bloomFilter;
+        this.bloomFilterNdv = bloomFilterNdv;
+        this.bloomFilterFpp = bloomFilterFpp;
+        this.dictionary = dictionary;
+        this.encoding = encoding;
+        this.statistics = statistics;
+        this.statisticsTruncate = statisticsTruncate;
+    }
+
+    /**
+     * @param path       dot separated path of the column, e.g. {@code tags.list.element}
+     * @param extensions the {@code x-parquet-*} extensions of the column
+     * @throws IllegalArgumentException if an extension is unknown or has an invalid value
+     */
+    static ColumnHints of(String path, Map<String, Object> extensions) {
+        return new ColumnHints(path, extensions);
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * The extensions the hints were read from.
+     */
+    public Map<String, Object> getExtensions() {
+        return extensions;
+    }
+
+    public boolean isBloomFilter() {
+        return bloomFilter;
+    }
+
+    /**
+     * Expected number of distinct values, -1 to let parquet size the filter.
+     */
+    public long getBloomFilterNdv() {
+        return bloomFilterNdv;
+    }
+
+    /**
+     * False positive probability, -1 for parquet's default.
+     */
+    public double getBloomFilterFpp() {
+        return bloomFilterFpp;
+    }
+
+    /**
+     * Whether to dictionary encode the column, null for the setting of the writer.
+     */
+    public Boolean getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Encoding of the column, null for parquet's choice.
+     */
+    public Encoding getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * Whether to keep statistics of the column, null for the setting of the writer.
+     */
+    public Boolean getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Maximum length of the min/max values, -1 for the setting of the writer.
+     */
+    public int getStatisticsTruncate() {
+        return statisticsTruncate;
+    }
+
+    /**
+     * Sets the properties of all columns on the builder of a writer.
+     */
+    static void applyTo(Collection<ColumnHints> columns, ParquetWriter.Builder<?, ?> builder) {
+        int statisticsTruncate = Integer.MAX_VALUE;
+        for (ColumnHints hints : columns) {
+            hints.applyTo(builder);
+            if (hints.statisticsTruncate > 0) {
+                statisticsTruncate = Math.min(statisticsTruncate, hints.statisticsTruncate);
+            }
+        }
+        if (statisticsTruncate != Integer.MAX_VALUE) {
+            builder.withStatisticsTruncateLength(statisticsTruncate);
+            builder.withColumnIndexTruncateLength(statisticsTruncate);
+        }
+    }
+
+    /**
+     * Sets the column properties on the builder of a writer.
+     */
+    void applyTo(ParquetWriter.Builder<?, ?> builder) {
+        if (dictionary != null) {
+            builder.withDictionaryEncoding(path, dictionary);
+        } else if (encoding != null) {
+            builder.withDictionaryEncoding(path, false);
+        }
+        if (encoding == Encoding.BYTE_STREAM_SPLIT) {
+            builder.withByteStreamSplitEncoding(path, true);
+        }
+        if (statistics != null) {
+            builder.withStatisticsEnabled(path, statistics);
+        }
+        if (bloomFilter) {
+            builder.withBloomFilterEnabled(path, true);
+            if (bloomFilterNdv > 0) {
+                builder.withBloomFilterNDV(path, bloomFilterNdv);
+            }
+            if (bloomFilterFpp > 0) {
+                builder.withBloomFilterFPP(path, bloomFilterFpp);
+            }
+        }
+    }
+
+    private Boolean bool(String extension, Object value) {
+        if (!(value instanceof Boolean)) {
+            throw invalid(extension, value);
+        }
+        return (Boolean) value;
+    }
+
+    private Number number(String extension, Object value) {
+        if (!(value instanceof Number)) {
+            throw invalid(extension, value);
+        }
+        return (Number) value;
+    }
+
+    private IllegalArgumentException invalid(String extension, Object value) {
+        return new IllegalArgumentException("Invalid value of " + extension + " on column " + path + ": " + value);
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnHints{path=" + path + ", extensions=" + extensions + "}";
+    }
+}
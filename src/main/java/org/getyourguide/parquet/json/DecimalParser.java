@@ -0,0 +1,177 @@
+package org.getyourguide.parquet.json;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Allocation free parser of decimal numbers, as JSON numbers or text, into the unscaled long of a parquet
+ * {@code DECIMAL(precision, scale)} column with a precision of at most 18.
+ *
+ * <p>The digits are accumulated straight into a long, the exponent and the fraction digits are then
+ * aligned on the scale of the column. Values are never rounded: a value with more significant decimals than
+ * the scale, or more digits than the precision, is rejected with an {@link IllegalArgumentException}.
+ * An instance is not thread safe, each writer has its own.
+ */
+final class DecimalParser {
+
+    static final int MAX_LONG_PRECISION = 18;
+
+    private static final long[] POW10 = new long[MAX_LONG_PRECISION + 1];
+    // beyond this, the exponent cannot give a value that fits
+    private static final int MAX_EXPONENT = 1000;
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++) {
+            POW10[i] = POW10[i - 1] * 10;
+        }
+    }
+
+    private final int precision;
+    private final int scale;
+    private final CharArrayView view = new CharArrayView();
+
+    DecimalParser(int precision, int scale) {
+        if (precision < 1 || precision > MAX_LONG_PRECISION) {
+            throw new IllegalArgumentException("Precision must be between 1 and " + MAX_LONG_PRECISION + ": "
+                    + precision);
+        }
+        if (scale < 0 || scale > precision) {
+            throw new IllegalArgumentException("Scale must be between 0 and the precision: " + scale);
+        }
+        this.precision = precision;
+        this.scale = scale;
+    }
+
+    long parseUnscaled(char[] chars, int offset, int length) {
+        return parseUnscaled(view.reset(chars, offset, length));
+    }
+
+    long parseUnscaled(CharSequence text) {
+        int length = text.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = text.charAt(0) == '-';
+            i++;
+        }
+
+        long unscaled = 0;
+        int digits = 0;
+        boolean anyDigit = false;
+        // digits read after the decimal point, -1 before it
+        int fraction = -1;
+        int exponent = 0;
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                anyDigit = true;
+                if (unscaled == 0 && c == '0') {
+                    // leading zeros don't count towards the precision
+                    if (fraction >= 0) {
+                        fraction++;
+                    }
+                } else if (digits < MAX_LONG_PRECISION) {
+                    unscaled = unscaled * 10 + (c - '0');
+                    digits++;
+                    if (fraction >= 0) {
+                        fraction++;
+                    }
+                } else if (c != '0' || fraction < 0) {
+                    throw tooLarge(text);
+                }
+                // else a trailing zero of the fraction that cannot matter, left out
+            } else if (c == '.' && fraction < 0) {
+                fraction = 0;
+            } else if ((c == 'e' || c == 'E') && anyDigit) {
+                exponent = parseExponent(text, i + 1);
+                break;
+            } else {
+                throw invalid(text);
+            }
+        }
+        if (!anyDigit) {
+            throw invalid(text);
+        }
+
+        // unscaled has this many decimals, align them on the scale
+        long decimals = (long) Math.max(fraction, 0) - exponent;
+        if (unscaled != 0) {
+            if (decimals > scale) {
+                for (long drop = decimals - scale; drop > 0; drop--) {
+                    if (unscaled % 10 != 0) {
+                        throw new IllegalArgumentException(text + " has more than " + scale + " decimals");
+                    }
+                    unscaled /= 10;
+                }
+            } else if (decimals < scale) {
+                long shift = scale - decimals;
+                if (shift > MAX_LONG_PRECISION || unscaled > Long.MAX_VALUE / POW10[(int) shift]) {
+                    throw tooLarge(text);
+                }
+                unscaled *= POW10[(int) shift];
+            }
+        }
+        if (unscaled >= POW10[precision]) {
+            throw tooLarge(text);
+        }
+        return negative ? -unscaled : unscaled;
+    }
+
+    /**
+     * Unscaled value of an integer, e.g. a {@code long} JSON node.
+     */
+    long unscaled(long value) {
+        long bound = POW10[precision - scale];
+        if (value <= -bound || value >= bound) {
+            throw tooLarge(Long.toString(value));
+        }
+        return value * POW10[scale];
+    }
+
+    /**
+     * Unscaled value of a {@link BigDecimal}, e.g. a default value of the schema.
+     */
+    long unscaled(BigDecimal value) {
+        BigDecimal scaled;
+        try {
+            scaled = value.setScale(scale, RoundingMode.UNNECESSARY);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(value + " has more than " + scale + " decimals");
+        }
+        if (scaled.precision() > precision) {
+            throw tooLarge(value.toString());
+        }
+        return scaled.unscaledValue().longValue();
+    }
+
+    private int parseExponent(CharSequence text, int start) {
+        int length = text.length();
+        int i = start;
+        boolean negative = false;
+        if (i < length && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+        if (i == length) {
+            throw invalid(text);
+        }
+        int exponent = 0;
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                throw invalid(text);
+            }
+            exponent = Math.min(exponent * 10 + (c - '0'), MAX_EXPONENT);
+        }
+        return negative ? -exponent : exponent;
+    }
+
+    private IllegalArgumentException tooLarge(CharSequence text) {
+        return new IllegalArgumentException(text + " does not fit DECIMAL(" + precision + "," + scale + ")");
+    }
+
+    private static IllegalArgumentException invalid(CharSequence text) {
+        return new IllegalArgumentException("Invalid decimal: " + text);
+    }
+}
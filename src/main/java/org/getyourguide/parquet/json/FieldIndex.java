@@ -0,0 +1,157 @@
+package org.getyourguide.parquet.json;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Minimal perfect hash from the field names of an object schema to their index.
+ *
+ * <p>Built with the hash and displace method: names are first spread over buckets, then each bucket gets
+ * the displacement seed that places all its names in free slots of the table. A lookup is two hashes of
+ * the cached {@link String#hashCode()} and a single comparison, whatever the number of fields, and the
+ * names that aren't in the schema are rejected by that comparison.
+ */
+final class FieldIndex {
+
+    private static final int MAX_SEED = 1 << 16;
+
+    private final int[] seeds;
+    private final String[] names;
+    private final int[] indexes;
+    private final int bucketMask;
+    private final int slotMask;
+
+    private FieldIndex(int[] seeds, String[] names, int[] indexes) {
+        this.seeds = seeds;
+        this.names = names;
+        this.indexes = indexes;
+        this.bucketMask = seeds.length - 1;
+        this.slotMask = names.length - 1;
+    }
+
+    /**
+     * Builds the index of the given names, the index of a name being its position in the array.
+     */
+    static FieldIndex of(String[] fieldNames) {
+        // a load factor of 1/2 keeps the search of the seeds short
+        int slots = Integer.highestOneBit(Math.max(1, fieldNames.length) * 2 - 1) << 1;
+        while (true) {
+            FieldIndex index = build(fieldNames, slots);
+            if (index != null) {
+                return index;
+            }
+            slots <<= 1;
+        }
+    }
+
+    private static FieldIndex build(String[] fieldNames, int slots) {
+        int buckets = Math.max(1, slots / 4);
+        List<List<Integer>> bucketFields = new ArrayList<>(buckets);
+        for (int i = 0; i < buckets; i++) {
+            bucketFields.add(new ArrayList<>());
+        }
+        for (int i = 0; i < fieldNames.length; i++) {
+            bucketFields.get(mix(fieldNames[i].hashCode(), 0) & (buckets - 1)).add(i);
+        }
+
+        // the largest buckets are the hardest to place, so they go first
+        Integer[] order = new Integer[buckets];
+        for (int i = 0; i < buckets; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> bucketFields.get(b).size() - bucketFields.get(a).size());
+
+        int[] seeds = new int[buckets];
+        String[] names = new String[slots];
+        int[] indexes = new int[slots];
+        Arrays.fill(indexes, -1);
+        int[] bucketSlots = new int[fieldNames.length];
+
+        for (int bucket : order) {
+            List<Integer> fields = bucketFields.get(bucket);
+            if (fields.isEmpty()) {
+                break;
+            }
+
+            int seed = 1;
+            for (; seed < MAX_SEED; seed++) {
+                if (place(fieldNames, fields, seed, names, bucketSlots, slots - 1)) {
+                    break;
+                }
+            }
+            if (seed == MAX_SEED) {
+                return null;
+            }
+
+            seeds[bucket] = seed;
+            for (int i = 0; i < fields.size(); i++) {
+                names[bucketSlots[i]] = fieldNames[fields.get(i)];
+                indexes[bucketSlots[i]] = fields.get(i);
+            }
+        }
+
+        return new FieldIndex(seeds, names, indexes);
+    }
+
+    // checks that the seed puts the fields of a bucket in distinct free slots, returned in bucketSlots
+    private static boolean place(String[] fieldNames, List<Integer> fields, int seed, String[] names,
+                                 int[] bucketSlots, int slotMask) {
+        for (int i = 0; i < fields.size(); i++) {
+            int slot = mix(fieldNames[fields.get(i)].hashCode(), seed) & slotMask;
+            if (names[slot] != null) {
+                return false;
+            }
+            for (int j = 0; j < i; j++) {
+                if (bucketSlots[j] == slot) {
+                    return false;
+                }
+            }
+            bucketSlots[i] = slot;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the index of the field, -1 if it isn't part of the schema.
+     */
+    int get(String name) {
+        int hash = name.hashCode();
+        int slot = mix(hash, seeds[mix(hash, 0) & bucketMask]) & slotMask;
+        String candidate = names[slot];
+        return candidate != null && (candidate == name || candidate.equals(name)) ? indexes[slot] : -1;
+    }
+
+    /**
+     * Returns the index of the name given as characters, -1 if it isn't part of the schema. No String is
+     * created, the hash is computed like {@link String#hashCode()}.
+     */
+    int get(char[] chars, int offset, int length) {
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        int slot = mix(hash, seeds[mix(hash, 0) & bucketMask]) & slotMask;
+        String candidate = names[slot];
+        if (candidate == null || candidate.length() != length) {
+            return -1;
+        }
+        for (int i = 0; i < length; i++) {
+            if (candidate.charAt(i) != chars[offset + i]) {
+                return -1;
+            }
+        }
+        return indexes[slot];
+    }
+
+    // murmur3 finalizer of the hash combined with the seed
+    private static int mix(int hash, int seed) {
+        int h = hash ^ (seed * 0x9E3779B9);
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
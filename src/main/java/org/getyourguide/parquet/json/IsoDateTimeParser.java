@@ -0,0 +1,253 @@
+package org.getyourguide.parquet.json;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import org.apache.parquet.schema.LogicalTypeAnnotation.TimeUnit;
+
+/**
+ * Allocation free parser for the ISO-8601 forms used by OpenAPI {@code date} and {@code date-time} values.
+ *
+ * <p>The fixed formats {@code yyyy-MM-dd} and {@code yyyy-MM-ddTHH:mm:ss[.fraction](Z|+HH:mm|-HH:mm)} are
+ * parsed directly from the characters into epoch days and epoch millis, micros or nanos. Anything else (extended years,
+ * missing seconds, offsets with seconds, invalid values...) goes through java.time, which either parses
+ * it or throws the usual {@link java.time.format.DateTimeParseException}.
+ *
+ * <p>Timestamps that are not adjusted to UTC hold the local date-time: the offset of the text, if any, is
+ * dropped and text without an offset is accepted.
+ *
+ * <p>The epoch day of the last few dates is kept in a small cache since the values of a batch tend to
+ * share the same days. An instance is not thread safe, each writer has its own.
+ */
+final class IsoDateTimeParser {
+
+    private static final int CACHE_SIZE = 4;
+    private static final long SECONDS_PER_DAY = 86400L;
+
+    // yyyyMMdd keys of the last dates and their epoch day, replaced round robin (0 is never a valid key)
+    private final int[] cachedKeys = new int[CACHE_SIZE];
+    private final int[] cachedEpochDays = new int[CACHE_SIZE];
+    private int nextCacheSlot = 0;
+
+    // reused view on char arrays, so that both input types go through the same code
+    private final CharArrayView view = new CharArrayView();
+
+    // result of the last parseDateTime call
+    private long epochSecond;
+    private int nanos;
+    private int offsetSeconds;
+
+    int parseEpochDay(CharSequence text) {
+        if (text.length() == 10) {
+            int epochDay = fastEpochDay(text, 0);
+            if (epochDay != Integer.MIN_VALUE) {
+                return epochDay;
+            }
+        }
+        return (int) LocalDate.parse(text).toEpochDay();
+    }
+
+    int parseEpochDay(char[] chars, int offset, int length) {
+        return parseEpochDay(view.reset(chars, offset, length));
+    }
+
+    long parseEpochMillis(CharSequence text) {
+        return parseEpoch(text, TimeUnit.MILLIS, true);
+    }
+
+    long parseEpochMillis(char[] chars, int offset, int length) {
+        return parseEpochMillis(view.reset(chars, offset, length));
+    }
+
+    /**
+     * Parses a date-time into the given unit since the epoch, truncating the digits below the unit.
+     *
+     * @param adjustedToUTC false to keep the local date-time, see {@link IsoDateTimeParser}
+     */
+    long parseEpoch(CharSequence text, TimeUnit unit, boolean adjustedToUTC) {
+        parseDateTime(text, !adjustedToUTC);
+        long second = adjustedToUTC ? epochSecond : epochSecond + offsetSeconds;
+        switch (unit) {
+            case MILLIS:
+                return Math.addExact(Math.multiplyExact(second, 1000L), nanos / 1_000_000);
+            case MICROS:
+                return Math.addExact(Math.multiplyExact(second, 1_000_000L), nanos / 1000);
+            default:
+                return Math.addExact(Math.multiplyExact(second, 1_000_000_000L), nanos);
+        }
+    }
+
+    long parseEpoch(char[] chars, int offset, int length, TimeUnit unit, boolean adjustedToUTC) {
+        return parseEpoch(view.reset(chars, offset, length), unit, adjustedToUTC);
+    }
+
+    private void parseDateTime(CharSequence text, boolean local) {
+        if (fastDateTime(text, local)) {
+            return;
+        }
+        if (local) {
+            TemporalAccessor ts = DateTimeFormatter.ISO_DATE_TIME.parseBest(text, OffsetDateTime::from,
+                    LocalDateTime::from);
+            LocalDateTime dateTime = ts instanceof OffsetDateTime
+                    ? ((OffsetDateTime) ts).toLocalDateTime() : (LocalDateTime) ts;
+            epochSecond = dateTime.toEpochSecond(ZoneOffset.UTC);
+            nanos = dateTime.getNano();
+        } else {
+            OffsetDateTime ts = OffsetDateTime.parse(text);
+            epochSecond = ts.toEpochSecond();
+            nanos = ts.getNano();
+        }
+        offsetSeconds = 0;
+    }
+
+    // local also accepts text without an offset
+    private boolean fastDateTime(CharSequence text, boolean local) {
+        int length = text.length();
+        if (length < (local ? 19 : 20)) {
+            return false;
+        }
+
+        int epochDay = fastEpochDay(text, 0);
+        char t = text.charAt(10);
+        if (epochDay == Integer.MIN_VALUE || (t != 'T' && t != 't')
+                || text.charAt(13) != ':' || text.charAt(16) != ':') {
+            return false;
+        }
+
+        int hour = twoDigits(text, 11);
+        int minute = twoDigits(text, 14);
+        int second = twoDigits(text, 17);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return false;
+        }
+
+        int position = 19;
+        int fraction = 0;
+        if (position < length && text.charAt(position) == '.') {
+            position++;
+            int digits = 0;
+            while (position < length && isDigit(text.charAt(position))) {
+                if (digits == 9) {
+                    return false;
+                }
+                fraction = fraction * 10 + (text.charAt(position) - '0');
+                digits++;
+                position++;
+            }
+            if (digits == 0) {
+                return false;
+            }
+            for (; digits < 9; digits++) {
+                fraction *= 10;
+            }
+        }
+
+        if (position >= length && !local) {
+            return false;
+        }
+
+        int offsetSeconds;
+        char sign = position < length ? text.charAt(position) : 0;
+        if (position == length) {
+            offsetSeconds = 0;
+        } else if ((sign == 'Z' || sign == 'z') && position + 1 == length) {
+            offsetSeconds = 0;
+        } else if ((sign == '+' || sign == '-') && position + 6 == length && text.charAt(position + 3) == ':') {
+            int offsetHour = twoDigits(text, position + 1);
+            int offsetMinute = twoDigits(text, position + 4);
+            if (offsetHour < 0 || offsetMinute < 0 || offsetMinute > 59
+                    || offsetHour > 18 || (offsetHour == 18 && offsetMinute > 0)) {
+                return false;
+            }
+            offsetSeconds = offsetHour * 3600 + offsetMinute * 60;
+            if (sign == '-') {
+                offsetSeconds = -offsetSeconds;
+            }
+        } else {
+            return false;
+        }
+
+        epochSecond = epochDay * SECONDS_PER_DAY + hour * 3600L + minute * 60L + second - offsetSeconds;
+        nanos = fraction;
+        this.offsetSeconds = offsetSeconds;
+        return true;
+    }
+
+    /**
+     * Parses {@code yyyy-MM-dd} at the given position, returns Integer.MIN_VALUE if it doesn't match.
+     */
+    private int fastEpochDay(CharSequence text, int position) {
+        if (text.length() < position + 10
+                || text.charAt(position + 4) != '-' || text.charAt(position + 7) != '-') {
+            return Integer.MIN_VALUE;
+        }
+
+        int century = twoDigits(text, position);
+        int yearOfCentury = twoDigits(text, position + 2);
+        int month = twoDigits(text, position + 5);
+        int day = twoDigits(text, position + 8);
+        if (century < 0 || yearOfCentury < 0 || month < 1 || month > 12 || day < 1) {
+            return Integer.MIN_VALUE;
+        }
+
+        int year = century * 100 + yearOfCentury;
+        int key = year * 10000 + month * 100 + day;
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            if (cachedKeys[i] == key) {
+                return cachedEpochDays[i];
+            }
+        }
+
+        if (day > lengthOfMonth(year, month)) {
+            return Integer.MIN_VALUE;
+        }
+
+        int epochDay = epochDay(year, month, day);
+        cachedKeys[nextCacheSlot] = key;
+        cachedEpochDays[nextCacheSlot] = epochDay;
+        nextCacheSlot = (nextCacheSlot + 1) % CACHE_SIZE;
+        return epochDay;
+    }
+
+    // http://howardhinnant.github.io/date_algorithms.html#days_from_civil
+    static int epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0) && (year % 100 != 0 || year % 400 == 0);
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    // returns a negative value if one of the two characters isn't a digit
+    private static int twoDigits(CharSequence text, int position) {
+        char tens = text.charAt(position);
+        char units = text.charAt(position + 1);
+        if (!isDigit(tens) || !isDigit(units)) {
+            return -1;
+        }
+        return (tens - '0') * 10 + (units - '0');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,376 @@
+package org.getyourguide.parquet.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writer queueing the records for a {@link JsonRecordWriter} running on a dedicated thread, so that producers
+ * don't wait for parquet encoding and I/O.
+ *
+ * <p>{@link #write(JsonNode)} and {@link #writeAll(List)} return a future completed once the record, or the
+ * whole batch, is handed to the underlying writer; a batch takes a single slot of the queue and gets a single
+ * acknowledgement. When the queue is full the {@link OverflowPolicy} decides whether the producer waits, gets
+ * an exception or the record is dropped and counted.
+ *
+ * <p>{@link #flush()} is a barrier: its future completes once everything queued before it is written. Parquet
+ * files are only readable once closed, so records are durable at that point only with a
+ * {@link JsonRollingParquetWriter}, which is then flushed as well. Otherwise they are durable once the writer
+ * is closed.
+ *
+ * <p>After a failure of the underlying writer, all queued and later records complete exceptionally with that
+ * failure. Records must not be modified once queued.
+ */
+public class JsonAsyncParquetWriter implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JsonAsyncParquetWriter.class);
+
+    // marks the end of the queue, compared by identity
+    private static final Entry END = new Entry(null, null, null);
+
+    /**
+     * What {@link #write(JsonNode)} does when the queue is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Waits for space in the queue.
+         */
+        BLOCK,
+        /**
+         * Throws a {@link RejectedExecutionException}.
+         */
+        FAIL_FAST,
+        /**
+         * Drops the record, the returned future fails and {@link #getDropped()} is incremented.
+         */
+        DROP
+    }
+
+    private final JsonRecordWriter writer;
+    private final OverflowPolicy overflowPolicy;
+    private final BlockingQueue<Entry> queue;
+    private final Thread thread;
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile Throwable failure = null;
+    private volatile boolean closed = false;
+    // set once the writing thread is gone, what is queued from then on is failed by whoever queued it
+    private volatile boolean stopped = false;
+
+    private JsonAsyncParquetWriter(Builder builder) {
+        this.writer = builder.writer;
+        this.overflowPolicy = builder.overflowPolicy;
+        this.queue = new ArrayBlockingQueue<>(builder.queueSize);
+        this.thread = builder.threadFactory.newThread(this::run);
+        this.thread.start();
+    }
+
+    /**
+     * @param writer the writer the records are written to, closed with the async writer
+     */
+    public static Builder Builder(JsonRecordWriter writer) {
+        return new Builder(writer);
+    }
+
+    /**
+     * Queues a record.
+     *
+     * @return completed once the record is written, exceptionally if it was rejected, dropped or the writer
+     *         failed
+     * @throws RejectedExecutionException if the queue is full with {@link OverflowPolicy#FAIL_FAST}
+     * @throws InterruptedIOException     if interrupted while waiting for space with {@link OverflowPolicy#BLOCK}
+     */
+    public CompletableFuture<Void> write(JsonNode record) throws InterruptedIOException {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        if (!offer(new Entry(record, null, future))) {
+            future.completeExceptionally(new RejectedExecutionException("Queue full, record dropped"));
+        }
+        return future;
+    }
+
+    /**
+     * Queues a batch of records, written in order and acknowledged as a whole.
+     *
+     * @return completed with the outcome of the batch once written, see {@link JsonRecordWriter#writeAll}
+     * @throws RejectedExecutionException if the queue is full with {@link OverflowPolicy#FAIL_FAST}
+     * @throws InterruptedIOException     if interrupted while waiting for space with {@link OverflowPolicy#BLOCK}
+     */
+    public CompletableFuture<JsonBatchResult> writeAll(List<? extends JsonNode> records)
+            throws InterruptedIOException {
+        CompletableFuture<JsonBatchResult> future = new CompletableFuture<>();
+        if (offer(new Entry(null, records, future))) {
+            return future;
+        }
+        future.completeExceptionally(new RejectedExecutionException("Queue full, batch dropped"));
+        return future;
+    }
+
+    /**
+     * Queues a barrier, whatever the overflow policy.
+     *
+     * @return completed once all the records queued before are written and, with a rolling writer, durable
+     */
+    public CompletableFuture<Void> flush() throws InterruptedIOException {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        put(new Entry(null, null, future));
+        return future;
+    }
+
+    /**
+     * Number of records dropped because the queue was full, batches count for all their records.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Number of records and batches waiting in the queue.
+     */
+    public int getQueued() {
+        return queue.size();
+    }
+
+    /**
+     * Waits for the queued records to be written and closes the underlying writer.
+     *
+     * @throws IOException if the underlying writer failed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            // the writing thread may be gone already, after an interrupt, and no longer take from a full queue
+            while (thread.isAlive() && !queue.offer(END, 10, TimeUnit.MILLISECONDS)) {
+                // wait for space
+            }
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while closing the writer");
+        }
+        // producers racing with close() may have queued after the writing thread took the end, or be waiting for
+        // space that only this frees
+        stopped = true;
+        failQueued();
+        if (failure != null) {
+            throw new IOException("Failed to write records", failure);
+        }
+    }
+
+    private boolean offer(Entry entry) throws InterruptedIOException {
+        checkOpen();
+        switch (overflowPolicy) {
+            case BLOCK:
+                put(entry);
+                return true;
+            case FAIL_FAST:
+                if (!queue.offer(entry)) {
+                    throw new RejectedExecutionException("Queue full, " + queue.size() + " entries waiting");
+                }
+                checkStopped();
+                return true;
+            default:
+                if (!queue.offer(entry)) {
+                    dropped.addAndGet(entry.batch == null ? 1 : entry.batch.size());
+                    return false;
+                }
+                checkStopped();
+                return true;
+        }
+    }
+
+    private void put(Entry entry) throws InterruptedIOException {
+        checkOpen();
+        try {
+            queue.put(entry);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for queue space");
+        }
+        checkStopped();
+    }
+
+    /**
+     * Fails what was queued after the writing thread stopped, nothing else would complete it.
+     */
+    private void checkStopped() {
+        if (stopped) {
+            failQueued();
+        }
+    }
+
+    private void failQueued() {
+        List<Entry> entries = new ArrayList<>();
+        queue.drainTo(entries);
+        fail(entries, failure != null ? failure : new IllegalStateException("Writer is closed"));
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Writer is closed");
+        }
+    }
+
+    private void run() {
+        List<Entry> entries = new ArrayList<>();
+        try {
+            while (true) {
+                // take whatever is queued at once to go through the queue lock once per run of entries
+                entries.add(queue.take());
+                queue.drainTo(entries);
+                for (int i = 0; i < entries.size(); i++) {
+                    if (entries.get(i) == END) {
+                        // only producers racing with close() can queue after the end
+                        fail(entries.subList(i + 1, entries.size()), new IllegalStateException("Writer is closed"));
+                        return;
+                    }
+                    process(entries.get(i));
+                }
+                entries.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = e;
+            fail(entries, e);
+            // nothing takes from the queue anymore, producers fail what they queue from now on
+            stopped = true;
+            failQueued();
+        } finally {
+            try {
+                writer.close();
+            } catch (IOException | RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void process(Entry entry) {
+        if (failure != null) {
+            entry.future.completeExceptionally(failure);
+            return;
+        }
+        try {
+            if (entry.record != null) {
+                writer.write(entry.record);
+                entry.future.complete(null);
+            } else if (entry.batch != null) {
+                JsonBatchResult result = writer.writeAll(entry.batch);
+                List<JsonBatchResult.Failure> failures = result.getFailures();
+                if (!failures.isEmpty() && !(failures.get(failures.size() - 1).getCause()
+                        instanceof RejectedRecordException)) {
+                    // the batch stopped on a failure of the writer
+                    failure = failures.get(failures.size() - 1).getCause();
+                }
+                ((CompletableFuture<JsonBatchResult>) entry.future).complete(result);
+            } else {
+                if (writer instanceof JsonRollingParquetWriter) {
+                    ((JsonRollingParquetWriter) writer).flush();
+                }
+                entry.future.complete(null);
+            }
+        } catch (RejectedRecordException e) {
+            // already passed to the rejected record handler, the writer goes on
+            entry.future.completeExceptionally(e);
+        } catch (Exception e) {
+            LOG.error("Failed to write records, the following ones will fail", e);
+            failure = e;
+            entry.future.completeExceptionally(e);
+        }
+    }
+
+    private static void fail(Iterable<Entry> entries, Throwable cause) {
+        for (Entry entry : entries) {
+            if (entry != END) {
+                entry.future.completeExceptionally(cause);
+            }
+        }
+    }
+
+    /**
+     * A record, a batch, or a flush barrier when both are null.
+     */
+    private static final class Entry {
+        private final JsonNode record;
+        private final List<? extends JsonNode> batch;
+        private final CompletableFuture<?> future;
+
+        Entry(JsonNode record, List<? extends JsonNode> batch, CompletableFuture<?> future) {
+            this.record = record;
+            this.batch = batch;
+            this.future = future;
+        }
+    }
+
+    private static final class WriterThreadFactory implements ThreadFactory {
+        private static final AtomicInteger COUNT = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "parquet-json-async-" + COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    public static class Builder {
+
+        private final JsonRecordWriter writer;
+        private int queueSize = 1024;
+        private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+        private ThreadFactory threadFactory = new WriterThreadFactory();
+
+        protected Builder(JsonRecordWriter writer) {
+            this.writer = writer;
+        }
+
+        /**
+         * Maximum number of records and batches queued. Defaults to 1024.
+         */
+        public Builder withQueueSize(int queueSize) {
+            if (queueSize < 1) {
+                throw new IllegalArgumentException("Queue size must be positive: " + queueSize);
+            }
+            this.queueSize = queueSize;
+            return this;
+        }
+
+        /**
+         * What to do when the queue is full, defaults to {@link OverflowPolicy#BLOCK}.
+         */
+        public Builder withOverflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+            return this;
+        }
+
+        /**
+         * Factory of the writing thread, e.g. {@code Thread.ofVirtual().factory()} on Java 21. Defaults to a
+         * daemon platform thread.
+         */
+        public Builder withThreadFactory(ThreadFactory threadFactory) {
+            this.threadFactory = threadFactory;
+            return this;
+        }
+
+        public JsonAsyncParquetWriter build() {
+            return new JsonAsyncParquetWriter(this);
+        }
+    }
+}
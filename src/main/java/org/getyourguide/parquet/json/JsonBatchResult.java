@@ -0,0 +1,71 @@
+package org.getyourguide.parquet.json;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a batch written with {@link JsonRecordWriter}.
+ */
+public final class JsonBatchResult {
+
+    private final int written;
+    private final List<Failure> failures;
+
+    JsonBatchResult(int written, List<Failure> failures) {
+        this.written = written;
+        this.failures = Collections.unmodifiableList(failures);
+    }
+
+    /**
+     * Number of records written.
+     */
+    public int getWritten() {
+        return written;
+    }
+
+    /**
+     * Records that couldn't be written, in batch order: the records rejected to a
+     * {@link RejectedRecordHandler}, then the failure that stopped the batch if any.
+     */
+    public List<Failure> getFailures() {
+        return failures;
+    }
+
+    public boolean isSuccess() {
+        return failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "JsonBatchResult{written=" + written + ", failures=" + failures + "}";
+    }
+
+    /**
+     * A record of the batch that couldn't be written.
+     */
+    public static final class Failure {
+        private final int index;
+        private final Exception cause;
+
+        Failure(int index, Exception cause) {
+            this.index = index;
+            this.cause = cause;
+        }
+
+        /**
+         * Position of the record in the batch, relative to the start of the batch.
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        public Exception getCause() {
+            return cause;
+        }
+
+        @Override
+        public String toString() {
+            return "Failure{index=" + index + ", cause=" + cause + "}";
+        }
+    }
+}
@@ -0,0 +1,408 @@
+package org.getyourguide.parquet.json;
+
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.predicate.Operators.Column;
+import org.apache.parquet.filter2.predicate.Operators.SupportsEqNotEq;
+import org.apache.parquet.filter2.predicate.Operators.SupportsLtGt;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.DecimalLogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.TimestampLogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+
+/**
+ * Builds parquet {@link FilterPredicate}s from JSON field paths and values, for reading with
+ * {@link JsonParquetReader.Builder#withFilter}.
+ *
+ * <p>Paths are dot separated field names, e.g. {@code "booking.price"}. The column type comes from the
+ * parquet schema the OpenAPI schema converts to, and values are converted the same way the writer does:
+ * numbers to the column width, {@code date} fields from ISO dates, {@code date-time} fields from ISO
+ * date-times, {@link Instant}s or {@link OffsetDateTime}s (their local date-time for timestamps not adjusted to
+ * UTC), and {@code binary} fields from base64 strings. A number that the column cannot hold exactly, e.g.
+ * {@code 100.5} for an integer field or {@code 0.1} for a {@code float} one, throws an
+ * {@link IllegalArgumentException} rather than being rounded into a different bound.
+ * Parquet then skips the row groups and pages that cannot match using statistics, dictionaries and
+ * column indexes.
+ *
+ * <p>Filters only apply to fields outside of arrays and maps, parquet doesn't support predicates on
+ * repeated columns.
+ *
+ * <pre>{@code
+ *     JsonFilters filters = JsonFilters.of(schema);
+ *     FilterPredicate predicate = JsonFilters.and(
+ *         filters.gt("booking.price", 100),
+ *         filters.in("status", "CONFIRMED", "PENDING"));
+ * }</pre>
+ */
+public final class JsonFilters {
+
+    private final MessageType schema;
+
+    private JsonFilters(MessageType schema) {
+        this.schema = schema;
+    }
+
+    /**
+     * Filters on the columns as written with the default options, see {@link #of(ObjectSchema, JsonWriteOptions)}.
+     */
+    public static JsonFilters of(ObjectSchema schema) {
+        return new JsonFilters(JsonWritePlan.of(schema).getSchema());
+    }
+
+    /**
+     * Filters on the columns as written with the given options, e.g. UUIDs written as strings.
+     */
+    public static JsonFilters of(ObjectSchema schema, JsonWriteOptions options) {
+        return new JsonFilters(JsonWritePlan.of(schema, options).getSchema());
+    }
+
+    public static JsonFilters of(MessageType schema) {
+        return new JsonFilters(schema);
+    }
+
+    public FilterPredicate eq(String path, Object value) {
+        ColumnTarget target = column(path);
+        return eq(target.column, target.convert(value));
+    }
+
+    public FilterPredicate notEq(String path, Object value) {
+        ColumnTarget target = column(path);
+        return notEq(target.column, target.convert(value));
+    }
+
+    /**
+     * Matches the records where the field is null or missing.
+     */
+    public FilterPredicate isNull(String path) {
+        return eq(column(path).column, null);
+    }
+
+    public FilterPredicate isNotNull(String path) {
+        return notEq(column(path).column, null);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public FilterPredicate lt(String path, Object value) {
+        ColumnTarget target = column(path).ordered();
+        return FilterApi.lt((Column & SupportsLtGt) target.column, target.convert(value));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public FilterPredicate ltEq(String path, Object value) {
+        ColumnTarget target = column(path).ordered();
+        return FilterApi.ltEq((Column & SupportsLtGt) target.column, target.convert(value));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public FilterPredicate gt(String path, Object value) {
+        ColumnTarget target = column(path).ordered();
+        return FilterApi.gt((Column & SupportsLtGt) target.column, target.convert(value));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public FilterPredicate gtEq(String path, Object value) {
+        ColumnTarget target = column(path).ordered();
+        return FilterApi.gtEq((Column & SupportsLtGt) target.column, target.convert(value));
+    }
+
+    public FilterPredicate in(String path, Object... values) {
+        return in(path, Arrays.asList(values));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public FilterPredicate in(String path, Collection<?> values) {
+        ColumnTarget target = column(path);
+        return FilterApi.in((Column & SupportsEqNotEq) target.column, target.convertAll(values));
+    }
+
+    public FilterPredicate notIn(String path, Object... values) {
+        return notIn(path, Arrays.asList(values));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public FilterPredicate notIn(String path, Collection<?> values) {
+        ColumnTarget target = column(path);
+        return FilterApi.notIn((Column & SupportsEqNotEq) target.column, target.convertAll(values));
+    }
+
+    public static FilterPredicate and(FilterPredicate first, FilterPredicate... others) {
+        FilterPredicate predicate = first;
+        for (FilterPredicate other : others) {
+            predicate = FilterApi.and(predicate, other);
+        }
+        return predicate;
+    }
+
+    public static FilterPredicate or(FilterPredicate first, FilterPredicate... others) {
+        FilterPredicate predicate = first;
+        for (FilterPredicate other : others) {
+            predicate = FilterApi.or(predicate, other);
+        }
+        return predicate;
+    }
+
+    public static FilterPredicate not(FilterPredicate predicate) {
+        return FilterApi.not(predicate);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static FilterPredicate eq(Column<?> column, Comparable value) {
+        return FilterApi.eq((Column & SupportsEqNotEq) column, value);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static FilterPredicate notEq(Column<?> column, Comparable value) {
+        return FilterApi.notEq((Column & SupportsEqNotEq) column, value);
+    }
+
+    private ColumnTarget column(String path) {
+        String[] names = path.split("\\.");
+        GroupType group = schema;
+
+        for (int i = 0; i < names.length; i++) {
+            if (!group.containsField(names[i])) {
+                throw new IllegalArgumentException("Unknown field " + path);
+            }
+
+            Type field = group.getType(names[i]);
+            LogicalTypeAnnotation annotation = field.getLogicalTypeAnnotation();
+            if (field.isRepetition(Type.Repetition.REPEATED)
+                    || annotation instanceof LogicalTypeAnnotation.ListLogicalTypeAnnotation
+                    || annotation instanceof LogicalTypeAnnotation.MapLogicalTypeAnnotation) {
+                throw new IllegalArgumentException("Cannot filter on " + path + ", arrays and maps are not supported");
+            }
+
+            if (i == names.length - 1) {
+                if (!field.isPrimitive()) {
+                    throw new IllegalArgumentException("Cannot filter on " + path + ", it is an object");
+                }
+                return new ColumnTarget(path, field.asPrimitiveType());
+            }
+
+            if (field.isPrimitive()) {
+                throw new IllegalArgumentException("Unknown field " + path + ", " + names[i] + " has no fields");
+            }
+            group = field.asGroupType();
+        }
+
+        throw new IllegalArgumentException("Empty field path");
+    }
+
+    /**
+     * A filtered column, its parquet type and the conversion of the values it is compared to.
+     */
+    private static final class ColumnTarget {
+        private final String path;
+        private final PrimitiveType type;
+        private final Column<?> column;
+
+        ColumnTarget(String path, PrimitiveType type) {
+            this.path = path;
+            this.type = type;
+
+            switch (type.getPrimitiveTypeName()) {
+                case INT32:
+                    column = FilterApi.intColumn(path);
+                    break;
+                case INT64:
+                    column = FilterApi.longColumn(path);
+                    break;
+                case FLOAT:
+                    column = FilterApi.floatColumn(path);
+                    break;
+                case DOUBLE:
+                    column = FilterApi.doubleColumn(path);
+                    break;
+                case BOOLEAN:
+                    column = FilterApi.booleanColumn(path);
+                    break;
+                case BINARY:
+                case FIXED_LEN_BYTE_ARRAY:
+                    column = FilterApi.binaryColumn(path);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Cannot filter on " + path + " of type " + type);
+            }
+        }
+
+        ColumnTarget ordered() {
+            if (!(column instanceof SupportsLtGt)) {
+                throw new IllegalArgumentException(path + " of type " + type + " cannot be ordered");
+            }
+            return this;
+        }
+
+        @SuppressWarnings("rawtypes")
+        Set convertAll(Collection<?> values) {
+            Set<Comparable<?>> converted = new HashSet<>();
+            for (Object value : values) {
+                converted.add(convert(value));
+            }
+            return converted;
+        }
+
+        @SuppressWarnings("rawtypes")
+        Comparable convert(Object value) {
+            if (value == null) {
+                throw new IllegalArgumentException("Null value for " + path + ", use isNull/isNotNull instead");
+            }
+
+            LogicalTypeAnnotation annotation = type.getLogicalTypeAnnotation();
+            if (annotation instanceof DecimalLogicalTypeAnnotation) {
+                BigInteger unscaled = unscaled(value, (DecimalLogicalTypeAnnotation) annotation);
+                switch (type.getPrimitiveTypeName()) {
+                    case INT32:
+                        return unscaled.intValueExact();
+                    case INT64:
+                        return unscaled.longValueExact();
+                    default:
+                        // sign extended to the length of the column
+                        byte[] bytes = unscaled.toByteArray();
+                        byte[] fixed = new byte[type.getTypeLength()];
+                        Arrays.fill(fixed, 0, fixed.length - bytes.length, (byte) (unscaled.signum() < 0 ? -1 : 0));
+                        System.arraycopy(bytes, 0, fixed, fixed.length - bytes.length, bytes.length);
+                        return Binary.fromConstantByteArray(fixed);
+                }
+            }
+            switch (type.getPrimitiveTypeName()) {
+                case INT32:
+                    if (annotation instanceof LogicalTypeAnnotation.DateLogicalTypeAnnotation) {
+                        return epochDay(value);
+                    }
+                    return integral(value).intValue();
+                case INT64:
+                    if (annotation instanceof TimestampLogicalTypeAnnotation) {
+                        return timestamp(value, (TimestampLogicalTypeAnnotation) annotation);
+                    }
+                    return integral(value).longValue();
+                case FLOAT:
+                    // a rounded bound would move the comparison, e.g. 0.1 as 0.1f is larger than 0.1
+                    float floatValue = number(value).floatValue();
+                    if (Double.compare(floatValue, number(value).doubleValue()) != 0) {
+                        throw new IllegalArgumentException(value + " is not a FLOAT value for " + path
+                                + ", pass it as a float");
+                    }
+                    return floatValue;
+                case DOUBLE:
+                    return number(value).doubleValue();
+                case BOOLEAN:
+                    return value instanceof Boolean ? (Boolean) value : Boolean.valueOf(value.toString());
+                default:
+                    if (value instanceof Binary) {
+                        return (Binary) value;
+                    } else if (value instanceof byte[]) {
+                        return Binary.fromConstantByteArray((byte[]) value);
+                    } else if (annotation instanceof LogicalTypeAnnotation.UUIDLogicalTypeAnnotation) {
+                        UUID uuid = value instanceof UUID ? (UUID) value : UUID.fromString(value.toString());
+                        return Binary.fromConstantByteArray(ByteBuffer.allocate(16)
+                                .putLong(uuid.getMostSignificantBits())
+                                .putLong(uuid.getLeastSignificantBits())
+                                .array());
+                    } else if (annotation == null) {
+                        // binary fields are written from base64 strings
+                        return Binary.fromConstantByteArray(Base64.getDecoder().decode(value.toString()));
+                    }
+                    return Binary.fromString(value.toString());
+            }
+        }
+
+        private BigInteger unscaled(Object value, DecimalLogicalTypeAnnotation decimal) {
+            BigDecimal number = value instanceof BigDecimal ? (BigDecimal) value : new BigDecimal(value.toString());
+            try {
+                return number.setScale(decimal.getScale(), RoundingMode.UNNECESSARY).unscaledValue();
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException(value + " has more than " + decimal.getScale() + " decimals for "
+                        + path);
+            }
+        }
+
+        private Number number(Object value) {
+            if (value instanceof Number) {
+                return (Number) value;
+            }
+            throw new IllegalArgumentException("Expected a number for " + path + " but got " + value);
+        }
+
+        /**
+         * The value as a whole number in the range of the column, a narrowing conversion would change the
+         * filter: a bound of 100.5 would compare as 100 and a long out of the int range would wrap around.
+         */
+        private BigInteger integral(Object value) {
+            Number number = number(value);
+            int bits = type.getPrimitiveTypeName() == PrimitiveType.PrimitiveTypeName.INT32 ? 31 : 63;
+            try {
+                BigDecimal decimal = number instanceof BigDecimal ? (BigDecimal) number
+                        : new BigDecimal(number.toString());
+                BigInteger integer = decimal.toBigIntegerExact();
+                if (integer.bitLength() <= bits) {
+                    return integer;
+                }
+            } catch (ArithmeticException | NumberFormatException e) {
+                // not a whole number, or NaN or infinite
+            }
+            throw new IllegalArgumentException(value + " is not a " + type.getPrimitiveTypeName() + " value for "
+                    + path);
+        }
+
+        private Integer epochDay(Object value) {
+            if (value instanceof Number) {
+                return integral(value).intValue();
+            } else if (value instanceof LocalDate) {
+                return (int) ((LocalDate) value).toEpochDay();
+            }
+            return (int) LocalDate.parse(value.toString()).toEpochDay();
+        }
+
+        // as written by JsonWriteSupport: columns not adjusted to UTC hold the local date-time of the value
+        private Long timestamp(Object value, TimestampLogicalTypeAnnotation timestamp) {
+            if (value instanceof Number) {
+                // already in the unit of the column
+                return integral(value).longValue();
+            }
+
+            Instant instant;
+            if (value instanceof Instant) {
+                instant = (Instant) value;
+            } else if (value instanceof TemporalAccessor) {
+                instant = timestamp.isAdjustedToUTC() ? Instant.from((TemporalAccessor) value)
+                        : LocalDateTime.from((TemporalAccessor) value).toInstant(ZoneOffset.UTC);
+            } else {
+                return new IsoDateTimeParser().parseEpoch(value.toString(), timestamp.getUnit(),
+                        timestamp.isAdjustedToUTC());
+            }
+
+            LogicalTypeAnnotation.TimeUnit unit = timestamp.getUnit();
+            switch (unit) {
+                case MILLIS:
+                    return instant.toEpochMilli();
+                case MICROS:
+                    return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L),
+                            instant.getNano() / 1000);
+                default:
+                    return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000_000L),
+                            instant.getNano());
+            }
+        }
+    }
+}
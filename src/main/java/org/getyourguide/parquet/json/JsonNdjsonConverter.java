@@ -0,0 +1,792 @@
+package org.getyourguide.parquet.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.parser.OpenAPIV3Parser;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Converts newline delimited JSON files to parquet with a pipeline of stages running on different threads.
+ *
+ * <ul>
+ *     <li>a reader thread reads the input files by chunks of whole lines,</li>
+ *     <li>a pool of parser threads turns each chunk into {@link JsonNode}s,</li>
+ *     <li>a pool of converter threads turns the records of each parsed chunk into the calls of the parquet
+ *     record consumer, kept in a {@link RecordBuffer},</li>
+ *     <li>the encoder stage, on the thread calling {@link #convert}, takes the converted chunks in input
+ *     order and replays them on the parquet writer, which encodes the columns.</li>
+ * </ul>
+ *
+ * <p>With more than one writer thread, the parsed records are instead spread over part files by a
+ * {@link JsonParquetParallelWriter}, whose workers convert and encode them in parallel, and there is no
+ * converter pool.
+ *
+ * <p>The stages are joined by a bounded queue of chunks, so the reader never gets more than
+ * {@code queueDepth} chunks ahead of the encoder and the memory used stays proportional to the chunk size.
+ * Records are written in input order when there is a single writer thread.
+ *
+ * <p>The class is also a command line tool, run {@code main} without arguments for its usage.
+ */
+public class JsonNdjsonConverter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JsonNdjsonConverter.class);
+
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    // marks the end of the input, compared by identity
+    private static final CompletableFuture<Chunk> END = CompletableFuture.completedFuture(null);
+
+    private final Path output;
+    private final ObjectSchema schema;
+    private final JsonWritePlan writePlan;
+    private final JsonWriteOptions options;
+    private final Configuration conf;
+    private final int parserThreads;
+    private final int converterThreads;
+    private final int writerThreads;
+    private final int queueDepth;
+    private final int chunkSize;
+    private final UnaryOperator<JsonParquetWriter.Builder<JsonNode>> writerConfig;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private JsonNdjsonConverter(Builder builder) {
+        this.output = builder.output;
+        this.schema = builder.schema;
+        this.writePlan = builder.writePlan;
+        this.options = builder.options;
+        this.conf = builder.conf;
+        this.parserThreads = builder.parserThreads;
+        this.converterThreads = builder.converterThreads;
+        this.writerThreads = builder.writerThreads;
+        this.queueDepth = builder.queueDepth;
+        this.chunkSize = builder.chunkSize;
+        this.writerConfig = builder.writerConfig;
+    }
+
+    /**
+     * Returns the builder of a converter writing to the given file, or to part files in the given directory
+     * when there is more than one writer thread.
+     */
+    public static Builder Builder(Path output) {
+        return new Builder(output);
+    }
+
+    /**
+     * Converts the given NDJSON files, in order, into the output. Blank lines are skipped. When the write
+     * options have a {@link RejectedRecordHandler}, it also receives the lines that aren't valid JSON.
+     *
+     * @throws IOException if an input cannot be read, a line isn't valid JSON or a record cannot be written.
+     *                     What was written before the failure is kept.
+     */
+    public Report convert(List<Path> inputs) throws IOException {
+        long start = System.nanoTime();
+        BlockingQueue<CompletableFuture<Chunk>> chunks = new ArrayBlockingQueue<>(queueDepth);
+        ExecutorService parsers = Executors.newFixedThreadPool(parserThreads, new StageThreadFactory("parser"));
+        Converters converters = writerThreads > 1 ? null : new Converters();
+        Reader reader = new Reader(inputs, chunks, parsers, converters);
+        Thread readerThread = new StageThreadFactory("reader").newThread(reader);
+
+        JsonRecordWriter writer = openWriter();
+        long records = 0;
+        long rejected = 0;
+        long bytes = 0;
+        long lastProgress = start;
+        readerThread.start();
+
+        try {
+            for (CompletableFuture<Chunk> future = chunks.take(); future != END; future = chunks.take()) {
+                Chunk chunk = future.get();
+                for (int i = 0; i < chunk.records.size(); i++) {
+                    try {
+                        if (chunk.converted != null) {
+                            // a single parquet writer
+                            ((ParquetRecordWriter) writer).writeConverted(chunk.records.get(i), chunk.converted,
+                                    i == 0 ? 0 : chunk.ends[i - 1], chunk.ends[i]);
+                        } else {
+                            writer.write(chunk.records.get(i));
+                        }
+                        records++;
+                    } catch (RejectedRecordException e) {
+                        // already passed to the rejected record handler
+                        rejected++;
+                    }
+                }
+                rejected += chunk.rejected;
+                bytes += chunk.length;
+
+                long now = System.nanoTime();
+                if (now - lastProgress > PROGRESS_INTERVAL_NANOS) {
+                    LOG.info("{}", new Report(records, rejected, bytes, 0, now - start, Collections.emptyList()));
+                    lastProgress = now;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stop(reader, readerThread, chunks, parsers, converters, writer);
+            throw new InterruptedIOException("Interrupted while converting to " + output);
+        } catch (ExecutionException e) {
+            stop(reader, readerThread, chunks, parsers, converters, writer);
+            Throwable cause = e.getCause() instanceof UncheckedIOException ? e.getCause().getCause() : e.getCause();
+            if (cause instanceof RuntimeException) {
+                // a record that cannot be converted, as thrown by the writer
+                throw (RuntimeException) cause;
+            }
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        } catch (IOException | RuntimeException e) {
+            stop(reader, readerThread, chunks, parsers, converters, writer);
+            throw e;
+        }
+
+        parsers.shutdown();
+        if (converters != null) {
+            converters.shutdown();
+        }
+        writer.close();
+
+        List<Path> files = new ArrayList<>();
+        long outputBytes = 0;
+        if (writer instanceof JsonParquetParallelWriter) {
+            for (JsonParquetParallelWriter.PartFile part : ((JsonParquetParallelWriter) writer).getManifest()) {
+                files.add(part.getPath());
+                outputBytes += part.getFileSize();
+            }
+        } else {
+            files.add(output);
+            outputBytes = output.getFileSystem(conf).getFileStatus(output).getLen();
+        }
+        return new Report(records, rejected, bytes, outputBytes, System.nanoTime() - start, files);
+    }
+
+    public Report convert(Path... inputs) throws IOException {
+        return convert(Arrays.asList(inputs));
+    }
+
+    private JsonRecordWriter openWriter() throws IOException {
+        if (writerThreads > 1) {
+            return JsonParquetParallelWriter.Builder(output)
+                    .withSchema(schema)
+                    .withWritePlan(writePlan)
+                    .withOptions(options)
+                    .withConf(conf)
+                    .withParallelism(writerThreads)
+                    .withWriterConfig(writerConfig)
+                    .build();
+        }
+        JsonParquetWriter.Builder<JsonNode> builder = JsonParquetWriter.Builder(output)
+                .withSchema(schema)
+                .withWritePlan(writePlan)
+                .withOptions(options)
+                .withConf(conf);
+        return writerConfig.apply(builder).buildRecordWriter();
+    }
+
+    // stops the reader, parsers and converters after a failure, the queue is drained until the reader sees the
+    // stop flag
+    private void stop(Reader reader, Thread readerThread, BlockingQueue<CompletableFuture<Chunk>> chunks,
+                      ExecutorService parsers, Converters converters, JsonRecordWriter writer) {
+        reader.stopped = true;
+        parsers.shutdownNow();
+        if (converters != null) {
+            converters.pool.shutdownNow();
+        }
+        try {
+            while (readerThread.isAlive()) {
+                chunks.clear();
+                readerThread.join(10);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            writer.close();
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Failed to close the writer of {}", output, e);
+        }
+    }
+
+    private void parse(Chunk chunk) {
+        List<JsonNode> records = new ArrayList<>();
+        byte[] data = chunk.data;
+        int lineStart = 0;
+        for (int i = 0; i <= chunk.length; i++) {
+            if (i == chunk.length || data[i] == '\n') {
+                if (!isBlank(data, lineStart, i)) {
+                    try {
+                        records.add(mapper.readTree(data, lineStart, i - lineStart));
+                    } catch (IOException e) {
+                        String reason = "Invalid JSON in " + chunk.file + " at offset " + (chunk.offset + lineStart);
+                        RejectedRecordHandler handler = options.getRejectedRecordHandler();
+                        if (handler == null) {
+                            throw new UncheckedIOException(new IOException(reason, e));
+                        }
+                        handler.reject(null, null, reason + ": " + e.getMessage());
+                        chunk.rejected++;
+                    }
+                }
+                lineStart = i + 1;
+            }
+        }
+        chunk.records = records;
+    }
+
+    private static boolean isBlank(byte[] data, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (data[i] != ' ' && data[i] != '\t' && data[i] != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Chunk of whole lines of an input file.
+     */
+    private static final class Chunk {
+        private final Path file;
+        private final long offset;
+        private final byte[] data;
+        private final int length;
+        private List<JsonNode> records;
+        // invalid lines, and records rejected by the converters
+        private int rejected = 0;
+        // the calls of the records, each ending at its mark, once converted
+        private RecordBuffer converted;
+        private int[] ends;
+
+        Chunk(Path file, long offset, byte[] data, int length) {
+            this.file = file;
+            this.offset = offset;
+            this.data = data;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Pool converting the records of parsed chunks, with a write support per thread.
+     */
+    private final class Converters {
+        private final ExecutorService pool = Executors.newFixedThreadPool(converterThreads,
+                new StageThreadFactory("converter"));
+        private final JsonWritePlan plan = writePlan != null ? writePlan : JsonWritePlan.of(schema, options);
+        private final List<JsonWriteSupport<JsonNode>> writeSupports = Collections.synchronizedList(new ArrayList<>());
+        private final ThreadLocal<JsonWriteSupport<JsonNode>> writeSupport = ThreadLocal.withInitial(() -> {
+            JsonWriteSupport<JsonNode> writeSupport = new JsonWriteSupport<>(plan, options);
+            writeSupport.init(conf);
+            writeSupports.add(writeSupport);
+            return writeSupport;
+        });
+
+        Chunk convert(Chunk chunk) {
+            JsonWriteSupport<JsonNode> writeSupport = this.writeSupport.get();
+            RecordBuffer buffer = new RecordBuffer();
+            List<JsonNode> records = new ArrayList<>(chunk.records.size());
+            int[] ends = new int[chunk.records.size()];
+            for (JsonNode record : chunk.records) {
+                try {
+                    writeSupport.convert(record, buffer);
+                } catch (RejectedRecordException e) {
+                    // already passed to the rejected record handler
+                    chunk.rejected++;
+                    continue;
+                }
+                ends[records.size()] = buffer.mark();
+                records.add(record);
+            }
+            chunk.records = records;
+            chunk.ends = ends;
+            chunk.converted = buffer;
+            return chunk;
+        }
+
+        // reports the errors the write supports only counted
+        void shutdown() {
+            pool.shutdown();
+            synchronized (writeSupports) {
+                for (JsonWriteSupport<JsonNode> writeSupport : writeSupports) {
+                    writeSupport.finalizeWrite();
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the inputs by chunks ending on a line break, and queues their parsing, and conversion if any, in
+     * input order.
+     */
+    private final class Reader implements Runnable {
+        private final List<Path> inputs;
+        private final BlockingQueue<CompletableFuture<Chunk>> chunks;
+        private final ExecutorService parsers;
+        private final Converters converters;
+        private volatile boolean stopped = false;
+
+        Reader(List<Path> inputs, BlockingQueue<CompletableFuture<Chunk>> chunks, ExecutorService parsers,
+               Converters converters) {
+            this.inputs = inputs;
+            this.chunks = chunks;
+            this.parsers = parsers;
+            this.converters = converters;
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (Path input : inputs) {
+                    read(input);
+                }
+                chunks.put(END);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | RuntimeException e) {
+                try {
+                    chunks.put(CompletableFuture.failedFuture(e));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        private void read(Path input) throws IOException, InterruptedException {
+            FileSystem fs = input.getFileSystem(conf);
+            try (InputStream in = fs.open(input)) {
+                byte[] buffer = new byte[chunkSize];
+                int filled = 0;
+                long offset = 0;
+
+                while (!stopped) {
+                    int read = in.read(buffer, filled, buffer.length - filled);
+                    if (read < 0) {
+                        if (filled > 0) {
+                            submit(new Chunk(input, offset, buffer, filled));
+                        }
+                        return;
+                    }
+                    filled += read;
+
+                    int end = lastLineBreak(buffer, filled);
+                    if (end < 0) {
+                        if (filled == buffer.length) {
+                            // a single line longer than the chunk size
+                            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                        }
+                        continue;
+                    }
+
+                    byte[] next = new byte[Math.max(chunkSize, filled - end)];
+                    System.arraycopy(buffer, end, next, 0, filled - end);
+                    submit(new Chunk(input, offset, buffer, end));
+                    offset += end;
+                    filled -= end;
+                    buffer = next;
+                }
+            }
+        }
+
+        private void submit(Chunk chunk) throws InterruptedException {
+            if (!stopped) {
+                CompletableFuture<Chunk> future = CompletableFuture.supplyAsync(() -> {
+                    parse(chunk);
+                    return chunk;
+                }, parsers);
+                if (converters != null) {
+                    future = future.thenApplyAsync(converters::convert, converters.pool);
+                }
+                chunks.put(future);
+            }
+        }
+
+        // position after the last line break of the buffer, -1 if there is none
+        private int lastLineBreak(byte[] buffer, int length) {
+            for (int i = length - 1; i >= 0; i--) {
+                if (buffer[i] == '\n') {
+                    return i + 1;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Outcome of a conversion.
+     */
+    public static final class Report {
+        private final long records;
+        private final long rejected;
+        private final long inputBytes;
+        private final long outputBytes;
+        private final long elapsedNanos;
+        private final List<Path> files;
+
+        Report(long records, long rejected, long inputBytes, long outputBytes, long elapsedNanos, List<Path> files) {
+            this.records = records;
+            this.rejected = rejected;
+            this.inputBytes = inputBytes;
+            this.outputBytes = outputBytes;
+            this.elapsedNanos = elapsedNanos;
+            this.files = Collections.unmodifiableList(files);
+        }
+
+        /**
+         * Records written.
+         */
+        public long getRecords() {
+            return records;
+        }
+
+        /**
+         * Records and lines passed to the {@link RejectedRecordHandler} of the write options.
+         */
+        public long getRejected() {
+            return rejected;
+        }
+
+        public long getInputBytes() {
+            return inputBytes;
+        }
+
+        public long getOutputBytes() {
+            return outputBytes;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * Parquet files written.
+         */
+        public List<Path> getFiles() {
+            return files;
+        }
+
+        public double getRecordsPerSecond() {
+            return elapsedNanos == 0 ? 0 : records * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * Throughput in megabytes (10^6 bytes) of JSON input per second.
+         */
+        public double getMegabytesPerSecond() {
+            return elapsedNanos == 0 ? 0 : inputBytes * 1e3 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%d records, %d rejected, %.1f MB in %.1f s: %.0f records/s, %.1f MB/s",
+                    records, rejected, inputBytes / 1e6, elapsedNanos / 1e9, getRecordsPerSecond(), getMegabytesPerSecond());
+        }
+    }
+
+    private static final class StageThreadFactory implements ThreadFactory {
+        private static final AtomicInteger PIPELINE = new AtomicInteger();
+
+        private final String name;
+        private final AtomicInteger count = new AtomicInteger();
+
+        StageThreadFactory(String stage) {
+            this.name = "parquet-json-ndjson-" + PIPELINE.incrementAndGet() + "-" + stage;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    public static class Builder {
+
+        private final Path output;
+        private ObjectSchema schema = null;
+        private JsonWritePlan writePlan = null;
+        private JsonWriteOptions options = JsonWriteOptions.defaults();
+        private Configuration conf = new Configuration();
+        private int parserThreads = Math.max(1, (Runtime.getRuntime().availableProcessors() - 2) / 2);
+        private int converterThreads = Math.max(1, (Runtime.getRuntime().availableProcessors() - 2) / 2);
+        private int writerThreads = 1;
+        private int queueDepth = 16;
+        private int chunkSize = 1 << 20;
+        private UnaryOperator<JsonParquetWriter.Builder<JsonNode>> writerConfig = UnaryOperator.identity();
+
+        protected Builder(Path output) {
+            this.output = output;
+        }
+
+        public Builder withSchema(ObjectSchema schema) {
+            this.schema = schema;
+            return this;
+        }
+
+        /**
+         * Writes with a compiled plan instead of a schema, e.g. one loaded with {@link JsonWritePlan#readFrom}.
+         */
+        public Builder withWritePlan(JsonWritePlan writePlan) {
+            this.writePlan = writePlan;
+            return this;
+        }
+
+        public Builder withOptions(JsonWriteOptions options) {
+            this.options = options;
+            return this;
+        }
+
+        public Builder withConf(Configuration conf) {
+            this.conf = conf;
+            return this;
+        }
+
+        /**
+         * Number of threads parsing JSON. Defaults to half of the available processors left by the reader and
+         * writer threads.
+         */
+        public Builder withParserThreads(int parserThreads) {
+            if (parserThreads < 1) {
+                throw new IllegalArgumentException("Parser threads must be positive: " + parserThreads);
+            }
+            this.parserThreads = parserThreads;
+            return this;
+        }
+
+        /**
+         * Number of threads converting the parsed records for the single writer thread, unused with more writer
+         * threads. Defaults to half of the available processors left by the reader and writer threads.
+         */
+        public Builder withConverterThreads(int converterThreads) {
+            if (converterThreads < 1) {
+                throw new IllegalArgumentException("Converter threads must be positive: " + converterThreads);
+            }
+            this.converterThreads = converterThreads;
+            return this;
+        }
+
+        /**
+         * Number of threads converting and encoding records. With more than one, the output is a directory of
+         * part files and records are no longer written in input order. Defaults to 1.
+         */
+        public Builder withWriterThreads(int writerThreads) {
+            if (writerThreads < 1) {
+                throw new IllegalArgumentException("Writer threads must be positive: " + writerThreads);
+            }
+            this.writerThreads = writerThreads;
+            return this;
+        }
+
+        /**
+         * Maximum number of chunks read ahead of the encoder stage, converted or waiting to be.
+         */
+        public Builder withQueueDepth(int queueDepth) {
+            if (queueDepth < 1) {
+                throw new IllegalArgumentException("Queue depth must be positive: " + queueDepth);
+            }
+            this.queueDepth = queueDepth;
+            return this;
+        }
+
+        /**
+         * Size in bytes of the chunks read from the inputs, a chunk is extended to hold a longer line.
+         * Defaults to 1 MiB.
+         */
+        public Builder withChunkSize(int chunkSize) {
+            if (chunkSize < 1) {
+                throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+            }
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        /**
+         * Applies further settings (compression, row group size...) to the builder of the parquet writers.
+         */
+        public Builder withWriterConfig(UnaryOperator<JsonParquetWriter.Builder<JsonNode>> writerConfig) {
+            this.writerConfig = writerConfig;
+            return this;
+        }
+
+        public JsonNdjsonConverter build() {
+            if (schema == null && writePlan == null) {
+                throw new IllegalStateException("A schema or a write plan is required");
+            }
+            return new JsonNdjsonConverter(this);
+        }
+    }
+
+    private static ObjectSchema readSchema(String spec, String schemaName) {
+        OpenAPI openAPI = new OpenAPIV3Parser().read(spec);
+        if (openAPI == null || openAPI.getComponents() == null) {
+            throw new IllegalArgumentException("Cannot read OpenAPI spec " + spec);
+        }
+        Schema<?> schema = openAPI.getComponents().getSchemas().get(schemaName);
+        if (!(schema instanceof ObjectSchema)) {
+            throw new IllegalArgumentException("Object schema " + schemaName + " not found in " + spec);
+        }
+        return (ObjectSchema) schema;
+    }
+
+    private static JsonWritePlan readPlan(Path path) {
+        try (InputStream in = path.getFileSystem(new Configuration()).open(path)) {
+            return JsonWritePlan.readFrom(in);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read write plan " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        String spec = null;
+        String schemaName = null;
+        String plan = null;
+        String output = null;
+        List<Path> inputs = new ArrayList<>();
+        Builder builder;
+        CompressionCodecName codec = CompressionCodecName.SNAPPY;
+        Integer parserThreads = null;
+        Integer converterThreads = null;
+        Integer writerThreads = null;
+        Integer queueDepth = null;
+        Integer chunkSize = null;
+        String rejected = null;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--spec":
+                        spec = args[++i];
+                        break;
+                    case "--schema":
+                        schemaName = args[++i];
+                        break;
+                    case "--plan":
+                        plan = args[++i];
+                        break;
+                    case "--output":
+                        output = args[++i];
+                        break;
+                    case "--compression":
+                        codec = CompressionCodecName.valueOf(args[++i].toUpperCase(Locale.ROOT));
+                        break;
+                    case "--parser-threads":
+                        parserThreads = Integer.parseInt(args[++i]);
+                        break;
+                    case "--converter-threads":
+                        converterThreads = Integer.parseInt(args[++i]);
+                        break;
+                    case "--writer-threads":
+                        writerThreads = Integer.parseInt(args[++i]);
+                        break;
+                    case "--queue-depth":
+                        queueDepth = Integer.parseInt(args[++i]);
+                        break;
+                    case "--rejected":
+                        rejected = args[++i];
+                        break;
+                    case "--chunk-size":
+                        chunkSize = Integer.parseInt(args[++i]);
+                        break;
+                    default:
+                        if (args[i].startsWith("--")) {
+                            throw new IllegalArgumentException("Unknown option " + args[i]);
+                        }
+                        inputs.add(new Path(args[i]));
+                }
+            }
+            if ((plan == null && (spec == null || schemaName == null)) || output == null || inputs.isEmpty()) {
+                throw new IllegalArgumentException(
+                        "--spec and --schema or --plan, --output and at least one input are required");
+            }
+
+            CompressionCodecName compression = codec;
+            builder = JsonNdjsonConverter.Builder(new Path(output))
+                    .withWriterConfig(writer -> writer.withCompressionCodec(compression));
+            if (plan != null) {
+                builder.withWritePlan(readPlan(new Path(plan)));
+            } else {
+                builder.withSchema(readSchema(spec, schemaName));
+            }
+            if (parserThreads != null) {
+                builder.withParserThreads(parserThreads);
+            }
+            if (converterThreads != null) {
+                builder.withConverterThreads(converterThreads);
+            }
+            if (writerThreads != null) {
+                builder.withWriterThreads(writerThreads);
+            }
+            if (queueDepth != null) {
+                builder.withQueueDepth(queueDepth);
+            }
+            if (chunkSize != null) {
+                builder.withChunkSize(chunkSize);
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            err.println(e instanceof ArrayIndexOutOfBoundsException
+                    ? "Missing value of " + args[args.length - 1] : e.getMessage());
+            err.println("Usage: JsonNdjsonConverter (--spec <openapi.yaml> --schema <name> | --plan <file>)");
+            err.println("           --output <path>");
+            err.println("           [--compression <codec>] [--parser-threads <n>] [--converter-threads <n>]");
+            err.println("           [--writer-threads <n>]");
+            err.println("           [--queue-depth <chunks>] [--chunk-size <bytes>] [--rejected <path.ndjson>]");
+            err.println("           <input.ndjson>...");
+            return 2;
+        }
+
+        NdjsonRejectedRecordHandler handler = null;
+        try {
+            if (rejected != null) {
+                handler = new NdjsonRejectedRecordHandler(new Path(rejected), new Configuration());
+                builder.withOptions(JsonWriteOptions.builder().withRejectedRecordHandler(handler).build());
+            }
+            Report report = builder.build().convert(inputs);
+            if (handler != null) {
+                handler.close();
+            }
+            out.println(report);
+            for (Path file : report.getFiles()) {
+                out.println(file);
+            }
+            return 0;
+        } catch (IOException | RuntimeException e) {
+            if (handler != null) {
+                try {
+                    handler.close();
+                } catch (IOException closing) {
+                    e.addSuppressed(closing);
+                }
+            }
+            err.println("Conversion failed: " + e.getMessage());
+            LOG.error("Conversion failed", e);
+            return 1;
+        }
+    }
+}
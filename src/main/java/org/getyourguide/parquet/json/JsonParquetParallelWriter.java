@@ -0,0 +1,459 @@
+package org.getyourguide.parquet.json;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writer spreading records over several parquet files written in parallel.
+ *
+ * <p>Each shard owns a {@link ParquetWriter} on its own part file, fed through a bounded queue by a
+ * dedicated worker thread, so encoding and compression run on as many cores as there are shards. The
+ * shard of a record is chosen by a {@link Sharding} strategy. {@link #write(JsonNode)} only blocks when
+ * the queue of the selected shard is full.
+ *
+ * <p>Records are handed over to the workers as is, they must not be modified after being written. A
+ * failure of a shard is reported by the next call to {@link #write(JsonNode)} or by {@link #close()},
+ * except for the records rejected to a {@link RejectedRecordHandler} which are skipped.
+ * Once closed, {@link #getManifest()} lists the part files holding at least one record; empty parts are
+ * deleted.
+ */
+public class JsonParquetParallelWriter implements JsonRecordWriter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JsonParquetParallelWriter.class);
+
+    // marks the end of the records of a shard, compared by identity
+    private static final JsonNode END = new ObjectNode(JsonNodeFactory.instance);
+
+    private final Shard[] shards;
+    private final Sharding sharding;
+    private final ExecutorService workers;
+    private final Configuration conf;
+    private List<PartFile> manifest = null;
+
+    private JsonParquetParallelWriter(Builder builder) throws IOException {
+        this.sharding = builder.sharding;
+        this.conf = builder.conf;
+        this.shards = new Shard[builder.parallelism];
+
+        try {
+            for (int i = 0; i < shards.length; i++) {
+                Path path = new Path(builder.directory, String.format("%s-%05d.parquet", builder.prefix, i));
+                JsonParquetWriter.Builder<JsonNode> writerBuilder = JsonParquetWriter.Builder(path)
+                        .withSchema(builder.schema)
+                        .withWritePlan(builder.writePlan)
+                        .withOptions(builder.options)
+                        .withConf(builder.conf);
+                JsonRecordWriter writer = builder.writerConfig.apply(writerBuilder).buildRecordWriter();
+                shards[i] = new Shard(path, writer, builder.queueSize);
+            }
+        } catch (IOException | RuntimeException e) {
+            for (Shard shard : shards) {
+                if (shard != null) {
+                    shard.writer.close();
+                }
+            }
+            throw e;
+        }
+
+        this.workers = Executors.newFixedThreadPool(shards.length, new WorkerThreadFactory());
+        for (Shard shard : shards) {
+            workers.execute(shard::run);
+        }
+    }
+
+    public static Builder Builder(Path directory) {
+        return new Builder(directory);
+    }
+
+    /**
+     * Queues the record on the shard selected by the sharding strategy.
+     *
+     * @throws IOException if a shard failed, or if interrupted while waiting for queue space
+     */
+    @Override
+    public void write(JsonNode record) throws IOException {
+        if (manifest != null) {
+            throw new IllegalStateException("Writer is closed");
+        }
+        Shard shard = shards[sharding.select(record, shards)];
+        shard.checkFailure();
+        try {
+            // a worker gone after an interrupt no longer takes from its queue, don't wait on it
+            while (!shard.queue.offer(record, 10, TimeUnit.MILLISECONDS)) {
+                shard.checkFailure();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing to " + shard.path);
+        }
+        if (shard.stopped) {
+            // queued after the worker drained its queue for the last time
+            shard.queue.clear();
+            shard.checkFailure();
+            throw new IllegalStateException("Writer is closed");
+        }
+    }
+
+    public int getParallelism() {
+        return shards.length;
+    }
+
+    /**
+     * Returns the part files written, available once the writer is closed.
+     */
+    public List<PartFile> getManifest() {
+        if (manifest == null) {
+            throw new IllegalStateException("Manifest is only available once the writer is closed");
+        }
+        return manifest;
+    }
+
+    /**
+     * Waits for the queued records to be written, closes all part files and builds the manifest.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (manifest != null) {
+            return;
+        }
+
+        try {
+            for (Shard shard : shards) {
+                while (!shard.stopped && !shard.queue.offer(END, 10, TimeUnit.MILLISECONDS)) {
+                    // wait for space while the worker runs
+                }
+            }
+            workers.shutdown();
+            while (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+                LOG.info("Waiting for {} writers to complete", shards.length);
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while closing the writers");
+        }
+
+        IOException failure = null;
+        List<PartFile> parts = new ArrayList<>();
+        for (Shard shard : shards) {
+            if (shard.failure != null) {
+                if (failure == null) {
+                    failure = new IOException("Failed to write " + shard.path, shard.failure);
+                } else {
+                    failure.addSuppressed(shard.failure);
+                }
+            } else if (shard.records == 0) {
+                FileSystem fs = shard.path.getFileSystem(conf);
+                fs.delete(shard.path, false);
+            } else {
+                FileSystem fs = shard.path.getFileSystem(conf);
+                parts.add(new PartFile(shard.path, shard.records, fs.getFileStatus(shard.path).getLen()));
+            }
+        }
+
+        manifest = Collections.unmodifiableList(parts);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * A part file written by the parallel writer.
+     */
+    public static final class PartFile {
+        private final Path path;
+        private final long recordCount;
+        private final long fileSize;
+
+        PartFile(Path path, long recordCount, long fileSize) {
+            this.path = path;
+            this.recordCount = recordCount;
+            this.fileSize = fileSize;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public long getRecordCount() {
+            return recordCount;
+        }
+
+        public long getFileSize() {
+            return fileSize;
+        }
+
+        @Override
+        public String toString() {
+            return "PartFile{path=" + path + ", recordCount=" + recordCount + ", fileSize=" + fileSize + "}";
+        }
+    }
+
+    /**
+     * Strategy choosing the shard of each record.
+     */
+    public abstract static class Sharding {
+
+        abstract int select(JsonNode record, Shard[] shards);
+
+        /**
+         * Sends the records to each shard in turn.
+         */
+        public static Sharding roundRobin() {
+            return new RoundRobin();
+        }
+
+        /**
+         * Sends all records with the same value of a field to the same shard. The field is given as a dot
+         * separated path, e.g. {@code "user.country"}; records where it is missing go to the first shard.
+         */
+        public static Sharding hash(String fieldPath) {
+            return new Hash(fieldPath);
+        }
+
+        /**
+         * Sends each record to the shard with the fewest queued records.
+         */
+        public static Sharding leastLoaded() {
+            return new LeastLoaded();
+        }
+    }
+
+    private static final class RoundRobin extends Sharding {
+        private final AtomicLong next = new AtomicLong();
+
+        @Override
+        int select(JsonNode record, Shard[] shards) {
+            return (int) Math.floorMod(next.getAndIncrement(), (long) shards.length);
+        }
+    }
+
+    private static final class Hash extends Sharding {
+        private final JsonPointer pointer;
+
+        Hash(String fieldPath) {
+            this.pointer = JsonPointer.compile("/" + fieldPath.replace('.', '/'));
+        }
+
+        @Override
+        int select(JsonNode record, Shard[] shards) {
+            JsonNode value = record.at(pointer);
+            if (value.isMissingNode() || value.isNull()) {
+                return 0;
+            }
+            return Math.floorMod(value.hashCode(), shards.length);
+        }
+    }
+
+    private static final class LeastLoaded extends Sharding {
+        private final AtomicInteger start = new AtomicInteger();
+
+        @Override
+        int select(JsonNode record, Shard[] shards) {
+            // start from a rotating shard so that ties don't always go to the first one
+            int first = Math.floorMod(start.getAndIncrement(), shards.length);
+            int selected = first;
+            int lowest = Integer.MAX_VALUE;
+            for (int i = 0; i < shards.length; i++) {
+                int candidate = (first + i) % shards.length;
+                int size = shards[candidate].queue.size();
+                if (size < lowest) {
+                    lowest = size;
+                    selected = candidate;
+                }
+            }
+            return selected;
+        }
+    }
+
+    static final class Shard {
+        private final Path path;
+        private final JsonRecordWriter writer;
+        private final BlockingQueue<JsonNode> queue;
+        private volatile Throwable failure = null;
+        // set once the worker exited, nothing takes from the queue anymore
+        private volatile boolean stopped = false;
+        private long records = 0;
+
+        Shard(Path path, JsonRecordWriter writer, int queueSize) {
+            this.path = path;
+            this.writer = writer;
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+        }
+
+        void checkFailure() throws IOException {
+            if (failure != null) {
+                throw new IOException("Failed to write " + path, failure);
+            }
+        }
+
+        private void run() {
+            try {
+                for (JsonNode record = queue.take(); record != END; record = queue.take()) {
+                    if (failure != null) {
+                        // keep draining so that producers never block on a failed shard
+                        continue;
+                    }
+                    try {
+                        writer.write(record);
+                        records++;
+                    } catch (RejectedRecordException e) {
+                        // already passed to the rejected record handler, the shard can go on
+                    } catch (Exception e) {
+                        LOG.error("Failed to write record to {}", path, e);
+                        failure = e;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = e;
+            } finally {
+                stopped = true;
+                // unblocks the producers waiting for space, they then see the failure
+                queue.clear();
+                try {
+                    writer.close();
+                } catch (IOException | RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class WorkerThreadFactory implements ThreadFactory {
+        private static final AtomicInteger POOL = new AtomicInteger();
+
+        private final int pool = POOL.incrementAndGet();
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "parquet-json-writer-" + pool + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    public static class Builder {
+
+        private final Path directory;
+        private ObjectSchema schema = null;
+        private JsonWritePlan writePlan = null;
+        private JsonWriteOptions options = JsonWriteOptions.defaults();
+        private Configuration conf = new Configuration();
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private Sharding sharding = null;
+        private String prefix = "part";
+        private int queueSize = 1024;
+        private UnaryOperator<JsonParquetWriter.Builder<JsonNode>> writerConfig = UnaryOperator.identity();
+
+        protected Builder(Path directory) {
+            this.directory = directory;
+        }
+
+        public Builder withSchema(ObjectSchema schema) {
+            this.schema = schema;
+            return this;
+        }
+
+        /**
+         * Writes with a compiled plan instead of a schema, e.g. one loaded with {@link JsonWritePlan#readFrom}.
+         */
+        public Builder withWritePlan(JsonWritePlan writePlan) {
+            this.writePlan = writePlan;
+            return this;
+        }
+
+        public Builder withOptions(JsonWriteOptions options) {
+            this.options = options;
+            return this;
+        }
+
+        public Builder withConf(Configuration conf) {
+            this.conf = conf;
+            return this;
+        }
+
+        /**
+         * Number of shards, each with its own part file and worker thread. Defaults to the number of
+         * available processors.
+         */
+        public Builder withParallelism(int parallelism) {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Sharding strategy, defaults to {@link Sharding#roundRobin()}.
+         */
+        public Builder withSharding(Sharding sharding) {
+            this.sharding = sharding;
+            return this;
+        }
+
+        /**
+         * Prefix of the part file names, {@code <prefix>-00000.parquet}. Defaults to {@code part}.
+         */
+        public Builder withPartPrefix(String prefix) {
+            this.prefix = prefix;
+            return this;
+        }
+
+        /**
+         * Maximum number of records queued per shard before {@link #write(JsonNode)} blocks.
+         */
+        public Builder withQueueSize(int queueSize) {
+            if (queueSize < 1) {
+                throw new IllegalArgumentException("Queue size must be positive: " + queueSize);
+            }
+            this.queueSize = queueSize;
+            return this;
+        }
+
+        /**
+         * Applies further settings (compression, row group size...) to the builder of each part writer.
+         */
+        public Builder withWriterConfig(UnaryOperator<JsonParquetWriter.Builder<JsonNode>> writerConfig) {
+            this.writerConfig = writerConfig;
+            return this;
+        }
+
+        public JsonParquetParallelWriter build() throws IOException {
+            if (schema == null && writePlan == null) {
+                throw new IllegalStateException("A schema or a write plan is required");
+            }
+            if (sharding == null) {
+                sharding = Sharding.roundRobin();
+            }
+            return new JsonParquetParallelWriter(this);
+        }
+    }
+}
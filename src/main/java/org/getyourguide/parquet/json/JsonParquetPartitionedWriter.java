@@ -0,0 +1,423 @@
+package org.getyourguide.parquet.json;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.util.HadoopOutputFile;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.PositionOutputStream;
+import org.getyourguide.parquet.json.JsonParquetParallelWriter.PartFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writer of a Hive partitioned dataset: each record goes to a directory named after the values of the
+ * partition fields, e.g. {@code <root>/event_date=2024-05-01/country=DE/part-00000.parquet}.
+ *
+ * <p>Each open writer buffers a row group in memory. At most {@link Builder#withMaxOpenWriters} writers
+ * are kept open, the least recently used one is closed to make room for a new partition and a later record
+ * of that partition starts a new file. All writers share a memory budget the way parquet's
+ * {@code MemoryManager} does for {@code ParquetOutputFormat}: the row group size of each writer is capped to
+ * its share of the budget, within parquet's default size of 128 MB and at least 1 MB. As the share can't go
+ * below that, the memory buffered by the open writers is also tracked after each record: when it exceeds the
+ * budget, the writer buffering the most is closed, like the least recently used one.
+ *
+ * <p>Partition values are written as text, escaped like Hive does, and missing or null values go to
+ * {@value #DEFAULT_PARTITION}. The records are written as is: with a schema without the partition fields,
+ * the files don't repeat them. Not thread safe.
+ */
+public class JsonParquetPartitionedWriter implements JsonRecordWriter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JsonParquetPartitionedWriter.class);
+
+    public static final String DEFAULT_PARTITION = "__HIVE_DEFAULT_PARTITION__";
+
+    // below this, row groups are too small for the columns to be encoded efficiently
+    private static final long MIN_ROW_GROUP_SIZE = 1024 * 1024;
+
+    private final Builder builder;
+    private final JsonWritePlan writePlan;
+    private final JsonPointer[] partitionPointers;
+    private final long rowGroupSize;
+    private final StringBuilder partitionPath = new StringBuilder();
+    // open writers by partition directory, least recently used first
+    private final LinkedHashMap<String, Partition> open = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Integer> sequences = new HashMap<>();
+    // sum of the row groups buffered by the open writers
+    private long buffered = 0;
+    private final List<PartFile> files = new ArrayList<>();
+    private boolean closed = false;
+
+    private JsonParquetPartitionedWriter(Builder builder) {
+        this.builder = builder;
+        this.writePlan = JsonWritePlan.of(builder.schema, builder.options);
+        this.partitionPointers = new JsonPointer[builder.partitionFields.length];
+        for (int i = 0; i < partitionPointers.length; i++) {
+            partitionPointers[i] = JsonPointer.compile("/" + builder.partitionFields[i].replace('.', '/'));
+        }
+
+        long share = builder.memoryBudget / builder.maxOpenWriters;
+        if (share < MIN_ROW_GROUP_SIZE) {
+            LOG.warn("Memory budget of {} bytes leaves {} bytes per writer, using row groups of {} bytes",
+                    builder.memoryBudget, share, MIN_ROW_GROUP_SIZE);
+        }
+        this.rowGroupSize = Math.max(Math.min(share, ParquetWriter.DEFAULT_BLOCK_SIZE), MIN_ROW_GROUP_SIZE);
+    }
+
+    public static Builder Builder(Path root) {
+        return new Builder(root);
+    }
+
+    /**
+     * Writes the record to the file of its partition, opening it if needed.
+     */
+    @Override
+    public void write(JsonNode record) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Writer is closed");
+        }
+        String directory = partitionOf(record);
+        Partition partition = open.get(directory);
+        if (partition == null) {
+            partition = open(directory);
+        }
+        partition.writer.write(record);
+        partition.records++;
+
+        long size = partition.buffered();
+        buffered += size - partition.buffered;
+        partition.buffered = size;
+        while (buffered > builder.memoryBudget && !open.isEmpty()) {
+            evictLargest();
+        }
+    }
+
+    /**
+     * Number of writers currently open.
+     */
+    public int getOpenWriters() {
+        return open.size();
+    }
+
+    /**
+     * Memory buffered by the open writers, kept within the memory budget.
+     */
+    public long getBufferedSize() {
+        return buffered;
+    }
+
+    /**
+     * Share of the memory budget of each writer, the maximum size of its row groups.
+     */
+    public long getRowGroupSize() {
+        return rowGroupSize;
+    }
+
+    /**
+     * Returns the files written, available once the writer is closed.
+     */
+    public List<PartFile> getManifest() {
+        if (!closed) {
+            throw new IllegalStateException("Manifest is only available once the writer is closed");
+        }
+        return Collections.unmodifiableList(files);
+    }
+
+    /**
+     * Closes all open writers.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        IOException failure = null;
+        for (Iterator<Partition> it = open.values().iterator(); it.hasNext(); ) {
+            Partition partition = it.next();
+            it.remove();
+            buffered -= partition.buffered;
+            try {
+                close(partition);
+            } catch (IOException | RuntimeException e) {
+                if (failure == null) {
+                    failure = new IOException("Failed to close " + partition.path, e);
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Relative directory of the partition of the record, {@code field=value/...}.
+     */
+    String partitionOf(JsonNode record) {
+        StringBuilder path = partitionPath;
+        path.setLength(0);
+        for (int i = 0; i < partitionPointers.length; i++) {
+            if (i > 0) {
+                path.append('/');
+            }
+            path.append(builder.partitionNames[i]).append('=');
+            JsonNode value = record.at(partitionPointers[i]);
+            if (value.isMissingNode() || value.isNull()) {
+                path.append(DEFAULT_PARTITION);
+            } else {
+                escape(value.asText(), path);
+            }
+        }
+        return path.toString();
+    }
+
+    /**
+     * Escapes the characters Hive doesn't allow in partition values as {@code %XX}.
+     */
+    static void escape(String value, StringBuilder out) {
+        if (value.isEmpty()) {
+            out.append(DEFAULT_PARTITION);
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x20 || c == 0x7F || "\"#%'*/:=?\\{[]^".indexOf(c) >= 0) {
+                out.append('%').append(Character.toUpperCase(Character.forDigit(c >> 4 & 0xF, 16)))
+                        .append(Character.toUpperCase(Character.forDigit(c & 0xF, 16)));
+            } else {
+                out.append(c);
+            }
+        }
+    }
+
+    private Partition open(String directory) throws IOException {
+        if (open.size() >= builder.maxOpenWriters) {
+            Iterator<Partition> eldest = open.values().iterator();
+            Partition evicted = eldest.next();
+            eldest.remove();
+            buffered -= evicted.buffered;
+            LOG.debug("Closing {} to open a writer for {}", evicted.path, directory);
+            close(evicted);
+        }
+
+        int sequence = sequences.merge(directory, 1, Integer::sum) - 1;
+        Path path = new Path(new Path(builder.root, directory), String.format("%s-%05d.parquet", builder.prefix,
+                sequence));
+        JsonWriteSupport<JsonNode> writeSupport = new JsonWriteSupport<>(writePlan, builder.options);
+        TrackedFile file = new TrackedFile(HadoopOutputFile.fromPath(path, builder.conf));
+        JsonParquetWriter.Builder<JsonNode> writerBuilder = new JsonParquetWriter.Builder<JsonNode>(file)
+                .withWriteSupport(writeSupport)
+                .withConf(builder.conf);
+        // the budget share applies whatever the configuration says
+        ParquetWriter<JsonNode> writer = builder.writerConfig.apply(writerBuilder)
+                .withRowGroupSize(rowGroupSize)
+                .build();
+
+        Partition partition = new Partition(path, file, new ParquetRecordWriter(writer, writeSupport));
+        open.put(directory, partition);
+        return partition;
+    }
+
+    private void evictLargest() throws IOException {
+        Iterator<Partition> it = open.values().iterator();
+        Partition largest = it.next();
+        while (it.hasNext()) {
+            Partition partition = it.next();
+            if (partition.buffered > largest.buffered) {
+                largest = partition;
+            }
+        }
+        open.values().remove(largest);
+        buffered -= largest.buffered;
+        LOG.debug("Closing {} buffering {} bytes, over the memory budget", largest.path, largest.buffered);
+        close(largest);
+    }
+
+    private void close(Partition partition) throws IOException {
+        partition.writer.close();
+        FileSystem fs = partition.path.getFileSystem(builder.conf);
+        files.add(new PartFile(partition.path, partition.records, fs.getFileStatus(partition.path).getLen()));
+    }
+
+    private static final class Partition {
+        private final Path path;
+        private final TrackedFile file;
+        private final ParquetRecordWriter writer;
+        private long records = 0;
+        // as of the last record written
+        private long buffered = 0;
+
+        Partition(Path path, TrackedFile file, ParquetRecordWriter writer) {
+            this.path = path;
+            this.file = file;
+            this.writer = writer;
+        }
+
+        /**
+         * Size of the row group being buffered: what the writer reports minus what already reached the file.
+         */
+        long buffered() {
+            return Math.max(writer.getDataSize() - file.getPos(), 0);
+        }
+    }
+
+    /**
+     * Output file keeping its stream, to know how much of the data was flushed.
+     */
+    private static final class TrackedFile implements OutputFile {
+        private final OutputFile file;
+        private PositionOutputStream stream = null;
+
+        TrackedFile(OutputFile file) {
+            this.file = file;
+        }
+
+        long getPos() {
+            try {
+                return stream == null ? 0 : stream.getPos();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public PositionOutputStream create(long blockSizeHint) throws IOException {
+            stream = file.create(blockSizeHint);
+            return stream;
+        }
+
+        @Override
+        public PositionOutputStream createOrOverwrite(long blockSizeHint) throws IOException {
+            stream = file.createOrOverwrite(blockSizeHint);
+            return stream;
+        }
+
+        @Override
+        public boolean supportsBlockSize() {
+            return file.supportsBlockSize();
+        }
+
+        @Override
+        public long defaultBlockSize() {
+            return file.defaultBlockSize();
+        }
+
+        @Override
+        public String getPath() {
+            return file.getPath();
+        }
+    }
+
+    public static class Builder {
+
+        private final Path root;
+        private ObjectSchema schema = null;
+        private JsonWriteOptions options = JsonWriteOptions.defaults();
+        private Configuration conf = new Configuration();
+        private String[] partitionFields = null;
+        private String[] partitionNames = null;
+        private String prefix = "part";
+        private int maxOpenWriters = 64;
+        private long memoryBudget = Runtime.getRuntime().maxMemory() / 2;
+        private UnaryOperator<JsonParquetWriter.Builder<JsonNode>> writerConfig = UnaryOperator.identity();
+
+        protected Builder(Path root) {
+            this.root = root;
+        }
+
+        public Builder withSchema(ObjectSchema schema) {
+            this.schema = schema;
+            return this;
+        }
+
+        public Builder withOptions(JsonWriteOptions options) {
+            this.options = options;
+            return this;
+        }
+
+        public Builder withConf(Configuration conf) {
+            this.conf = conf;
+            return this;
+        }
+
+        /**
+         * Fields the records are partitioned by, in directory order. Fields are given as dot separated paths,
+         * e.g. {@code "user.country"}, the directories are named after the last segment.
+         */
+        public Builder withPartitionFields(String... partitionFields) {
+            this.partitionFields = partitionFields.clone();
+            this.partitionNames = new String[partitionFields.length];
+            for (int i = 0; i < partitionFields.length; i++) {
+                partitionNames[i] = partitionFields[i].substring(partitionFields[i].lastIndexOf('.') + 1);
+            }
+            return this;
+        }
+
+        /**
+         * Prefix of the file names, {@code <prefix>-00000.parquet}. Defaults to {@code part}.
+         */
+        public Builder withFilePrefix(String prefix) {
+            this.prefix = prefix;
+            return this;
+        }
+
+        /**
+         * Maximum number of writers open at once. Defaults to 64.
+         */
+        public Builder withMaxOpenWriters(int maxOpenWriters) {
+            if (maxOpenWriters < 1) {
+                throw new IllegalArgumentException("Max open writers must be positive: " + maxOpenWriters);
+            }
+            this.maxOpenWriters = maxOpenWriters;
+            return this;
+        }
+
+        /**
+         * Memory the open writers may use together to buffer their row groups, the writer buffering the most is
+         * closed when they exceed it. Defaults to half of the maximum heap size.
+         */
+        public Builder withMemoryBudget(long memoryBudget) {
+            if (memoryBudget < 1) {
+                throw new IllegalArgumentException("Memory budget must be positive: " + memoryBudget);
+            }
+            this.memoryBudget = memoryBudget;
+            return this;
+        }
+
+        /**
+         * Applies further settings (compression, page size...) to the builder of each file writer. The row
+         * group size is set from the memory budget.
+         */
+        public Builder withWriterConfig(UnaryOperator<JsonParquetWriter.Builder<JsonNode>> writerConfig) {
+            this.writerConfig = writerConfig;
+            return this;
+        }
+
+        public JsonParquetPartitionedWriter build() {
+            if (schema == null) {
+                throw new IllegalStateException("A schema is required");
+            }
+            if (partitionFields == null || partitionFields.length == 0) {
+                throw new IllegalStateException("At least one partition field is required");
+            }
+            return new JsonParquetPartitionedWriter(this);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.getyourguide.parquet.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.api.ReadSupport;
+import org.apache.parquet.hadoop.util.ConfigurationUtil;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.io.InputFile;
+
+/**
+ * Reader of parquet files written by {@link JsonParquetWriter}, returning Jackson JsonNode records.
+ */
+public final class JsonParquetReader {
+
+    private JsonParquetReader() {
+    }
+
+    /**
+     * Reads a single parquet file, opened with the configuration of the builder.
+     */
+    public static Builder Builder(Path path) {
+        return new Builder(path);
+    }
+
+    public static Builder Builder(InputFile file) {
+        return new Builder(file);
+    }
+
+    public static class Builder extends ParquetReader.Builder<JsonNode> {
+
+        // opened on build, once the configuration is known
+        private final Path path;
+        private ObjectSchema projectionSchema = null;
+        private Collection<String> projectionFields = null;
+
+        protected Builder(Path path) {
+            this.path = path;
+        }
+
+        protected Builder(InputFile file) {
+            super(file);
+            this.path = null;
+        }
+
+        /**
+         * Reads only the fields of the given schema, a subset of the schema the file was written with.
+         */
+        public Builder withProjection(ObjectSchema projection) {
+            this.projectionSchema = projection;
+            this.projectionFields = null;
+            return this;
+        }
+
+        /**
+         * Reads only the given dot separated field paths, see {@link JsonReadSupport}.
+         */
+        public Builder withProjection(Collection<String> fieldPaths) {
+            this.projectionFields = fieldPaths;
+            this.projectionSchema = null;
+            return this;
+        }
+
+        public Builder withProjection(String... fieldPaths) {
+            return withProjection(Arrays.asList(fieldPaths));
+        }
+
+        @Override
+        public ParquetReader<JsonNode> build() throws IOException {
+            if (path != null) {
+                withFile(HadoopInputFile.fromPath(path, ConfigurationUtil.createHadoopConfiguration(configuration)));
+            }
+            return super.build();
+        }
+
+        @Override
+        protected ReadSupport<JsonNode> getReadSupport() {
+            if (projectionSchema != null) {
+                return new JsonReadSupport(projectionSchema);
+            } else if (projectionFields != null) {
+                return new JsonReadSupport(projectionFields);
+            }
+            return new JsonReadSupport();
+        }
+    }
+}
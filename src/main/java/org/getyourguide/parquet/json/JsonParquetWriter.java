@@ -34,9 +34,14 @@ public class JsonParquetWriter<T> extends ParquetWriter<T> {
 
     private static WriteSupport<JsonNode> writeSupport(Configuration conf,
                                                        ObjectSchema schema,
-                                                       boolean writeDefaultValue,
-                                                       boolean writeNullAsDefault) {
-        return new JsonWriteSupport(schema, writeDefaultValue, writeNullAsDefault);
+                                                       JsonWriteOptions options) {
+        return new JsonWriteSupport(schema, options);
+    }
+
+    private static WriteSupport<JsonNode> writeSupport(Configuration conf,
+                                                       JsonWritePlan writePlan,
+                                                       JsonWriteOptions options) {
+        return new JsonWriteSupport(writePlan, options);
     }
 
     public static Builder<JsonNode> Builder(Path path) {
@@ -46,8 +51,11 @@ public class JsonParquetWriter<T> extends ParquetWriter<T> {
     public static class Builder<JsonNode> extends ParquetWriter.Builder<JsonNode, Builder<JsonNode>> {
 
         private ObjectSchema schema = null;
-        private boolean writeDefaultValue;
-        private boolean writeNullAsDefault;
+        private JsonWritePlan writePlan = null;
+        private JsonWriteOptions.Builder options = JsonWriteOptions.builder();
+        private WriteSupport<JsonNode> writeSupport = null;
+        private WriteSupport<JsonNode> sharedWriteSupport = null;
+        private boolean validation = false;
 
         protected Builder(Path path) {
             super(path);
@@ -62,13 +70,26 @@ public class JsonParquetWriter<T> extends ParquetWriter<T> {
             return this;
         }
 
+        /**
+         * Writes with a compiled plan instead of a schema, e.g. one loaded with {@link JsonWritePlan#readFrom}.
+         */
+        public Builder<JsonNode> withWritePlan(JsonWritePlan writePlan) {
+            this.writePlan = writePlan;
+            return this;
+        }
+
+        public Builder<JsonNode> withOptions(JsonWriteOptions options) {
+            this.options = options.toBuilder();
+            return this;
+        }
+
         public Builder<JsonNode> withNullAsDefault() {
-            this.writeNullAsDefault = true;
+            this.options.withNullAsDefault(true);
             return this;
         }
 
         public Builder<JsonNode> withWriteDefault() {
-            this.writeDefaultValue = true;
+            this.options.withWriteDefault(true);
             return this;
         }
 
@@ -77,9 +98,77 @@ public class JsonParquetWriter<T> extends ParquetWriter<T> {
             return this;
         }
 
+        @Override
+        public Builder<JsonNode> enableValidation() {
+            return withValidation(true);
+        }
+
+        @Override
+        public Builder<JsonNode> withValidation(boolean enableValidation) {
+            this.validation = enableValidation;
+            return super.withValidation(enableValidation);
+        }
+
+        /**
+         * Writes with the given write support instead of a new one, e.g. to reuse the same writers for a
+         * sequence of files. Schema and options are then those of the write support.
+         */
+        Builder<JsonNode> withWriteSupport(WriteSupport<JsonNode> writeSupport) {
+            this.sharedWriteSupport = writeSupport;
+            return this;
+        }
+
         @Override
         protected WriteSupport<JsonNode> getWriteSupport(Configuration conf) {
-            return (WriteSupport<JsonNode>) JsonParquetWriter.writeSupport(conf, schema, writeDefaultValue, writeNullAsDefault);
+            WriteSupport<JsonNode> writeSupport;
+            if (sharedWriteSupport != null) {
+                writeSupport = sharedWriteSupport;
+            } else if (writePlan != null) {
+                writeSupport = (WriteSupport<JsonNode>) JsonParquetWriter.writeSupport(conf, writePlan, options.build());
+            } else {
+                writeSupport = (WriteSupport<JsonNode>) JsonParquetWriter.writeSupport(conf, schema, options.build());
+            }
+            this.writeSupport = writeSupport;
+            return writeSupport;
+        }
+
+        /**
+         * Builds the writer, with the column settings given as {@code x-parquet-*} extensions in the schema, see
+         * {@link ColumnHints}. Settings made on the builder for the same columns are overridden.
+         *
+         * @throws IllegalStateException if validation is enabled with
+         *                               {@link JsonWriteOptions.Builder#withPayloadDrivenIteration}, the fields
+         *                               are then written out of schema order
+         */
+        @Override
+        public ParquetWriter<JsonNode> build() throws IOException {
+            JsonWriteOptions writeOptions = sharedWriteSupport instanceof JsonWriteSupport
+                    ? ((JsonWriteSupport<?>) sharedWriteSupport).getOptions() : options.build();
+            if (validation && writeOptions.isPayloadDrivenIteration()) {
+                throw new IllegalStateException("Validation requires the fields in schema order, "
+                        + "it cannot be enabled with payload driven iteration");
+            }
+            JsonWritePlan plan = writePlan;
+            if (sharedWriteSupport instanceof JsonWriteSupport) {
+                plan = ((JsonWriteSupport<?>) sharedWriteSupport).getWritePlan();
+            } else if (plan == null && schema != null) {
+                plan = JsonWritePlan.of(schema, options.build());
+            }
+            if (plan != null) {
+                ColumnHints.applyTo(plan.getColumnHints().values(), this);
+            }
+            return super.build();
+        }
+
+        /**
+         * Builds the writer as a {@link JsonRecordWriter}. Records rejected to a {@link RejectedRecordHandler}
+         * are rejected before reaching the parquet writer, which keeps on writing, whereas
+         * {@link ParquetWriter#write} aborts the file on any failure.
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public JsonRecordWriter buildRecordWriter() throws IOException {
+            ParquetWriter writer = build();
+            return new ParquetRecordWriter(writer, (JsonWriteSupport) writeSupport);
         }
     }
 
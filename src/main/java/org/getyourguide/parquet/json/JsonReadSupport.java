@@ -0,0 +1,214 @@
+package org.getyourguide.parquet.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.conf.HadoopParquetConfiguration;
+import org.apache.parquet.conf.ParquetConfiguration;
+import org.apache.parquet.hadoop.api.InitContext;
+import org.apache.parquet.hadoop.api.ReadSupport;
+import org.apache.parquet.io.api.RecordMaterializer;
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.InvalidSchemaException;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+
+/**
+ * Implementation of {@link ReadSupport} rebuilding Jackson JsonNode records from files written by
+ * {@link JsonWriteSupport}.
+ *
+ * <p>A projection restricts the columns read from the file. It is given either as an {@link ObjectSchema}
+ * holding a subset of the fields of the written schema, or as a list of dot separated field paths
+ * (e.g. {@code "nested.key1"}). Paths follow the JSON structure: the items of an array and the values of a
+ * map are reached through the array or map field itself, and the keys of a map are always read. The field
+ * paths can also be set in the configuration with {@link #PROJECTION_FIELDS}, comma separated.
+ */
+public class JsonReadSupport extends ReadSupport<JsonNode> {
+
+    public static final String PROJECTION_FIELDS = "parquet.json.projection.fields";
+
+    private final ObjectSchema projectionSchema;
+    private final List<String> projectionFields;
+
+    public JsonReadSupport() {
+        this(null, null);
+    }
+
+    public JsonReadSupport(ObjectSchema projection) {
+        this(projection, null);
+    }
+
+    public JsonReadSupport(Collection<String> projection) {
+        this(null, new ArrayList<>(projection));
+    }
+
+    private JsonReadSupport(ObjectSchema projectionSchema, List<String> projectionFields) {
+        this.projectionSchema = projectionSchema;
+        this.projectionFields = projectionFields;
+    }
+
+    @Override
+    public ReadContext init(InitContext context) {
+        MessageType fileSchema = context.getFileSchema();
+
+        if (projectionSchema != null) {
+            MessageType projection = new JsonSchemaConverter().convert(projectionSchema);
+            return new ReadContext(getSchemaForRead(fileSchema,
+                    new MessageType(projection.getName(), fileColumnsOf(fileSchema, projection))));
+        }
+
+        List<String> fields = projectionFields;
+        String configured = context.getParquetConfiguration().getTrimmed(PROJECTION_FIELDS);
+        if (fields == null && configured != null) {
+            fields = configured.isEmpty() ? Collections.emptyList() : Arrays.asList(configured.split("\\s*,\\s*"));
+        }
+
+        if (fields != null) {
+            return new ReadContext(project(fileSchema, fields));
+        }
+
+        return new ReadContext(fileSchema);
+    }
+
+    @Override
+    public RecordMaterializer<JsonNode> prepareForRead(ParquetConfiguration configuration,
+                                                       Map<String, String> keyValueMetaData,
+                                                       MessageType fileSchema,
+                                                       ReadContext readContext) {
+        return new JsonRecordMaterializer(readContext.getRequestedSchema());
+    }
+
+    /**
+     * Still abstract in {@link ReadSupport}, same as the {@link ParquetConfiguration} variant.
+     */
+    @Override
+    @Deprecated
+    public RecordMaterializer<JsonNode> prepareForRead(Configuration configuration,
+                                                       Map<String, String> keyValueMetaData,
+                                                       MessageType fileSchema,
+                                                       ReadContext readContext) {
+        return prepareForRead(new HadoopParquetConfiguration(configuration), keyValueMetaData, fileSchema,
+                readContext);
+    }
+
+    /**
+     * Keeps the columns of the given field paths only.
+     */
+    static MessageType project(MessageType fileSchema, Collection<String> fieldPaths) {
+        Map<String, Object> requested = new LinkedHashMap<>();
+        for (String path : fieldPaths) {
+            addPath(requested, path.split("\\."), 0);
+        }
+        return new MessageType(fileSchema.getName(), projectFields(fileSchema, requested));
+    }
+
+    // requested fields as a tree of maps, an empty map selects the whole field
+    @SuppressWarnings("unchecked")
+    private static void addPath(Map<String, Object> requested, String[] path, int depth) {
+        Map<String, Object> children = (Map<String, Object>) requested.get(path[depth]);
+
+        if (children != null && children.isEmpty()) {
+            // the whole field is already selected
+            return;
+        }
+
+        if (depth == path.length - 1) {
+            requested.put(path[depth], new LinkedHashMap<>());
+            return;
+        }
+
+        if (children == null) {
+            children = new LinkedHashMap<>();
+            requested.put(path[depth], children);
+        }
+        addPath(children, path, depth + 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Type> projectFields(GroupType group, Map<String, Object> requested) {
+        for (String name : requested.keySet()) {
+            if (!group.containsField(name)) {
+                throw new InvalidSchemaException("Unknown field " + name + " in projection of " + group.getName());
+            }
+        }
+
+        // fields are kept in file order
+        List<Type> fields = new ArrayList<>();
+        for (Type field : group.getFields()) {
+            Map<String, Object> children = (Map<String, Object>) requested.get(field.getName());
+            if (children != null) {
+                fields.add(children.isEmpty() ? field : projectNested(field, children));
+            }
+        }
+        return fields;
+    }
+
+    // the projection is converted with the default JsonWriteOptions and extensions of its own schema, while
+    // the file may have been written with others: the unit of timestamps, the precision of decimals, UUIDs
+    // as strings or 16 byte columns. The projection takes the columns as written.
+    private static List<Type> fileColumnsOf(GroupType fileGroup, GroupType projection) {
+        List<Type> fields = new ArrayList<>();
+        for (Type field : projection.getFields()) {
+            Type fileField = fileGroup.containsField(field.getName()) ? fileGroup.getType(field.getName()) : null;
+            if (fileField == null || fileField.isPrimitive() != field.isPrimitive()) {
+                fields.add(field);
+            } else if (!field.isPrimitive()) {
+                fields.add(field.asGroupType().withNewFields(fileColumnsOf(fileField.asGroupType(), field.asGroupType())));
+            } else if (isSameColumn(field.asPrimitiveType(), fileField.asPrimitiveType())) {
+                fields.add(fileField);
+            } else {
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    private static boolean isSameColumn(PrimitiveType field, PrimitiveType fileField) {
+        if (field.getPrimitiveTypeName() == fileField.getPrimitiveTypeName()) {
+            return true;
+        }
+        LogicalTypeAnnotation annotation = field.getLogicalTypeAnnotation();
+        LogicalTypeAnnotation fileAnnotation = fileField.getLogicalTypeAnnotation();
+        return isUuidOrString(field) && isUuidOrString(fileField)
+                || annotation instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation
+                && fileAnnotation instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation;
+    }
+
+    private static boolean isUuidOrString(PrimitiveType type) {
+        LogicalTypeAnnotation annotation = type.getLogicalTypeAnnotation();
+        return annotation instanceof LogicalTypeAnnotation.UUIDLogicalTypeAnnotation
+                || annotation instanceof LogicalTypeAnnotation.StringLogicalTypeAnnotation;
+    }
+
+    private static Type projectNested(Type field, Map<String, Object> requested) {
+        if (field.isPrimitive()) {
+            throw new InvalidSchemaException("Field " + field.getName() + " has no nested fields");
+        }
+
+        GroupType group = field.asGroupType();
+        LogicalTypeAnnotation annotation = group.getLogicalTypeAnnotation();
+
+        if (annotation instanceof LogicalTypeAnnotation.ListLogicalTypeAnnotation) {
+            // <list-repetition> group <name> (LIST) { repeated group list { <element-repetition> <element> } }
+            GroupType list = group.getType(0).asGroupType();
+            Type element = projectNested(list.getType(0), requested);
+            return group.withNewFields(list.withNewFields(element));
+        } else if (annotation instanceof LogicalTypeAnnotation.MapLogicalTypeAnnotation) {
+            // <map-repetition> group <name> (MAP) { repeated group key_value { key; value } }
+            GroupType keyValue = group.getType(0).asGroupType();
+            Type value = projectNested(keyValue.getType(1), requested);
+            return group.withNewFields(keyValue.withNewFields(keyValue.getType(0), value));
+        }
+
+        return group.withNewFields(projectFields(group, requested));
+    }
+}
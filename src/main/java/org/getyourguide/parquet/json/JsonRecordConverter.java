@@ -1,5 +1,474 @@
 package org.getyourguide.parquet.json;
 
-public class JsonRecordConverter {
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.node.DecimalNode;
+import com.fasterxml.jackson.databind.node.DoubleNode;
+import com.fasterxml.jackson.databind.node.FloatNode;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.LongNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.UUID;
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.Converter;
+import org.apache.parquet.io.api.GroupConverter;
+import org.apache.parquet.io.api.PrimitiveConverter;
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.InvalidSchemaException;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.TimestampLogicalTypeAnnotation;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
 
+/**
+ * Converter of a parquet group into a Jackson {@link ObjectNode}, the inverse of the layout written by
+ * {@link JsonWriteSupport}.
+ *
+ * <p>Lists and maps become arrays and objects, dates and timestamps ISO-8601 strings, and binaries without
+ * a logical type base64 strings. Fields without a value are left out of the object.
+ */
+public class JsonRecordConverter extends GroupConverter {
+
+    private static final JsonNodeFactory FACTORY = JsonNodeFactory.instance;
+
+    private final ParentValueContainer parent;
+    private final Converter[] converters;
+    private ObjectNode current;
+
+    public JsonRecordConverter(GroupType schema) {
+        this(schema, null);
+    }
+
+    JsonRecordConverter(GroupType schema, ParentValueContainer parent) {
+        this.parent = parent;
+        this.converters = new Converter[schema.getFieldCount()];
+
+        for (int i = 0; i < converters.length; i++) {
+            Type field = schema.getType(i);
+            String name = field.getName();
+            converters[i] = newConverter(field, value -> current.set(name, value));
+        }
+    }
+
+    /**
+     * The object built from the last group read.
+     */
+    public ObjectNode getCurrentRecord() {
+        return current;
+    }
+
+    @Override
+    public Converter getConverter(int fieldIndex) {
+        return converters[fieldIndex];
+    }
+
+    @Override
+    public void start() {
+        current = FACTORY.objectNode();
+    }
+
+    @Override
+    public void end() {
+        if (parent != null) {
+            parent.add(current);
+        }
+    }
+
+    /**
+     * Receives the values built by a child converter.
+     */
+    interface ParentValueContainer {
+        void add(JsonNode value);
+    }
+
+    private static Converter newConverter(Type field, ParentValueContainer parent) {
+
+        if (!field.isPrimitive()) {
+            GroupType group = field.asGroupType();
+            LogicalTypeAnnotation annotation = group.getLogicalTypeAnnotation();
+
+            if (annotation instanceof LogicalTypeAnnotation.ListLogicalTypeAnnotation) {
+                return new ListConverter(group, parent);
+            } else if (annotation instanceof LogicalTypeAnnotation.MapLogicalTypeAnnotation) {
+                return new MapConverter(group, parent);
+            } else if (group.isRepetition(Type.Repetition.REPEATED)) {
+                throw unsupportedType(field);
+            }
+            return new JsonRecordConverter(group, parent);
+        }
+
+        if (field.isRepetition(Type.Repetition.REPEATED)) {
+            throw unsupportedType(field);
+        }
+
+        PrimitiveType primitive = field.asPrimitiveType();
+        LogicalTypeAnnotation annotation = primitive.getLogicalTypeAnnotation();
+
+        if (annotation instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) {
+            return new DecimalConverter((LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) annotation, parent);
+        }
+
+        switch (primitive.getPrimitiveTypeName()) {
+            case BINARY:
+                if (annotation instanceof LogicalTypeAnnotation.StringLogicalTypeAnnotation
+                        || annotation instanceof LogicalTypeAnnotation.EnumLogicalTypeAnnotation
+                        || annotation instanceof LogicalTypeAnnotation.JsonLogicalTypeAnnotation) {
+                    return new StringConverter(parent);
+                }
+                return new Base64Converter(parent);
+            case FIXED_LEN_BYTE_ARRAY:
+                if (annotation instanceof LogicalTypeAnnotation.UUIDLogicalTypeAnnotation) {
+                    return new UuidConverter(parent);
+                }
+                return new Base64Converter(parent);
+            case INT32:
+                if (annotation instanceof LogicalTypeAnnotation.DateLogicalTypeAnnotation) {
+                    return new DateConverter(parent);
+                }
+                return new IntConverter(parent);
+            case INT64:
+                if (annotation instanceof TimestampLogicalTypeAnnotation) {
+                    return new TimestampConverter((TimestampLogicalTypeAnnotation) annotation, parent);
+                }
+                return new LongConverter(parent);
+            case BOOLEAN:
+                return new BooleanConverter(parent);
+            case FLOAT:
+                return new FloatConverter(parent);
+            case DOUBLE:
+                return new DoubleConverter(parent);
+            default:
+                throw unsupportedType(field);
+        }
+    }
+
+    private static InvalidSchemaException unsupportedType(Type field) {
+        return new InvalidSchemaException("Cannot read field " + field.getName() + " of type " + field);
+    }
+
+    static final class ListConverter extends GroupConverter {
+        private final ParentValueContainer parent;
+        private final ElementConverter elementConverter;
+        private ArrayNode current;
+
+        ListConverter(GroupType listType, ParentValueContainer parent) {
+            this.parent = parent;
+            this.elementConverter = new ElementConverter(listType.getType(0).asGroupType());
+        }
+
+        @Override
+        public Converter getConverter(int fieldIndex) {
+            return elementConverter;
+        }
+
+        @Override
+        public void start() {
+            current = FACTORY.arrayNode();
+        }
+
+        @Override
+        public void end() {
+            parent.add(current);
+        }
+
+        // the repeated "list" group, one per element
+        private final class ElementConverter extends GroupConverter {
+            private final Converter converter;
+            private boolean hasValue;
+
+            ElementConverter(GroupType repeatedType) {
+                this.converter = newConverter(repeatedType.getType(0), value -> {
+                    current.add(value);
+                    hasValue = true;
+                });
+            }
+
+            @Override
+            public Converter getConverter(int fieldIndex) {
+                return converter;
+            }
+
+            @Override
+            public void start() {
+                hasValue = false;
+            }
+
+            @Override
+            public void end() {
+                // an empty group is a null element
+                if (!hasValue) {
+                    current.addNull();
+                }
+            }
+        }
+    }
+
+    static final class MapConverter extends GroupConverter {
+        private final ParentValueContainer parent;
+        private final KeyValueConverter keyValueConverter;
+        private ObjectNode current;
+
+        MapConverter(GroupType mapType, ParentValueContainer parent) {
+            this.parent = parent;
+            this.keyValueConverter = new KeyValueConverter(mapType.getType(0).asGroupType());
+        }
+
+        @Override
+        public Converter getConverter(int fieldIndex) {
+            return keyValueConverter;
+        }
+
+        @Override
+        public void start() {
+            current = FACTORY.objectNode();
+        }
+
+        @Override
+        public void end() {
+            parent.add(current);
+        }
+
+        // the repeated "key_value" group, one per entry
+        private final class KeyValueConverter extends GroupConverter {
+            private final Converter keyConverter;
+            private final Converter valueConverter;
+            private String key;
+            private JsonNode value;
+
+            KeyValueConverter(GroupType keyValueType) {
+                this.keyConverter = newConverter(keyValueType.getType(0), key -> this.key = key.asText());
+                // projected maps may only have their keys
+                this.valueConverter = keyValueType.getFieldCount() > 1
+                        ? newConverter(keyValueType.getType(1), value -> this.value = value)
+                        : null;
+            }
+
+            @Override
+            public Converter getConverter(int fieldIndex) {
+                return fieldIndex == 0 ? keyConverter : valueConverter;
+            }
+
+            @Override
+            public void start() {
+                key = null;
+                value = null;
+            }
+
+            @Override
+            public void end() {
+                current.set(key, value != null ? value : NullNode.getInstance());
+            }
+        }
+    }
+
+    static final class StringConverter extends PrimitiveConverter {
+        private final ParentValueContainer parent;
+        // decoded once per dictionary page, text nodes are immutable so they can be shared by records
+        private TextNode[] dictionary;
+
+        StringConverter(ParentValueContainer parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public boolean hasDictionarySupport() {
+            return true;
+        }
+
+        @Override
+        public void setDictionary(Dictionary dictionary) {
+            this.dictionary = new TextNode[dictionary.getMaxId() + 1];
+            for (int id = 0; id <= dictionary.getMaxId(); id++) {
+                this.dictionary[id] = TextNode.valueOf(dictionary.decodeToBinary(id).toStringUsingUTF8());
+            }
+        }
+
+        @Override
+        public void addValueFromDictionary(int dictionaryId) {
+            parent.add(dictionary[dictionaryId]);
+        }
+
+        @Override
+        public void addBinary(Binary value) {
+            parent.add(TextNode.valueOf(value.toStringUsingUTF8()));
+        }
+    }
+
+    static final class Base64Converter extends PrimitiveConverter {
+        private final ParentValueContainer parent;
+
+        Base64Converter(ParentValueContainer parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public void addBinary(Binary value) {
+            parent.add(TextNode.valueOf(Base64.getEncoder().encodeToString(value.getBytes())));
+        }
+    }
+
+    static final class UuidConverter extends PrimitiveConverter {
+        private final ParentValueContainer parent;
+
+        UuidConverter(ParentValueContainer parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public void addBinary(Binary value) {
+            ByteBuffer bytes = value.toByteBuffer();
+            UUID uuid = new UUID(bytes.getLong(bytes.position()), bytes.getLong(bytes.position() + Long.BYTES));
+            parent.add(TextNode.valueOf(uuid.toString()));
+        }
+    }
+
+    static final class DateConverter extends PrimitiveConverter {
+        private final ParentValueContainer parent;
+
+        DateConverter(ParentValueContainer parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public void addInt(int value) {
+            parent.add(TextNode.valueOf(LocalDate.ofEpochDay(value).toString()));
+        }
+    }
+
+    static final class TimestampConverter extends PrimitiveConverter {
+        private final ParentValueContainer parent;
+        private final LogicalTypeAnnotation.TimeUnit unit;
+        private final boolean adjustedToUTC;
+
+        TimestampConverter(TimestampLogicalTypeAnnotation annotation, ParentValueContainer parent) {
+            this.parent = parent;
+            this.unit = annotation.getUnit();
+            this.adjustedToUTC = annotation.isAdjustedToUTC();
+        }
+
+        @Override
+        public void addLong(long value) {
+            Instant instant;
+            switch (unit) {
+                case MILLIS:
+                    instant = Instant.ofEpochMilli(value);
+                    break;
+                case MICROS:
+                    instant = Instant.ofEpochSecond(Math.floorDiv(value, 1_000_000L),
+                            Math.floorMod(value, 1_000_000L) * 1000L);
+                    break;
+                default:
+                    instant = Instant.ofEpochSecond(Math.floorDiv(value, 1_000_000_000L),
+                            Math.floorMod(value, 1_000_000_000L));
+                    break;
+            }
+            String text = adjustedToUTC
+                    ? instant.toString()
+                    : LocalDateTime.ofInstant(instant, ZoneOffset.UTC).toString();
+            parent.add(TextNode.valueOf(text));
+        }
+    }
+
+    static final class DecimalConverter extends PrimitiveConverter {
+        private final int scale;
+        private final ParentValueContainer parent;
+
+        DecimalConverter(LogicalTypeAnnotation.DecimalLogicalTypeAnnotation decimal, ParentValueContainer parent) {
+            this.scale = decimal.getScale();
+            this.parent = parent;
+        }
+
+        @Override
+        public void addInt(int value) {
+            parent.add(DecimalNode.valueOf(BigDecimal.valueOf(value, scale)));
+        }
+
+        @Override
+        public void addLong(long value) {
+            parent.add(DecimalNode.valueOf(BigDecimal.valueOf(value, scale)));
+        }
+
+        @Override
+        public void addBinary(Binary value) {
+            parent.add(DecimalNode.valueOf(new BigDecimal(new BigInteger(value.getBytes()), scale)));
+        }
+    }
+
+    static final class IntConverter extends PrimitiveConverter {
+        private final ParentValueContainer parent;
+
+        IntConverter(ParentValueContainer parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public void addInt(int value) {
+            parent.add(IntNode.valueOf(value));
+        }
+    }
+
+    static final class LongConverter extends PrimitiveConverter {
+        private final ParentValueContainer parent;
+
+        LongConverter(ParentValueContainer parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public void addLong(long value) {
+            parent.add(LongNode.valueOf(value));
+        }
+    }
+
+    static final class BooleanConverter extends PrimitiveConverter {
+        private final ParentValueContainer parent;
+
+        BooleanConverter(ParentValueContainer parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public void addBoolean(boolean value) {
+            parent.add(BooleanNode.valueOf(value));
+        }
+    }
+
+    static final class FloatConverter extends PrimitiveConverter {
+        private final ParentValueContainer parent;
+
+        FloatConverter(ParentValueContainer parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public void addFloat(float value) {
+            parent.add(FloatNode.valueOf(value));
+        }
+    }
+
+    static final class DoubleConverter extends PrimitiveConverter {
+        private final ParentValueContainer parent;
+
+        DoubleConverter(ParentValueContainer parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public void addDouble(double value) {
+            parent.add(DoubleNode.valueOf(value));
+        }
+    }
 }
@@ -1,5 +1,28 @@
 package org.getyourguide.parquet.json;
 
-public class JsonRecordMaterializer {
+import com.fasterxml.jackson.databind.JsonNode;
+import org.apache.parquet.io.api.GroupConverter;
+import org.apache.parquet.io.api.RecordMaterializer;
+import org.apache.parquet.schema.MessageType;
 
+/**
+ * Materializes the records of the requested schema as Jackson JsonNode objects.
+ */
+public class JsonRecordMaterializer extends RecordMaterializer<JsonNode> {
+
+    private final JsonRecordConverter root;
+
+    public JsonRecordMaterializer(MessageType requestedSchema) {
+        this.root = new JsonRecordConverter(requestedSchema);
+    }
+
+    @Override
+    public JsonNode getCurrentRecord() {
+        return root.getCurrentRecord();
+    }
+
+    @Override
+    public GroupConverter getRootConverter() {
+        return root;
+    }
 }
@@ -0,0 +1,77 @@
+package org.getyourguide.parquet.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Writer of JSON records, one at a time or by batches.
+ *
+ * <p>A batch stops at the first record that cannot be written: the returned {@link JsonBatchResult}
+ * tells how many records were written and the position and cause of the failure. Records rejected to a
+ * {@link RejectedRecordHandler} are the exception, they are listed as failures and the batch goes on with
+ * the next record. The exception handling is set up once per run of written records rather than once per
+ * record.
+ *
+ * <p>Parquet writers are wrapped with {@link JsonParquetWriter.Builder#buildRecordWriter}, which checks each
+ * record before it reaches the {@link org.apache.parquet.hadoop.ParquetWriter}: the latter aborts its file on
+ * any failure, rejected records included.
+ */
+public interface JsonRecordWriter extends Closeable {
+
+    void write(JsonNode record) throws IOException;
+
+    default JsonBatchResult writeAll(Iterable<? extends JsonNode> records) {
+        return writeAll(records.iterator());
+    }
+
+    default JsonBatchResult writeAll(Stream<? extends JsonNode> records) {
+        return writeAll(records.iterator());
+    }
+
+    default JsonBatchResult writeAll(JsonNode[] records, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, records.length);
+        int end = offset + length;
+        int written = 0;
+        List<JsonBatchResult.Failure> failures = new ArrayList<>(0);
+        for (int i = offset; i < end; i++) {
+            try {
+                for (; i < end; i++) {
+                    write(records[i]);
+                    written++;
+                }
+            } catch (RejectedRecordException e) {
+                failures.add(new JsonBatchResult.Failure(i - offset, e));
+            } catch (IOException | RuntimeException e) {
+                failures.add(new JsonBatchResult.Failure(i - offset, e));
+                break;
+            }
+        }
+        return new JsonBatchResult(written, failures);
+    }
+
+    private JsonBatchResult writeAll(Iterator<? extends JsonNode> records) {
+        int index = 0;
+        int written = 0;
+        List<JsonBatchResult.Failure> failures = new ArrayList<>(0);
+        while (records.hasNext()) {
+            try {
+                for (; records.hasNext(); index++) {
+                    write(records.next());
+                    written++;
+                }
+            } catch (RejectedRecordException e) {
+                failures.add(new JsonBatchResult.Failure(index++, e));
+            } catch (IOException | RuntimeException e) {
+                failures.add(new JsonBatchResult.Failure(index, e));
+                break;
+            }
+        }
+        return new JsonBatchResult(written, failures);
+    }
+}
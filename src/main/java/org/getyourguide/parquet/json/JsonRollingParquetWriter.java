@@ -0,0 +1,364 @@
+package org.getyourguide.parquet.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.getyourguide.parquet.json.JsonParquetParallelWriter.PartFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writer rolling over to a new parquet file once the current one reaches a number of records, a size or an
+ * age.
+ *
+ * <p>Closing a {@link ParquetWriter} flushes and compresses its last row group and writes the footer, which
+ * can take seconds on large files. The rolling writer hands the full file over to a background executor to
+ * be closed and keeps on writing into the next one. All files share a single {@link JsonWriteSupport}, so
+ * the parquet schema and the field writers are only built once.
+ *
+ * <p>Files are named {@code <prefix>-00000.parquet}, {@code <prefix>-00001.parquet}... and only created on
+ * the first record written to them. The listener is notified on the executor each time a file is closed.
+ * Size and age are checked as records are written: a writer receiving no record doesn't roll, call
+ * {@link #roll()} from a timer if needed. Not thread safe.
+ */
+public class JsonRollingParquetWriter implements JsonRecordWriter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JsonRollingParquetWriter.class);
+
+    // the size of the file is only checked every so many records, computing it walks all columns
+    private static final int SIZE_CHECK_INTERVAL = 64;
+
+    private final Builder builder;
+    private final JsonWriteSupport<JsonNode> writeSupport;
+    private final ExecutorService finalizer;
+    private final boolean ownsFinalizer;
+    // files being closed, oldest first; the closed ones only leave their PartFile in the manifest
+    private final Deque<Future<PartFile>> finalizations = new ArrayDeque<>();
+    private final List<PartFile> manifest = new ArrayList<>();
+    private boolean failed = false;
+    private int sequence = 0;
+    private boolean closed = false;
+
+    private Path path = null;
+    private ParquetRecordWriter writer = null;
+    private long records = 0;
+    private long openedAt = 0;
+
+    private JsonRollingParquetWriter(Builder builder) {
+        this.builder = builder;
+        JsonWritePlan writePlan = builder.writePlan != null ? builder.writePlan
+                : JsonWritePlan.of(builder.schema, builder.options);
+        this.writeSupport = new JsonWriteSupport<>(writePlan, builder.options);
+        this.ownsFinalizer = builder.finalizer == null;
+        this.finalizer = ownsFinalizer ? Executors.newSingleThreadExecutor(new FinalizerThreadFactory())
+                : builder.finalizer;
+    }
+
+    public static Builder Builder(Path directory) {
+        return new Builder(directory);
+    }
+
+    /**
+     * Writes the record to the current file, then rolls over if the file is full.
+     *
+     * @throws IOException if the file cannot be created or a previous file failed to be closed
+     */
+    @Override
+    public void write(JsonNode record) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Writer is closed");
+        }
+        if (writer == null) {
+            open();
+        }
+        writer.write(record);
+        records++;
+
+        if (records >= builder.maxRecords
+                || (builder.maxBytes != Long.MAX_VALUE && records % SIZE_CHECK_INTERVAL == 0
+                    && writer.getDataSize() >= builder.maxBytes)
+                || (builder.maxNanos != Long.MAX_VALUE && System.nanoTime() - openedAt >= builder.maxNanos)) {
+            roll();
+        }
+    }
+
+    /**
+     * Hands the current file over to be closed in the background, the next record goes to a new file. Does
+     * nothing if no record was written since the last roll.
+     *
+     * <p>Blocks while as many files as allowed by {@link Builder#withMaxPendingFiles} are still being closed.
+     *
+     * @throws IOException if a previous file failed to be closed
+     */
+    public void roll() throws IOException {
+        checkFinalizations(false);
+        if (writer == null) {
+            return;
+        }
+
+        Path closing = path;
+        ParquetRecordWriter closingWriter = writer;
+        long closingRecords = records;
+        path = null;
+        writer = null;
+        records = 0;
+
+        finalizations.add(finalizer.submit(() -> closeFile(closing, closingWriter, closingRecords)));
+        while (finalizations.size() > builder.maxPendingFiles) {
+            await(finalizations.poll());
+        }
+    }
+
+    /**
+     * Rolls over and waits for all files to be closed, every record written so far is then durable.
+     *
+     * @throws IOException if a file failed to be closed
+     */
+    public void flush() throws IOException {
+        roll();
+        checkFinalizations(true);
+    }
+
+    /**
+     * Returns the files written, available once the writer is closed.
+     */
+    public List<PartFile> getManifest() {
+        if (!closed) {
+            throw new IllegalStateException("Manifest is only available once the writer is closed");
+        }
+        if (failed || !finalizations.isEmpty()) {
+            throw new IllegalStateException("Writer failed to close");
+        }
+        return Collections.unmodifiableList(manifest);
+    }
+
+    /**
+     * Number of files handed over and not yet known to be closed.
+     */
+    int pendingFiles() {
+        return finalizations.size();
+    }
+
+    /**
+     * Closes the current file and waits for all files to be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flush();
+        } finally {
+            if (ownsFinalizer) {
+                finalizer.shutdown();
+            }
+        }
+    }
+
+    private void open() throws IOException {
+        path = new Path(builder.directory, String.format("%s-%05d.parquet", builder.prefix, sequence++));
+        JsonParquetWriter.Builder<JsonNode> writerBuilder = JsonParquetWriter.Builder(path)
+                .withWriteSupport(writeSupport)
+                .withConf(builder.conf);
+        ParquetWriter<JsonNode> parquetWriter = builder.writerConfig.apply(writerBuilder).build();
+        writer = new ParquetRecordWriter(parquetWriter, writeSupport);
+        openedAt = System.nanoTime();
+    }
+
+    private PartFile closeFile(Path path, ParquetRecordWriter writer, long records) throws IOException {
+        long start = System.nanoTime();
+        writer.close();
+        FileSystem fs = path.getFileSystem(builder.conf);
+        PartFile part = new PartFile(path, records, fs.getFileStatus(path).getLen());
+        LOG.debug("Closed {} in {} ms", part, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        builder.listener.accept(part);
+        return part;
+    }
+
+    /**
+     * Reports the first failure of the finalizations done so far, or of all of them when waiting.
+     */
+    private void checkFinalizations(boolean wait) throws IOException {
+        while (!finalizations.isEmpty() && (wait || finalizations.peek().isDone())) {
+            await(finalizations.poll());
+        }
+    }
+
+    /**
+     * Moves a finalization out of the pending ones, into the manifest if it succeeded.
+     */
+    private void await(Future<PartFile> finalization) throws IOException {
+        try {
+            manifest.add(finalization.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while closing a file");
+        } catch (ExecutionException e) {
+            failed = true;
+            throw new IOException("Failed to close a file", e.getCause());
+        }
+    }
+
+    private static final class FinalizerThreadFactory implements ThreadFactory {
+        private static final AtomicInteger COUNT = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "parquet-json-finalizer-" + COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    public static class Builder {
+
+        private final Path directory;
+        private ObjectSchema schema = null;
+        private JsonWritePlan writePlan = null;
+        private JsonWriteOptions options = JsonWriteOptions.defaults();
+        private Configuration conf = new Configuration();
+        private String prefix = "part";
+        private long maxRecords = Long.MAX_VALUE;
+        private long maxBytes = Long.MAX_VALUE;
+        private long maxNanos = Long.MAX_VALUE;
+        private int maxPendingFiles = 2;
+        private ExecutorService finalizer = null;
+        private Consumer<PartFile> listener = part -> { };
+        private UnaryOperator<JsonParquetWriter.Builder<JsonNode>> writerConfig = UnaryOperator.identity();
+
+        protected Builder(Path directory) {
+            this.directory = directory;
+        }
+
+        public Builder withSchema(ObjectSchema schema) {
+            this.schema = schema;
+            return this;
+        }
+
+        /**
+         * Writes with a compiled plan instead of a schema, e.g. one loaded with {@link JsonWritePlan#readFrom}.
+         */
+        public Builder withWritePlan(JsonWritePlan writePlan) {
+            this.writePlan = writePlan;
+            return this;
+        }
+
+        public Builder withOptions(JsonWriteOptions options) {
+            this.options = options;
+            return this;
+        }
+
+        public Builder withConf(Configuration conf) {
+            this.conf = conf;
+            return this;
+        }
+
+        /**
+         * Prefix of the file names, {@code <prefix>-00000.parquet}. Defaults to {@code part}.
+         */
+        public Builder withFilePrefix(String prefix) {
+            this.prefix = prefix;
+            return this;
+        }
+
+        /**
+         * Rolls over once a file holds this many records.
+         */
+        public Builder withMaxRecords(long maxRecords) {
+            if (maxRecords < 1) {
+                throw new IllegalArgumentException("Max records must be positive: " + maxRecords);
+            }
+            this.maxRecords = maxRecords;
+            return this;
+        }
+
+        /**
+         * Rolls over once a file reaches this size, buffered row group included. The size is checked every
+         * 64 records, files end up slightly larger.
+         */
+        public Builder withMaxBytes(long maxBytes) {
+            if (maxBytes < 1) {
+                throw new IllegalArgumentException("Max bytes must be positive: " + maxBytes);
+            }
+            this.maxBytes = maxBytes;
+            return this;
+        }
+
+        /**
+         * Rolls over on the first record written once a file is open for this long.
+         */
+        public Builder withMaxDuration(Duration maxDuration) {
+            if (maxDuration.isNegative() || maxDuration.isZero()) {
+                throw new IllegalArgumentException("Max duration must be positive: " + maxDuration);
+            }
+            this.maxNanos = maxDuration.toNanos();
+            return this;
+        }
+
+        /**
+         * Number of files that may be closing in the background before {@link #roll()} blocks, each holds
+         * its last row group in memory until closed. Defaults to 2.
+         */
+        public Builder withMaxPendingFiles(int maxPendingFiles) {
+            if (maxPendingFiles < 1) {
+                throw new IllegalArgumentException("Max pending files must be positive: " + maxPendingFiles);
+            }
+            this.maxPendingFiles = maxPendingFiles;
+            return this;
+        }
+
+        /**
+         * Executor closing the files. Defaults to a single thread owned by the writer, a given executor is
+         * not shut down with the writer.
+         */
+        public Builder withFinalizer(ExecutorService finalizer) {
+            this.finalizer = finalizer;
+            return this;
+        }
+
+        /**
+         * Notified on the finalizer thread each time a file is closed.
+         */
+        public Builder withListener(Consumer<PartFile> listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        /**
+         * Applies further settings (compression, row group size...) to the builder of each file writer.
+         */
+        public Builder withWriterConfig(UnaryOperator<JsonParquetWriter.Builder<JsonNode>> writerConfig) {
+            this.writerConfig = writerConfig;
+            return this;
+        }
+
+        public JsonRollingParquetWriter build() {
+            if (schema == null && writePlan == null) {
+                throw new IllegalStateException("A schema or a write plan is required");
+            }
+            return new JsonRollingParquetWriter(this);
+        }
+    }
+}
@@ -1,13 +1,15 @@
 package org.getyourguide.parquet.json;
 
 import static org.apache.parquet.schema.LogicalTypeAnnotation.dateType;
+import static org.apache.parquet.schema.LogicalTypeAnnotation.enumType;
 import static org.apache.parquet.schema.LogicalTypeAnnotation.listType;
 import static org.apache.parquet.schema.LogicalTypeAnnotation.mapType;
 import static org.apache.parquet.schema.LogicalTypeAnnotation.stringType;
-import static org.apache.parquet.schema.LogicalTypeAnnotation.timestampType;
+import static org.apache.parquet.schema.LogicalTypeAnnotation.uuidType;
 import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.BINARY;
 import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.BOOLEAN;
 import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.DOUBLE;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY;
 import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.FLOAT;
 import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT32;
 import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT64;
@@ -26,11 +28,21 @@ import io.swagger.v3.oas.models.media.PasswordSchema;
 import io.swagger.v3.oas.models.media.Schema;
 import io.swagger.v3.oas.models.media.StringSchema;
 import io.swagger.v3.oas.models.media.UUIDSchema;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import org.apache.parquet.schema.InvalidSchemaException;
 import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.DecimalLogicalTypeAnnotation;
 import org.apache.parquet.schema.LogicalTypeAnnotation.TimeUnit;
+import org.apache.parquet.schema.LogicalTypeAnnotation.TimestampLogicalTypeAnnotation;
 import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
 import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
 import org.apache.parquet.schema.Type;
 import org.apache.parquet.schema.Type.Repetition;
@@ -44,7 +56,22 @@ public class JsonSchemaConverter {
 
     private static final Logger LOG = LoggerFactory.getLogger(JsonSchemaConverter.class);
 
+    static final int UUID_LENGTH = 16;
+    // the largest precision of 16 bytes, as for Spark and Hive
+    static final int MAX_DECIMAL_PRECISION = 38;
+
+    private final JsonWriteOptions options;
+
     public JsonSchemaConverter() {
+        this(JsonWriteOptions.defaults());
+    }
+
+    /**
+     * Converts with the given options, of which only those shaping the schema matter, see
+     * {@link JsonWriteOptions.Builder#withUuidAsString} and {@link JsonWriteOptions.Builder#withTimestampUnit}.
+     */
+    public JsonSchemaConverter(JsonWriteOptions options) {
+        this.options = options;
     }
 
     private <T> GroupBuilder<T> unsupportedSchema(Schema schema) {
@@ -66,6 +93,55 @@ public class JsonSchemaConverter {
         return messageType;
     }
 
+    /**
+     * Collects the {@code x-parquet-*} extensions of the properties, by dot separated column path as used by
+     * the parquet writer properties, e.g. {@code tags.list.element}.
+     *
+     * @throws IllegalArgumentException if an extension is unknown or has an invalid value
+     */
+    public Map<String, ColumnHints> columnHints(ObjectSchema jsonClass) {
+        Map<String, ColumnHints> hints = new LinkedHashMap<>();
+        collectHints(jsonClass.getProperties(), null, hints);
+        return hints;
+    }
+
+    private void collectHints(Map<String, Schema> properties, String parentPath, Map<String, ColumnHints> hints) {
+        if (properties == null) {
+            return;
+        }
+        for (Map.Entry<String, Schema> field : properties.entrySet()) {
+            String path = parentPath == null ? field.getKey() : parentPath + "." + field.getKey();
+            collectHints(field.getValue(), path, Collections.emptyMap(), hints);
+        }
+    }
+
+    // the extensions of lists and maps apply to their elements and values, along with their own
+    private void collectHints(Schema<?> descriptor, String path, Map<String, Object> inherited,
+                              Map<String, ColumnHints> hints) {
+        Map<String, Object> extensions = new LinkedHashMap<>(inherited);
+        if (descriptor.getExtensions() != null) {
+            for (Map.Entry<String, Object> extension : descriptor.getExtensions().entrySet()) {
+                if (extension.getKey().startsWith(ColumnHints.PREFIX)) {
+                    extensions.put(extension.getKey(), extension.getValue());
+                }
+            }
+        }
+
+        if (descriptor instanceof MapSchema) {
+            if (descriptor.getAdditionalProperties() instanceof Schema) {
+                collectHints((Schema) descriptor.getAdditionalProperties(), path + ".key_value.value", extensions,
+                        hints);
+            }
+        } else if (descriptor instanceof ObjectSchema || descriptor.getType() == null) {
+            Schema<?> object = getObjectSchema(descriptor);
+            collectHints(object.getProperties(), path, hints);
+        } else if (descriptor instanceof ArraySchema) {
+            collectHints(((ArraySchema) descriptor).getItems(), path + ".list.element", extensions, hints);
+        } else if (!extensions.isEmpty()) {
+            hints.put(path, ColumnHints.of(path, extensions));
+        }
+    }
+
     /* Iterates over list of fields. **/
     private <T> GroupBuilder<T> convertFields(GroupBuilder<T> groupBuilder, Map<String, Schema> fieldDescriptors) {
 
@@ -129,6 +205,7 @@ public class JsonSchemaConverter {
 
                 return addRepeatedPrimitive(parquetType.primitiveType,
                         parquetType.logicalTypeAnnotation,
+                        parquetType.length,
                         nullableField,
                         nullableItems,
                         builder);
@@ -138,7 +215,8 @@ public class JsonSchemaConverter {
         }
 
         ParquetType parquetType = getParquetType(descriptor);
-        return builder.primitive(parquetType.primitiveType, getRepetition(descriptor)).as(parquetType.logicalTypeAnnotation);
+        return builder.primitive(parquetType.primitiveType, getRepetition(descriptor)).length(parquetType.length)
+                .as(parquetType.logicalTypeAnnotation);
 
     }
 
@@ -193,13 +271,14 @@ public class JsonSchemaConverter {
 
     private <T> Builder<? extends Builder<?, GroupBuilder<T>>, GroupBuilder<T>> addRepeatedPrimitive(PrimitiveTypeName primitiveType,
                                                                                                      LogicalTypeAnnotation logicalTypeAnnotation,
+                                                                                                     int length,
                                                                                                      Type.Repetition nullableField,
                                                                                                      Type.Repetition nullableItems,
                                                                                                      final GroupBuilder<T> builder) {
         return builder
                 .group(nullableField).as(listType())
                 .group(Repetition.REPEATED)
-                .primitive(primitiveType, nullableItems).as(logicalTypeAnnotation)
+                .primitive(primitiveType, nullableItems).length(length).as(logicalTypeAnnotation)
                 .named("element")
                 .named("list");
     }
@@ -219,18 +298,133 @@ public class JsonSchemaConverter {
         return true;
     }
 
+    /**
+     * The allowed values of a string property with an {@code enum} list, null otherwise. A null value
+     * allowed by a nullable enum is left out.
+     */
+    static String[] enumSymbols(Schema fieldSchema) {
+        if (!(fieldSchema instanceof StringSchema) || fieldSchema.getEnum() == null) {
+            return null;
+        }
+        String[] symbols = ((List<?>) fieldSchema.getEnum()).stream()
+                .filter(Objects::nonNull)
+                .map(Object::toString)
+                .distinct()
+                .toArray(String[]::new);
+        return symbols.length > 0 ? symbols : null;
+    }
+
+    /**
+     * The decimal type of a number property with {@code format: decimal} or an {@code x-parquet-decimal}
+     * extension, null otherwise. The precision and scale are taken from {@code x-parquet-decimal:
+     * {precision, scale}}, else the precision is 18 and the scale that of {@code multipleOf}, e.g. 2 for
+     * {@code 0.01}.
+     *
+     * @throws IllegalArgumentException if the precision or scale is missing or invalid
+     */
+    static DecimalLogicalTypeAnnotation decimalType(Schema fieldSchema) {
+        if (!(fieldSchema instanceof NumberSchema)) {
+            return null;
+        }
+        Object extension = fieldSchema.getExtensions() == null ? null
+                : fieldSchema.getExtensions().get(ColumnHints.DECIMAL);
+        if (extension == null && !"decimal".equalsIgnoreCase(fieldSchema.getFormat())) {
+            return null;
+        }
+
+        int precision = DecimalParser.MAX_LONG_PRECISION;
+        int scale;
+        if (extension instanceof Map && ((Map<?, ?>) extension).get("precision") instanceof Number) {
+            Map<?, ?> settings = (Map<?, ?>) extension;
+            precision = ((Number) settings.get("precision")).intValue();
+            scale = settings.get("scale") instanceof Number ? ((Number) settings.get("scale")).intValue() : 0;
+        } else if (extension == null && fieldSchema.getMultipleOf() != null) {
+            scale = Math.max(0, fieldSchema.getMultipleOf().stripTrailingZeros().scale());
+        } else {
+            throw new IllegalArgumentException("A decimal needs x-parquet-decimal: {precision, scale} or multipleOf, "
+                    + "got " + extension);
+        }
+        if (precision < 1 || precision > MAX_DECIMAL_PRECISION || scale < 0 || scale > precision) {
+            throw new IllegalArgumentException("Invalid decimal precision " + precision + " and scale " + scale);
+        }
+        return LogicalTypeAnnotation.decimalType(scale, precision);
+    }
+
+    /**
+     * Timestamp type of a {@code date-time} field: the unit and UTC adjustment of its
+     * {@code x-parquet-timestamp} extension, those of the options for the settings it doesn't give.
+     *
+     * @throws IllegalArgumentException if the unit or the UTC adjustment is invalid
+     */
+    static TimestampLogicalTypeAnnotation timestampType(Schema fieldSchema, JsonWriteOptions options) {
+        TimeUnit unit = options.getTimestampUnit();
+        boolean adjustedToUTC = options.isTimestampAdjustedToUTC();
+        Object extension = fieldSchema.getExtensions() == null ? null
+                : fieldSchema.getExtensions().get(ColumnHints.TIMESTAMP);
+        if (extension instanceof Map) {
+            Map<?, ?> settings = (Map<?, ?>) extension;
+            if (settings.get("unit") != null) {
+                try {
+                    unit = TimeUnit.valueOf(String.valueOf(settings.get("unit")).toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Invalid timestamp unit " + settings.get("unit")
+                            + ", expected one of " + Arrays.toString(TimeUnit.values()));
+                }
+            }
+            if (settings.get("adjustedToUTC") instanceof Boolean) {
+                adjustedToUTC = (Boolean) settings.get("adjustedToUTC");
+            } else if (settings.get("adjustedToUTC") != null) {
+                throw new IllegalArgumentException("Invalid timestamp adjustedToUTC " + settings.get("adjustedToUTC"));
+            }
+        }
+        return LogicalTypeAnnotation.timestampType(adjustedToUTC, unit);
+    }
+
+    // INT32 up to 9 digits, INT64 up to 18, else the smallest fixed length that holds them
+    private static ParquetType decimalParquetType(DecimalLogicalTypeAnnotation decimal) {
+        if (decimal.getPrecision() <= 9) {
+            return ParquetType.of(INT32, decimal);
+        } else if (decimal.getPrecision() <= DecimalParser.MAX_LONG_PRECISION) {
+            return ParquetType.of(INT64, decimal);
+        }
+        return ParquetType.of(FIXED_LEN_BYTE_ARRAY, decimal, decimalLength(decimal.getPrecision()));
+    }
+
+    /**
+     * Physical type of the columns of a decimal, as written by {@link #convert}.
+     */
+    static PrimitiveType decimalPrimitiveType(DecimalLogicalTypeAnnotation decimal) {
+        ParquetType parquetType = decimalParquetType(decimal);
+        return Types.required(parquetType.primitiveType).length(parquetType.length)
+                .as(decimal).named("decimal");
+    }
+
+    /**
+     * Bytes of the two's complement unscaled values of the given precision.
+     */
+    static int decimalLength(int precision) {
+        return (BigInteger.TEN.pow(precision).bitLength() + 1 + 7) / 8;
+    }
+
     private ParquetType getParquetType(Schema fieldSchema) {
 
-        if (fieldSchema instanceof StringSchema || fieldSchema instanceof PasswordSchema || fieldSchema instanceof EmailSchema) {
+        DecimalLogicalTypeAnnotation decimal = decimalType(fieldSchema);
+        if (decimal != null) {
+            return decimalParquetType(decimal);
+        } else if (enumSymbols(fieldSchema) != null) {
+            return ParquetType.of(BINARY, enumType());
+        } else if (fieldSchema instanceof StringSchema || fieldSchema instanceof PasswordSchema || fieldSchema instanceof EmailSchema) {
             //todo: base64 encoded data as string could be mapped to the binary type
             return ParquetType.of(BINARY, stringType());
         } else if (fieldSchema instanceof UUIDSchema) {
-            //todo: fix once PARQUET-1827 is released
-            return ParquetType.of(BINARY, stringType());
+            if (options.isUuidAsString()) {
+                return ParquetType.of(BINARY, stringType());
+            }
+            return ParquetType.of(FIXED_LEN_BYTE_ARRAY, uuidType(), UUID_LENGTH);
         } else if (fieldSchema instanceof DateSchema) {
             return ParquetType.of(INT32, dateType()); //todo: writer
         } else if (fieldSchema instanceof DateTimeSchema) {
-            return ParquetType.of(INT64, timestampType(true, TimeUnit.MILLIS)); //todo: writer
+            return ParquetType.of(INT64, timestampType(fieldSchema, options));
         } else if (fieldSchema instanceof IntegerSchema) {
 
             if (fieldSchema.getFormat() == null) {
@@ -284,14 +478,22 @@ public class JsonSchemaConverter {
     private static class ParquetType {
         PrimitiveTypeName primitiveType;
         LogicalTypeAnnotation logicalTypeAnnotation;
+        // FIXED_LEN_BYTE_ARRAY only
+        int length;
 
-        private ParquetType(PrimitiveTypeName primitiveType, LogicalTypeAnnotation logicalTypeAnnotation) {
+        private ParquetType(PrimitiveTypeName primitiveType, LogicalTypeAnnotation logicalTypeAnnotation, int length) {
             this.primitiveType = primitiveType;
             this.logicalTypeAnnotation = logicalTypeAnnotation;
+            this.length = length;
+        }
+
+        public static ParquetType of(PrimitiveTypeName primitiveType, LogicalTypeAnnotation logicalTypeAnnotation,
+                                     int length) {
+            return new ParquetType(primitiveType, logicalTypeAnnotation, length);
         }
 
         public static ParquetType of(PrimitiveTypeName primitiveType, LogicalTypeAnnotation logicalTypeAnnotation) {
-            return new ParquetType(primitiveType, logicalTypeAnnotation);
+            return of(primitiveType, logicalTypeAnnotation, 0);
         }
 
         public static ParquetType of(PrimitiveTypeName primitiveType) {
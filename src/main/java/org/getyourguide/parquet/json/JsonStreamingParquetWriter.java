@@ -0,0 +1,129 @@
+package org.getyourguide.parquet.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import java.io.IOException;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.io.OutputFile;
+
+/**
+ * Parquet writer consuming records from a Jackson {@link JsonParser}, see {@link JsonStreamingWriteSupport}.
+ *
+ * <p>Fields are written in the order of the payload, so parquet's record validation, which expects them in
+ * schema order, cannot be enabled.
+ */
+public class JsonStreamingParquetWriter extends ParquetWriter<JsonParser> {
+
+    public JsonStreamingParquetWriter(Path file, ObjectSchema jsonSchema) throws IOException {
+        super(file, new JsonStreamingWriteSupport(jsonSchema));
+    }
+
+    public static Builder Builder(Path path) {
+        return new Builder(path);
+    }
+
+    public static Builder Builder(OutputFile file) {
+        return new Builder(file);
+    }
+
+    public static class Builder extends ParquetWriter.Builder<JsonParser, Builder> {
+
+        private ObjectSchema schema = null;
+        private JsonWritePlan writePlan = null;
+        private JsonWriteOptions.Builder options = JsonWriteOptions.builder();
+        private JsonStreamingWriteSupport writeSupport = null;
+        private boolean validation = false;
+
+        protected Builder(Path path) {
+            super(path);
+        }
+
+        protected Builder(OutputFile path) {
+            super(path);
+        }
+
+        public Builder withSchema(ObjectSchema schema) {
+            this.schema = schema;
+            return this;
+        }
+
+        /**
+         * Writes with a compiled plan instead of a schema, e.g. one loaded with {@link JsonWritePlan#readFrom}.
+         */
+        public Builder withWritePlan(JsonWritePlan writePlan) {
+            this.writePlan = writePlan;
+            return this;
+        }
+
+        public Builder withOptions(JsonWriteOptions options) {
+            this.options = options.toBuilder();
+            return this;
+        }
+
+        public Builder withNullAsDefault() {
+            this.options.withNullAsDefault(true);
+            return this;
+        }
+
+        public Builder withWriteDefault() {
+            this.options.withWriteDefault(true);
+            return this;
+        }
+
+        @Override
+        protected Builder self() {
+            return this;
+        }
+
+        @Override
+        public Builder enableValidation() {
+            return withValidation(true);
+        }
+
+        @Override
+        public Builder withValidation(boolean enableValidation) {
+            this.validation = enableValidation;
+            return super.withValidation(enableValidation);
+        }
+
+        @Override
+        protected WriteSupport<JsonParser> getWriteSupport(Configuration conf) {
+            writeSupport = writePlan != null ? new JsonStreamingWriteSupport(writePlan, options.build())
+                    : new JsonStreamingWriteSupport(schema, options.build());
+            return writeSupport;
+        }
+
+        /**
+         * Builds the writer, with the column settings given as {@code x-parquet-*} extensions in the schema, see
+         * {@link ColumnHints}. Settings made on the builder for the same columns are overridden.
+         *
+         * @throws IllegalStateException if validation is enabled, the fields are written in payload order
+         */
+        @Override
+        public ParquetWriter<JsonParser> build() throws IOException {
+            if (validation) {
+                throw new IllegalStateException("Validation requires the fields in schema order, "
+                        + "the streaming writer writes them in payload order");
+            }
+            JsonWritePlan plan = writePlan != null ? writePlan : schema != null
+                    ? JsonWritePlan.of(schema, options.build()) : null;
+            if (plan != null) {
+                ColumnHints.applyTo(plan.getColumnHints().values(), this);
+            }
+            return super.build();
+        }
+
+        /**
+         * Builds the writer as a {@link JsonStreamingRecordWriter}, which keeps on writing after a record is
+         * rejected to a {@link RejectedRecordHandler}.
+         */
+        public JsonStreamingRecordWriter buildRecordWriter() throws IOException {
+            ParquetWriter<JsonParser> writer = build();
+            return new JsonStreamingRecordWriter(writer, writeSupport);
+        }
+    }
+
+}
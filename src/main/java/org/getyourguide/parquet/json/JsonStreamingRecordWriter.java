@@ -0,0 +1,38 @@
+package org.getyourguide.parquet.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import java.io.Closeable;
+import java.io.IOException;
+import org.apache.parquet.hadoop.ParquetWriter;
+
+/**
+ * Writer of records read from a Jackson {@link JsonParser}, built with
+ * {@link JsonStreamingParquetWriter.Builder#buildRecordWriter()}.
+ *
+ * <p>Unlike the underlying {@link ParquetWriter}, it keeps on writing after a record is rejected to a
+ * {@link RejectedRecordHandler}: the rejected record is skipped, the parser is left on its END_OBJECT token
+ * and {@link #write} throws a {@link RejectedRecordException}.
+ */
+public final class JsonStreamingRecordWriter implements Closeable {
+
+    private final ParquetWriter<JsonParser> writer;
+    private final JsonStreamingWriteSupport writeSupport;
+
+    JsonStreamingRecordWriter(ParquetWriter<JsonParser> writer, JsonStreamingWriteSupport writeSupport) {
+        this.writer = writer;
+        this.writeSupport = writeSupport;
+    }
+
+    /**
+     * Writes the JSON object the parser is positioned on (or right before).
+     */
+    public void write(JsonParser parser) throws IOException {
+        writeSupport.prepare(parser);
+        writer.write(parser);
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,80 @@
+package org.getyourguide.parquet.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import java.io.IOException;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.io.InvalidRecordException;
+import org.apache.parquet.io.api.RecordConsumer;
+
+/**
+ * Implementation of {@link WriteSupport} for writing JSON straight from a Jackson {@link JsonParser}
+ * token stream.
+ *
+ * <p>Each record is the JSON object the parser is positioned on (or right before). The tokens are
+ * dispatched to the same field writers as {@link JsonWriteSupport} without building an intermediate
+ * JsonNode tree. After a record is written the parser is left on its END_OBJECT token, so a stream of
+ * concatenated or newline delimited objects can be written by calling {@code write} repeatedly.
+ */
+public class JsonStreamingWriteSupport extends WriteSupport<JsonParser> {
+
+    private final JsonWriteSupport<JsonNode> delegate;
+
+    public JsonStreamingWriteSupport(ObjectSchema objSchema) {
+        this.delegate = new JsonWriteSupport<>(objSchema);
+    }
+
+    public JsonStreamingWriteSupport(JsonWritePlan writePlan) {
+        this.delegate = new JsonWriteSupport<>(writePlan);
+    }
+
+    public JsonStreamingWriteSupport(ObjectSchema objSchema, boolean writeDefaultValue, boolean writeNullAsDefault) {
+        this.delegate = new JsonWriteSupport<>(objSchema, writeDefaultValue, writeNullAsDefault);
+    }
+
+    public JsonStreamingWriteSupport(ObjectSchema objSchema, JsonWriteOptions options) {
+        this.delegate = new JsonWriteSupport<>(objSchema, options);
+    }
+
+    public JsonStreamingWriteSupport(JsonWritePlan writePlan, JsonWriteOptions options) {
+        this.delegate = new JsonWriteSupport<>(writePlan, options);
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public WriteContext init(Configuration configuration) {
+        return delegate.init(configuration);
+    }
+
+    @Override
+    public void prepareForWrite(RecordConsumer recordConsumer) {
+        delegate.prepareForWrite(recordConsumer);
+    }
+
+    @Override
+    public FinalizedWriteContext finalizeWrite() {
+        return delegate.finalizeWrite();
+    }
+
+    /**
+     * See {@link JsonWriteSupport#prepareStream}.
+     */
+    void prepare(JsonParser record) throws IOException {
+        delegate.prepareStream(record);
+    }
+
+    @Override
+    public void write(JsonParser record) {
+        try {
+            delegate.writeStream(record);
+        } catch (IOException e) {
+            throw new InvalidRecordException("Cannot read message: " + e.getMessage(), e);
+        }
+    }
+}
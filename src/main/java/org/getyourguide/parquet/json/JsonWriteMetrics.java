@@ -0,0 +1,136 @@
+package org.getyourguide.parquet.json;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per field counters of the values written by {@link JsonWriteSupport}.
+ *
+ * <p>Counters are keyed by the parquet column path of the field, e.g. {@code key_string} or
+ * {@code array_key.list.element}. They are striped {@link LongAdder}s, so a single instance can be shared
+ * by writers running on different threads, and read at any time with {@link #snapshot()}.
+ *
+ * <p>Metrics are enabled by passing an instance to {@link JsonWriteOptions.Builder#withMetrics}; without
+ * it the writers don't count anything.
+ */
+public final class JsonWriteMetrics {
+
+    private final Map<String, FieldCounters> counters = new ConcurrentHashMap<>();
+
+    FieldCounters counters(String path) {
+        return counters.computeIfAbsent(path, key -> new FieldCounters());
+    }
+
+    /**
+     * Returns the current value of the counters of every field, by column path.
+     */
+    public SortedMap<String, FieldMetrics> snapshot() {
+        SortedMap<String, FieldMetrics> snapshot = new TreeMap<>();
+        counters.forEach((path, fieldCounters) -> snapshot.put(path, fieldCounters.snapshot()));
+        return Collections.unmodifiableSortedMap(snapshot);
+    }
+
+    /**
+     * Resets all the counters to zero.
+     */
+    public void reset() {
+        counters.values().forEach(FieldCounters::reset);
+    }
+
+    static final class FieldCounters {
+        final LongAdder values = new LongAdder();
+        final LongAdder nulls = new LongAdder();
+        final LongAdder defaults = new LongAdder();
+        final LongAdder typeMismatches = new LongAdder();
+        final LongAdder bytes = new LongAdder();
+        final LongAdder rejections = new LongAdder();
+
+        FieldMetrics snapshot() {
+            return new FieldMetrics(values.sum(), nulls.sum(), defaults.sum(), typeMismatches.sum(), bytes.sum(),
+                    rejections.sum());
+        }
+
+        void reset() {
+            values.reset();
+            nulls.reset();
+            defaults.reset();
+            typeMismatches.reset();
+            bytes.reset();
+            rejections.reset();
+        }
+    }
+
+    /**
+     * Point in time value of the counters of a field.
+     */
+    public static final class FieldMetrics {
+        private final long values;
+        private final long nulls;
+        private final long defaults;
+        private final long typeMismatches;
+        private final long bytes;
+        private final long rejections;
+
+        FieldMetrics(long values, long nulls, long defaults, long typeMismatches, long bytes, long rejections) {
+            this.values = values;
+            this.nulls = nulls;
+            this.defaults = defaults;
+            this.typeMismatches = typeMismatches;
+            this.bytes = bytes;
+            this.rejections = rejections;
+        }
+
+        /**
+         * Number of values written, including defaults. With a {@link RejectedRecordHandler} this includes
+         * the values of records rejected afterwards because of another field.
+         */
+        public long getValues() {
+            return values;
+        }
+
+        /**
+         * Number of null values, including the ones replaced by a default.
+         */
+        public long getNulls() {
+            return nulls;
+        }
+
+        /**
+         * Number of missing or null values replaced by the default of the schema.
+         */
+        public long getDefaults() {
+            return defaults;
+        }
+
+        /**
+         * Number of values skipped because their JSON type doesn't match the schema.
+         */
+        public long getTypeMismatches() {
+            return typeMismatches;
+        }
+
+        /**
+         * Size of the values handed to parquet, before encoding and compression.
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * Number of records rejected because of a value of this field, see {@link RejectedRecordHandler}.
+         */
+        public long getRejections() {
+            return rejections;
+        }
+
+        @Override
+        public String toString() {
+            return "FieldMetrics{values=" + values + ", nulls=" + nulls + ", defaults=" + defaults
+                    + ", typeMismatches=" + typeMismatches + ", bytes=" + bytes + ", rejections=" + rejections + "}";
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package org.getyourguide.parquet.json;
+
+import java.util.Objects;
+import java.util.StringJoiner;
+import org.apache.parquet.schema.LogicalTypeAnnotation.TimeUnit;
+
+/**
+ * Immutable options of a {@link JsonWriteSupport} instance.
+ *
+ * <p>Options are set per writer, so writers with different settings can run side by side in the same
+ * JVM. Use {@link #builder()} or {@link #toBuilder()} to create a new set of options.
+ */
+public final class JsonWriteOptions {
+
+    private static final JsonWriteOptions DEFAULTS = builder().build();
+
+    private final boolean writeDefaultValue;
+    private final boolean writeNullAsDefault;
+    private final boolean payloadDrivenIteration;
+    private final JsonWriteMetrics metrics;
+    private final RejectedRecordHandler rejectedRecordHandler;
+    private final boolean uuidAsString;
+    private final TimeUnit timestampUnit;
+    private final boolean timestampAdjustedToUTC;
+
+    private JsonWriteOptions(Builder builder) {
+        this.writeDefaultValue = builder.writeDefaultValue;
+        this.writeNullAsDefault = builder.writeNullAsDefault;
+        this.payloadDrivenIteration = builder.payloadDrivenIteration;
+        this.metrics = builder.metrics;
+        this.rejectedRecordHandler = builder.rejectedRecordHandler;
+        this.uuidAsString = builder.uuidAsString;
+        this.timestampUnit = builder.timestampUnit;
+        this.timestampAdjustedToUTC = builder.timestampAdjustedToUTC;
+    }
+
+    public static JsonWriteOptions defaults() {
+        return DEFAULTS;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        builder.writeDefaultValue = writeDefaultValue;
+        builder.writeNullAsDefault = writeNullAsDefault;
+        builder.payloadDrivenIteration = payloadDrivenIteration;
+        builder.metrics = metrics;
+        builder.rejectedRecordHandler = rejectedRecordHandler;
+        builder.uuidAsString = uuidAsString;
+        builder.timestampUnit = timestampUnit;
+        builder.timestampAdjustedToUTC = timestampAdjustedToUTC;
+        return builder;
+    }
+
+    /**
+     * Whether a field missing from the payload is written with the default value of its schema.
+     */
+    public boolean isWriteDefaultValue() {
+        return writeDefaultValue;
+    }
+
+    /**
+     * Whether a null value is replaced with the default value of its schema.
+     */
+    public boolean isWriteNullAsDefault() {
+        return writeNullAsDefault;
+    }
+
+    /**
+     * Whether the fields of a {@link com.fasterxml.jackson.databind.JsonNode} are written in payload order
+     * rather than schema order.
+     */
+    public boolean isPayloadDrivenIteration() {
+        return payloadDrivenIteration;
+    }
+
+    /**
+     * The counters updated by the writers, null when metrics are disabled.
+     */
+    public JsonWriteMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * The handler of the records that cannot be written, null when they fail the write.
+     */
+    public RejectedRecordHandler getRejectedRecordHandler() {
+        return rejectedRecordHandler;
+    }
+
+    /**
+     * Whether {@code format: uuid} fields are written as strings rather than 16 byte {@code UUID} columns.
+     */
+    public boolean isUuidAsString() {
+        return uuidAsString;
+    }
+
+    /**
+     * The unit of the {@code date-time} columns without an {@code x-parquet-timestamp} extension.
+     */
+    public TimeUnit getTimestampUnit() {
+        return timestampUnit;
+    }
+
+    /**
+     * Whether the {@code date-time} columns without an {@code x-parquet-timestamp} extension are adjusted
+     * to UTC.
+     */
+    public boolean isTimestampAdjustedToUTC() {
+        return timestampAdjustedToUTC;
+    }
+
+    /**
+     * The options that change the parquet schema, empty for the defaults. Part of the key of the compiled
+     * write plans.
+     */
+    String schemaKey() {
+        StringJoiner key = new StringJoiner(",");
+        if (uuidAsString) {
+            key.add("uuid=string");
+        }
+        if (timestampUnit != TimeUnit.MILLIS) {
+            key.add("timestamp=" + timestampUnit);
+        }
+        if (!timestampAdjustedToUTC) {
+            key.add("timestamp=local");
+        }
+        return key.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof JsonWriteOptions)) {
+            return false;
+        }
+        JsonWriteOptions that = (JsonWriteOptions) o;
+        return writeDefaultValue == that.writeDefaultValue
+                && writeNullAsDefault == that.writeNullAsDefault
+                && payloadDrivenIteration == that.payloadDrivenIteration
+                && metrics == that.metrics
+                && rejectedRecordHandler == that.rejectedRecordHandler
+                && uuidAsString == that.uuidAsString
+                && timestampUnit == that.timestampUnit
+                && timestampAdjustedToUTC == that.timestampAdjustedToUTC;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(writeDefaultValue, writeNullAsDefault, payloadDrivenIteration, System.identityHashCode(metrics),
+                System.identityHashCode(rejectedRecordHandler), uuidAsString, timestampUnit, timestampAdjustedToUTC);
+    }
+
+    @Override
+    public String toString() {
+        return "JsonWriteOptions{writeDefaultValue=" + writeDefaultValue
+                + ", writeNullAsDefault=" + writeNullAsDefault
+                + ", payloadDrivenIteration=" + payloadDrivenIteration
+                + ", metrics=" + (metrics != null)
+                + ", rejectedRecordHandler=" + (rejectedRecordHandler != null)
+                + ", uuidAsString=" + uuidAsString
+                + ", timestampUnit=" + timestampUnit
+                + ", timestampAdjustedToUTC=" + timestampAdjustedToUTC + "}";
+    }
+
+    public static final class Builder {
+        private boolean writeDefaultValue;
+        private boolean writeNullAsDefault;
+        private boolean payloadDrivenIteration;
+        private JsonWriteMetrics metrics;
+        private RejectedRecordHandler rejectedRecordHandler;
+        private boolean uuidAsString;
+        private TimeUnit timestampUnit = TimeUnit.MILLIS;
+        private boolean timestampAdjustedToUTC = true;
+
+        private Builder() {
+        }
+
+        public Builder withWriteDefault(boolean writeDefaultValue) {
+            this.writeDefaultValue = writeDefaultValue;
+            return this;
+        }
+
+        public Builder withNullAsDefault(boolean writeNullAsDefault) {
+            this.writeNullAsDefault = writeNullAsDefault;
+            return this;
+        }
+
+        /**
+         * Iterates over the fields present in the payload instead of every field of the schema; only the
+         * required fields and the fields with a default are then checked for absence. This makes the cost
+         * of a record depend on its size rather than on the width of the schema, which pays off for wide
+         * schemas with sparse payloads. Fields are then written in payload order, which parquet's record
+         * validation doesn't accept: {@link JsonParquetWriter.Builder} refuses to build a writer with both.
+         */
+        public Builder withPayloadDrivenIteration(boolean payloadDrivenIteration) {
+            this.payloadDrivenIteration = payloadDrivenIteration;
+            return this;
+        }
+
+        /**
+         * Counts the values written per field in the given metrics, null disables the counters.
+         */
+        public Builder withMetrics(JsonWriteMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Rejects the records that cannot be written to the given handler instead of failing the write, see
+         * {@link RejectedRecordHandler}. Records are then buffered until they are complete, null restores the
+         * default.
+         */
+        public Builder withRejectedRecordHandler(RejectedRecordHandler rejectedRecordHandler) {
+            this.rejectedRecordHandler = rejectedRecordHandler;
+            return this;
+        }
+
+        /**
+         * Writes {@code format: uuid} fields as strings like before UUID columns were supported, for consumers
+         * that still expect strings. Otherwise they are written as 16 byte {@code FIXED_LEN_BYTE_ARRAY} columns
+         * with the {@code UUID} logical type.
+         */
+        public Builder withUuidAsString(boolean uuidAsString) {
+            this.uuidAsString = uuidAsString;
+            return this;
+        }
+
+        /**
+         * Unit of the {@code date-time} columns, {@code MILLIS} by default. A field can set its own with
+         * {@code x-parquet-timestamp: {unit: MICROS}}. ISO text is truncated to the unit, epoch numbers are
+         * written as they are and must already be in the unit.
+         */
+        public Builder withTimestampUnit(TimeUnit timestampUnit) {
+            if (timestampUnit == null) {
+                throw new IllegalArgumentException("Timestamp unit cannot be null");
+            }
+            this.timestampUnit = timestampUnit;
+            return this;
+        }
+
+        /**
+         * Whether the {@code date-time} columns are adjusted to UTC, true by default. Otherwise they hold the
+         * local date-time of the text, without its offset. A field can set its own with
+         * {@code x-parquet-timestamp: {adjustedToUTC: false}}.
+         */
+        public Builder withTimestampAdjustedToUTC(boolean timestampAdjustedToUTC) {
+            this.timestampAdjustedToUTC = timestampAdjustedToUTC;
+            return this;
+        }
+
+        public JsonWriteOptions build() {
+            return new JsonWriteOptions(this);
+        }
+    }
+}
@@ -0,0 +1,610 @@
+package org.getyourguide.parquet.json;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.BinarySchema;
+import io.swagger.v3.oas.models.media.BooleanSchema;
+import io.swagger.v3.oas.models.media.DateSchema;
+import io.swagger.v3.oas.models.media.DateTimeSchema;
+import io.swagger.v3.oas.models.media.EmailSchema;
+import io.swagger.v3.oas.models.media.IntegerSchema;
+import io.swagger.v3.oas.models.media.MapSchema;
+import io.swagger.v3.oas.models.media.NumberSchema;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.PasswordSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.swagger.v3.oas.models.media.UUIDSchema;
+import io.swagger.v3.parser.OpenAPIV3Parser;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.SimpleDateFormat;
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.apache.parquet.io.InvalidRecordException;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.DecimalLogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.apache.parquet.schema.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Immutable, compiled form of an OpenAPI {@link ObjectSchema} for writing.
+ *
+ * <p>A plan holds the converted parquet {@link MessageType} and a tree of {@link Node}s describing the
+ * field writers: writer kind, field index, resolved nullability and the default value already
+ * converted to a {@link JsonNode}. Plans are compiled once per schema fingerprint and cached, so that
+ * opening a new file and writing records don't need to interpret the OpenAPI schema again. The plans of the
+ * schema instances already seen are found by identity, so that the schema is only fingerprinted once; the
+ * fingerprint cache is bounded to the {@value #MAX_CACHED_PLANS} most recently used plans.
+ *
+ * <p>A plan can be saved with {@link #writeTo} and loaded with {@link #readFrom}, so that a process can start
+ * writing without parsing the OpenAPI document: {@code java ... JsonWritePlan <openapi.yaml> <schema> <file>}
+ * compiles a schema of a document into a plan file.
+ */
+public final class JsonWritePlan {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JsonWritePlan.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    static final int MAX_CACHED_PLANS = 256;
+    // plans by fingerprint, least recently used first; bounded for schemas generated at runtime
+    private static final Map<String, JsonWritePlan> CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<String, JsonWritePlan>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, JsonWritePlan> eldest) {
+                    return size() > MAX_CACHED_PLANS;
+                }
+            });
+    private static final SchemaPlans SCHEMA_PLANS = new SchemaPlans();
+    // reads the saved defaults back as converted from the OpenAPI schema, where numbers are BigDecimal
+    private static final ObjectReader DEFAULT_READER =
+            MAPPER.reader().with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+
+    // "PJWP", then the version of the serialized form: 2 added the column hints, 3 the enum values
+    private static final int MAGIC = 0x504A5750;
+    private static final int VERSION = 3;
+
+    private final String fingerprint;
+    private final MessageType schema;
+    private final Node root;
+    private final Map<String, ColumnHints> columnHints;
+
+    private JsonWritePlan(String fingerprint, MessageType schema, Node root, Map<String, ColumnHints> columnHints) {
+        this.fingerprint = fingerprint;
+        this.schema = schema;
+        this.root = root;
+        this.columnHints = Collections.unmodifiableMap(columnHints);
+    }
+
+    /**
+     * Returns the plan for the given schema, compiling it on the first call for a given fingerprint.
+     */
+    public static JsonWritePlan of(ObjectSchema objectSchema) {
+        return of(objectSchema, JsonWriteOptions.defaults());
+    }
+
+    /**
+     * Returns the plan for the given schema and the options shaping the parquet schema, such as
+     * {@link JsonWriteOptions#isUuidAsString()}.
+     *
+     * <p>The plan is kept for the schema instance: a schema must not be modified once written with.
+     */
+    public static JsonWritePlan of(ObjectSchema objectSchema, JsonWriteOptions options) {
+        String schemaKey = options.schemaKey();
+        JsonWritePlan plan = SCHEMA_PLANS.get(objectSchema, schemaKey);
+        if (plan != null) {
+            return plan;
+        }
+
+        String fingerprint = fingerprint(objectSchema, options);
+        plan = CACHE.get(fingerprint);
+        if (plan == null) {
+            // compiled outside of the lock, a concurrent compilation of the same schema is dropped
+            plan = compile(objectSchema, options, fingerprint);
+            JsonWritePlan cached = CACHE.putIfAbsent(fingerprint, plan);
+            if (cached != null) {
+                plan = cached;
+            }
+        }
+        SCHEMA_PLANS.put(objectSchema, schemaKey, plan);
+        return plan;
+    }
+
+    static int cachedPlans() {
+        return CACHE.size();
+    }
+
+    static JsonWritePlan compile(ObjectSchema objectSchema, JsonWriteOptions options, String fingerprint) {
+        LOG.debug("Compiling write plan {}", fingerprint);
+        JsonSchemaConverter converter = new JsonSchemaConverter(options);
+        MessageType rootSchema = converter.convert(objectSchema);
+        return new JsonWritePlan(fingerprint, rootSchema, objectNode(null, -1, false, null, objectSchema, options),
+                converter.columnHints(objectSchema));
+    }
+
+    static String fingerprint(ObjectSchema objectSchema) {
+        return fingerprint(objectSchema, JsonWriteOptions.defaults());
+    }
+
+    static String fingerprint(ObjectSchema objectSchema, JsonWriteOptions options) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            sha256.update(Json.mapper().writeValueAsBytes(objectSchema));
+            // the defaults keep the fingerprint of the schema alone
+            sha256.update(options.schemaKey().getBytes(StandardCharsets.UTF_8));
+            byte[] digest = sha256.digest();
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint schema " + objectSchema.getTitle(), e);
+        }
+    }
+
+    /**
+     * Saves the plan: the parquet schema and the field writers, with their defaults. The stream is not
+     * closed.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.writeUTF(fingerprint);
+        writeBytes(data, schema.toString().getBytes(StandardCharsets.UTF_8));
+        writeNode(data, root);
+        data.writeInt(columnHints.size());
+        for (ColumnHints hints : columnHints.values()) {
+            data.writeUTF(hints.getPath());
+            writeBytes(data, MAPPER.writeValueAsBytes(hints.getExtensions()));
+        }
+        data.flush();
+    }
+
+    /**
+     * Loads a plan saved with {@link #writeTo}, the plan is then cached like a compiled one. The stream is
+     * not closed.
+     *
+     * @throws IOException if the stream doesn't hold a plan of a supported version
+     */
+    public static JsonWritePlan readFrom(InputStream in) throws IOException {
+        JsonWritePlan plan = read(in);
+        JsonWritePlan cached = CACHE.putIfAbsent(plan.fingerprint, plan);
+        return cached != null ? cached : plan;
+    }
+
+    /**
+     * Plans of the schema instances already seen. Hashing a swagger schema walks its whole tree, so the
+     * schemas are compared by identity, and weakly referenced so that the entries go away with them.
+     */
+    private static final class SchemaPlans {
+        private final Map<SchemaKey, JsonWritePlan> plans = new HashMap<>();
+        private final ReferenceQueue<ObjectSchema> collected = new ReferenceQueue<>();
+
+        synchronized JsonWritePlan get(ObjectSchema schema, String optionsKey) {
+            expunge();
+            return plans.get(new SchemaKey(schema, optionsKey, null));
+        }
+
+        synchronized void put(ObjectSchema schema, String optionsKey, JsonWritePlan plan) {
+            expunge();
+            plans.put(new SchemaKey(schema, optionsKey, collected), plan);
+        }
+
+        private void expunge() {
+            for (Reference<?> key = collected.poll(); key != null; key = collected.poll()) {
+                plans.remove(key);
+            }
+        }
+    }
+
+    private static final class SchemaKey extends WeakReference<ObjectSchema> {
+        private final String optionsKey;
+        private final int hash;
+
+        SchemaKey(ObjectSchema schema, String optionsKey, ReferenceQueue<ObjectSchema> queue) {
+            super(schema, queue);
+            this.optionsKey = optionsKey;
+            this.hash = 31 * System.identityHashCode(schema) + optionsKey.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SchemaKey)) {
+                return false;
+            }
+            SchemaKey that = (SchemaKey) o;
+            ObjectSchema schema = get();
+            return schema != null && schema == that.get() && optionsKey.equals(that.optionsKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    static JsonWritePlan read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a write plan");
+        }
+        int version = data.readByte();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported write plan version " + version);
+        }
+        String fingerprint = data.readUTF();
+        MessageType schema = MessageTypeParser.parseMessageType(new String(readBytes(data), StandardCharsets.UTF_8));
+        Node root = readNode(data, schema);
+        // column hints came with version 2
+        Map<String, ColumnHints> columnHints = new LinkedHashMap<>();
+        for (int i = version < 2 ? 0 : data.readInt(); i > 0; i--) {
+            String path = data.readUTF();
+            Map<String, Object> extensions = MAPPER.readValue(readBytes(data), new TypeReference<Map<String, Object>>() {
+            });
+            columnHints.put(path, ColumnHints.of(path, extensions));
+        }
+        return new JsonWritePlan(fingerprint, schema, root, columnHints);
+    }
+
+    private static void writeNode(DataOutputStream data, Node node) throws IOException {
+        data.writeByte(node.kind.ordinal());
+        data.writeBoolean(node.name != null);
+        if (node.name != null) {
+            data.writeUTF(node.name);
+        }
+        data.writeInt(node.index);
+        data.writeBoolean(node.required);
+        data.writeBoolean(node.defaultValue != null);
+        if (node.defaultValue != null) {
+            writeBytes(data, MAPPER.writeValueAsBytes(node.defaultValue));
+        }
+        if (node.kind == Kind.OBJECT) {
+            data.writeInt(node.fields.length);
+            for (Node field : node.fields) {
+                writeNode(data, field);
+            }
+        } else if (node.kind == Kind.ARRAY || node.kind == Kind.MAP) {
+            writeNode(data, node.element);
+        } else if (node.kind == Kind.ENUM) {
+            data.writeInt(node.symbols.length);
+            for (String symbol : node.symbols) {
+                data.writeUTF(symbol);
+            }
+        }
+    }
+
+    /**
+     * @param parent the parquet type holding the node, the saved schema itself for the root
+     */
+    private static Node readNode(DataInputStream data, GroupType parent) throws IOException {
+        int ordinal = data.readByte();
+        if (ordinal < 0 || ordinal >= Kind.values().length) {
+            throw new IOException("Unknown writer kind " + ordinal);
+        }
+        Kind kind = Kind.values()[ordinal];
+        String name = data.readBoolean() ? data.readUTF() : null;
+        int index = data.readInt();
+        boolean required = data.readBoolean();
+        JsonNode defaultValue = data.readBoolean() ? DEFAULT_READER.readTree(readBytes(data)) : null;
+        // the column types are not saved, they come from the saved schema
+        Type type = name == null ? parent : parent.getType(name);
+
+        switch (kind) {
+            case OBJECT:
+                Node[] fields = new Node[data.readInt()];
+                for (int i = 0; i < fields.length; i++) {
+                    fields[i] = readNode(data, type.asGroupType());
+                }
+                return objectNode(name, index, required, defaultValue, fields);
+            case ARRAY:
+            case MAP:
+                // the repeated list and key_value groups hold the element and the value
+                GroupType repeated = type.asGroupType().getType(0).asGroupType();
+                return new Node(kind, name, index, required, defaultValue, null, null, null,
+                        readNode(data, repeated));
+            case DECIMAL:
+            case DATE_TIME:
+                return typedLeaf(kind, name, index, required, defaultValue, type.getLogicalTypeAnnotation());
+            case ENUM:
+                String[] symbols = new String[data.readInt()];
+                for (int i = 0; i < symbols.length; i++) {
+                    symbols[i] = data.readUTF();
+                }
+                return enumNode(name, index, required, defaultValue, symbols);
+            default:
+                return leaf(kind, name, index, required, defaultValue);
+        }
+    }
+
+    private static void writeBytes(DataOutputStream data, byte[] bytes) throws IOException {
+        data.writeInt(bytes.length);
+        data.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream data) throws IOException {
+        byte[] bytes = new byte[data.readInt()];
+        data.readFully(bytes);
+        return bytes;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public MessageType getSchema() {
+        return schema;
+    }
+
+    /**
+     * Writer settings of the columns, by column path, from the {@code x-parquet-*} extensions of the schema.
+     */
+    public Map<String, ColumnHints> getColumnHints() {
+        return columnHints;
+    }
+
+    Node getRoot() {
+        return root;
+    }
+
+    // the ordinals are part of the saved plans, new kinds go at the end
+    enum Kind {
+        STRING, BINARY, DATE, DATE_TIME, INT, LONG, BOOLEAN, FLOAT, DOUBLE, ARRAY, OBJECT, MAP, UUID, ENUM, DECIMAL
+    }
+
+    /**
+     * Compiles a schema of an OpenAPI document into a plan file:
+     * {@code JsonWritePlan <openapi.yaml> <schema name> <output file>}.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: JsonWritePlan <openapi.yaml> <schema> <output>");
+            System.exit(2);
+        }
+        OpenAPI openAPI = new OpenAPIV3Parser().read(args[0]);
+        if (openAPI == null || openAPI.getComponents() == null) {
+            throw new IllegalArgumentException("Cannot read OpenAPI spec " + args[0]);
+        }
+        Schema<?> schema = openAPI.getComponents().getSchemas().get(args[1]);
+        if (!(schema instanceof ObjectSchema)) {
+            throw new IllegalArgumentException("Object schema " + args[1] + " not found in " + args[0]);
+        }
+        try (OutputStream out = Files.newOutputStream(Paths.get(args[2]))) {
+            JsonWritePlan.of((ObjectSchema) schema).writeTo(out);
+        }
+    }
+
+    /**
+     * Compiled description of a single field writer.
+     */
+    static final class Node {
+        final Kind kind;
+        final String name;
+        final int index;
+        final boolean required;
+        final JsonNode defaultValue;
+        // OBJECT: the fields in schema order, their index by name, and the indexes of the fields that
+        // need a check when missing from the payload (required or with a default)
+        final Node[] fields;
+        final FieldIndex fieldIndexes;
+        final int[] checkedFields;
+        // ARRAY: the item writer, MAP: the value writer (keys are always strings)
+        final Node element;
+        // ENUM: the allowed values in schema order, UTF-8 encoded once, with their index in fieldIndexes
+        final String[] symbols;
+        final Binary[] encodedSymbols;
+        // DECIMAL and DATE_TIME: the type of the column, resolved once rather than looked up by path by the writers
+        final LogicalTypeAnnotation logicalType;
+
+        private Node(Kind kind, String name, int index, boolean required, JsonNode defaultValue,
+                     Node[] fields, FieldIndex fieldIndexes, int[] checkedFields, Node element) {
+            this(kind, name, index, required, defaultValue, fields, fieldIndexes, checkedFields, element, null, null);
+        }
+
+        private Node(Kind kind, String name, int index, boolean required, JsonNode defaultValue,
+                     Node[] fields, FieldIndex fieldIndexes, int[] checkedFields, Node element, String[] symbols,
+                     LogicalTypeAnnotation logicalType) {
+            this.kind = kind;
+            this.name = name;
+            this.index = index;
+            this.required = required;
+            this.defaultValue = defaultValue;
+            this.fields = fields;
+            this.fieldIndexes = fieldIndexes;
+            this.checkedFields = checkedFields;
+            this.element = element;
+            this.symbols = symbols;
+            this.logicalType = logicalType;
+            if (symbols != null) {
+                this.encodedSymbols = new Binary[symbols.length];
+                for (int i = 0; i < symbols.length; i++) {
+                    encodedSymbols[i] = Binary.fromConstantByteArray(symbols[i].getBytes(StandardCharsets.UTF_8));
+                }
+            } else {
+                this.encodedSymbols = null;
+            }
+        }
+    }
+
+    private static Node node(String name, int index, Schema field, JsonWriteOptions options) {
+
+        // https://swagger.io/specification/
+        // The default value is nullable=false
+        boolean required = field.getNullable() == null || !field.getNullable();
+        JsonNode defaultValue = convertDefault(field.getDefault());
+
+        String[] symbols = JsonSchemaConverter.enumSymbols(field);
+        DecimalLogicalTypeAnnotation decimal = JsonSchemaConverter.decimalType(field);
+        if (decimal != null) {
+            return typedLeaf(Kind.DECIMAL, name, index, required, defaultValue, decimal);
+        } else if (symbols != null) {
+            return enumNode(name, index, required, defaultValue, symbols);
+        } else if (field instanceof StringSchema || field instanceof PasswordSchema || field instanceof EmailSchema) {
+            return leaf(Kind.STRING, name, index, required, defaultValue);
+        } else if (field instanceof BinarySchema) {
+            return leaf(Kind.BINARY, name, index, required, defaultValue);
+        } else if (field instanceof UUIDSchema) {
+            return leaf(options.isUuidAsString() ? Kind.STRING : Kind.UUID, name, index, required, defaultValue);
+        } else if (field instanceof DateSchema) {
+            return leaf(Kind.DATE, name, index, required, defaultValue);
+        } else if (field instanceof DateTimeSchema) {
+            return typedLeaf(Kind.DATE_TIME, name, index, required, defaultValue,
+                    JsonSchemaConverter.timestampType(field, options));
+        } else if (field instanceof IntegerSchema) {
+
+            if (field.getFormat() == null) {
+                return leaf(Kind.INT, name, index, required, defaultValue);
+            }
+
+            switch (field.getFormat().toLowerCase()) {
+                case "int16":
+                case "int32":
+                    return leaf(Kind.INT, name, index, required, defaultValue);
+                case "int64":
+                    return leaf(Kind.LONG, name, index, required, defaultValue);
+                default:
+                    throw unknownType(field);
+            }
+        } else if (field instanceof BooleanSchema) {
+            return leaf(Kind.BOOLEAN, name, index, required, defaultValue);
+        } else if (field instanceof NumberSchema) {
+
+            if (field.getFormat() == null) {
+                return leaf(Kind.FLOAT, name, index, required, defaultValue);
+            }
+
+            switch (field.getFormat().toLowerCase()) {
+                case "float":
+                    return leaf(Kind.FLOAT, name, index, required, defaultValue);
+                case "double":
+                    return leaf(Kind.DOUBLE, name, index, required, defaultValue);
+                default:
+                    throw unknownType(field);
+            }
+
+        } else if (field instanceof ArraySchema) {
+            Schema itemSchema = ((ArraySchema) field).getItems();
+
+            if (itemSchema instanceof MapSchema) {
+                LOG.error("Array of maps is not supported");
+                throw unknownType(itemSchema);
+            }
+
+            Node element = node("element", 0, itemSchema, options);
+            return new Node(Kind.ARRAY, name, index, required, defaultValue, null, null, null, element);
+        } else if (field instanceof ObjectSchema || field.getType() == null) {
+            return objectNode(name, index, required, defaultValue, JsonSchemaConverter.getObjectSchema(field),
+                    options);
+        } else if (field instanceof MapSchema) {
+            // with OPAI map always have string keys, we will assume that we won't get a "Free-Form Objects"
+            Node value = node("value", 1, (Schema) field.getAdditionalProperties(), options);
+            return new Node(Kind.MAP, name, index, required, defaultValue, null, null, null, value);
+        } else {
+            throw unknownType(field);
+        }
+    }
+
+    private static Node objectNode(String name, int index, boolean required, JsonNode defaultValue, Schema objSchema,
+                                   JsonWriteOptions options) {
+        Map<String, Schema> properties = objSchema.getProperties();
+        Node[] fields = new Node[properties.size()];
+
+        int fieldIndex = 0;
+        for (Map.Entry<String, Schema> field : properties.entrySet()) {
+            LOG.debug("Field {} has index {}", field.getKey(), fieldIndex);
+            fields[fieldIndex] = node(field.getKey(), fieldIndex, field.getValue(), options);
+            fieldIndex++;
+        }
+
+        return objectNode(name, index, required, defaultValue, fields);
+    }
+
+    private static Node objectNode(String name, int index, boolean required, JsonNode defaultValue, Node[] fields) {
+        String[] fieldNames = new String[fields.length];
+        int checkedCount = 0;
+        for (int i = 0; i < fields.length; i++) {
+            fieldNames[i] = fields[i].name;
+            if (fields[i].required || fields[i].defaultValue != null) {
+                checkedCount++;
+            }
+        }
+
+        int[] checkedFields = new int[checkedCount];
+        for (int i = 0, checked = 0; i < fields.length; i++) {
+            if (fields[i].required || fields[i].defaultValue != null) {
+                checkedFields[checked++] = i;
+            }
+        }
+
+        return new Node(Kind.OBJECT, name, index, required, defaultValue, fields,
+                FieldIndex.of(fieldNames), checkedFields, null);
+    }
+
+    private static Node enumNode(String name, int index, boolean required, JsonNode defaultValue, String[] symbols) {
+        return new Node(Kind.ENUM, name, index, required, defaultValue, null, FieldIndex.of(symbols), null, null,
+                symbols, null);
+    }
+
+    private static Node leaf(Kind kind, String name, int index, boolean required, JsonNode defaultValue) {
+        return new Node(kind, name, index, required, defaultValue, null, null, null, null);
+    }
+
+    private static Node typedLeaf(Kind kind, String name, int index, boolean required, JsonNode defaultValue,
+                                  LogicalTypeAnnotation logicalType) {
+        return new Node(kind, name, index, required, defaultValue, null, null, null, null, null, logicalType);
+    }
+
+    private static JsonNode convertDefault(Object value) {
+        if (value == null) {
+            return null;
+        }
+
+        if (value instanceof Date) {
+            return MAPPER.convertValue(new SimpleDateFormat("yyyy-MM-dd").format((Date) value), JsonNode.class);
+        } else if (value instanceof OffsetDateTime) {
+            return MAPPER.convertValue(value.toString(), JsonNode.class);
+        } else {
+            return MAPPER.convertValue(value, JsonNode.class);
+        }
+    }
+
+    private static InvalidRecordException unknownType(Schema fieldDescriptor) {
+        String exceptionMsg = "Unknown type with descriptor \"" + fieldDescriptor
+                + "\" and type \"" + fieldDescriptor.getType() + "\".";
+        return new InvalidRecordException(exceptionMsg);
+    }
+
+    static Node stringKey() {
+        return leaf(Kind.STRING, "key", 0, true, null);
+    }
+}
@@ -1,34 +1,18 @@
 package org.getyourguide.parquet.json;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonParser.NumberType;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.NullNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import io.swagger.v3.oas.models.media.ArraySchema;
-import io.swagger.v3.oas.models.media.BinarySchema;
-import io.swagger.v3.oas.models.media.BooleanSchema;
-import io.swagger.v3.oas.models.media.DateSchema;
-import io.swagger.v3.oas.models.media.DateTimeSchema;
-import io.swagger.v3.oas.models.media.EmailSchema;
-import io.swagger.v3.oas.models.media.IntegerSchema;
-import io.swagger.v3.oas.models.media.MapSchema;
-import io.swagger.v3.oas.models.media.NumberSchema;
 import io.swagger.v3.oas.models.media.ObjectSchema;
-import io.swagger.v3.oas.models.media.PasswordSchema;
-import io.swagger.v3.oas.models.media.Schema;
-import io.swagger.v3.oas.models.media.StringSchema;
-import io.swagger.v3.oas.models.media.UUIDSchema;
+import java.io.IOException;
 import java.lang.reflect.Array;
-import java.nio.charset.StandardCharsets;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.time.LocalDate;
-import java.time.Month;
-import java.time.OffsetDateTime;
-import java.time.temporal.ChronoUnit;
-import java.util.Base64;
-import java.util.Date;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
@@ -38,9 +22,15 @@ import org.apache.parquet.hadoop.api.WriteSupport;
 import org.apache.parquet.io.InvalidRecordException;
 import org.apache.parquet.io.api.Binary;
 import org.apache.parquet.io.api.RecordConsumer;
-import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.LogicalTypeAnnotation.DecimalLogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.TimeUnit;
+import org.apache.parquet.schema.LogicalTypeAnnotation.TimestampLogicalTypeAnnotation;
 import org.apache.parquet.schema.MessageType;
-import org.apache.parquet.schema.Type;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.getyourguide.parquet.json.JsonWriteMetrics.FieldCounters;
+import org.getyourguide.parquet.json.JsonWritePlan.Kind;
+import org.getyourguide.parquet.json.JsonWritePlan.Node;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -50,28 +40,70 @@ import org.slf4j.LoggerFactory;
 public class JsonWriteSupport<T extends JsonNode> extends WriteSupport<T> {
 
     private static final Logger LOG = LoggerFactory.getLogger(JsonWriteSupport.class);
-    private static boolean writeDefaultValue;
-    private static boolean writeNullAsDefault;
 
+    private final JsonWriteOptions options;
+
+    // the consumer the writers write to, the record buffer when rejecting records
     private RecordConsumer recordConsumer;
+    private RecordConsumer parquetConsumer;
+    // null unless a rejected record handler is set
+    private RecordBuffer recordBuffer;
+    // the record held by the record buffer, once prepared
+    private Object preparedRecord;
+    // where the prepared record was converted ahead by another write support, if it was
+    private RecordBuffer converted;
+    private int convertedFrom;
+    private int convertedTo;
+    // copies the tokens of the streamed records while rejecting records, reused from one record to the next
+    private RecordingParser recording;
+    private final WriteErrorLog errorLog = new WriteErrorLog(LOG, WriteErrorLog.INTERVAL_NANOS);
+    // shared by all the string writers, values are consumed by addBinary before the next one is encoded
+    private final Utf8Buffer utf8Buffer = new Utf8Buffer();
     private ObjectSchema objectSchema;
+    private JsonWritePlan writePlan;
     private MessageWriter messageWriter;
 
 
     public JsonWriteSupport() {
-
+        this.options = JsonWriteOptions.defaults();
     }
 
     public JsonWriteSupport(ObjectSchema objSchema) {
-        this.objectSchema = objSchema;
+        this(objSchema, JsonWriteOptions.defaults());
     }
 
     public JsonWriteSupport(ObjectSchema objSchema, boolean writeDefaultValue, boolean writeNullAsDefault) {
-        JsonWriteSupport.writeDefaultValue = writeDefaultValue;
-        JsonWriteSupport.writeNullAsDefault = writeNullAsDefault;
+        this(objSchema, JsonWriteOptions.builder()
+                .withWriteDefault(writeDefaultValue)
+                .withNullAsDefault(writeNullAsDefault)
+                .build());
+    }
+
+    public JsonWriteSupport(ObjectSchema objSchema, JsonWriteOptions options) {
         this.objectSchema = objSchema;
+        this.options = options;
+    }
+
+    public JsonWriteSupport(JsonWritePlan writePlan) {
+        this(writePlan, JsonWriteOptions.defaults());
+    }
+
+    public JsonWriteSupport(JsonWritePlan writePlan, JsonWriteOptions options) {
+        this.writePlan = writePlan;
+        this.options = options;
     }
 
+    public JsonWriteOptions getOptions() {
+        return options;
+    }
+
+
+    JsonWritePlan getWritePlan() {
+        if (writePlan == null) {
+            writePlan = JsonWritePlan.of(objectSchema, options);
+        }
+        return writePlan;
+    }
 
     @Override
     public String getName() {
@@ -80,8 +112,11 @@ public class JsonWriteSupport<T extends JsonNode> extends WriteSupport<T> {
 
     @Override
     public WriteContext init(Configuration configuration) {
-        MessageType rootSchema = new JsonSchemaConverter().convert(objectSchema);
-        this.messageWriter = new MessageWriter(objectSchema, rootSchema);
+        MessageType rootSchema = getWritePlan().getSchema();
+        // the writers only depend on the plan, a write support reused for several files keeps them
+        if (messageWriter == null) {
+            this.messageWriter = new MessageWriter(writePlan.getRoot(), null);
+        }
         Map<String, String> extraMetaData = new HashMap<>();
         extraMetaData.put("writer.model.author","GetYourGuide");
         return new WriteContext(rootSchema, extraMetaData);
@@ -89,48 +124,319 @@ public class JsonWriteSupport<T extends JsonNode> extends WriteSupport<T> {
 
     @Override
     public void prepareForWrite(RecordConsumer recordConsumer) {
-        this.recordConsumer = recordConsumer;
+        this.parquetConsumer = recordConsumer;
+        if (options.getRejectedRecordHandler() != null) {
+            if (recordBuffer == null) {
+                recordBuffer = new RecordBuffer();
+            }
+            this.recordConsumer = recordBuffer;
+        } else {
+            this.recordConsumer = recordConsumer;
+        }
+    }
+
+    @Override
+    public FinalizedWriteContext finalizeWrite() {
+        errorLog.flush();
+        return super.finalizeWrite();
     }
 
     @Override
     public void write(T record) {
-        recordConsumer.startMessage();
+        if (converted != null && preparedRecord == record) {
+            converted.replay(parquetConsumer, convertedFrom, convertedTo);
+            converted = null;
+            preparedRecord = null;
+            return;
+        }
+        converted = null;
+        if (recordBuffer != null) {
+            if (preparedRecord != record) {
+                prepare(record);
+            }
+            preparedRecord = null;
+            recordBuffer.replay(parquetConsumer);
+            return;
+        }
+
+        try {
+            recordConsumer.startMessage();
+            messageWriter.writeTopLevelMessage(record);
+            recordConsumer.endMessage();
+        } catch (RuntimeException e) {
+            LOG.debug("Cannot write message {}", record, e);
+            throw failed(record, e);
+        }
+    }
+
+    /**
+     * When rejecting records, converts the record into the record buffer ahead of {@link #write}, so that a
+     * rejected record fails before reaching the parquet writer: parquet aborts a writer whose write support
+     * throws. Does nothing otherwise.
+     *
+     * @throws RejectedRecordException if the record is rejected
+     */
+    void prepare(T record) {
+        if (recordBuffer == null) {
+            return;
+        }
+        recordBuffer.reset();
+        preparedRecord = null;
+
+        try {
+            recordConsumer.startMessage();
+            messageWriter.writeTopLevelMessage(record);
+            recordConsumer.endMessage();
+        } catch (RuntimeException e) {
+            LOG.debug("Cannot write message {}", record, e);
+            throw failed(record, e);
+        }
+        preparedRecord = record;
+    }
 
+    /**
+     * Converts the record, appended to the given buffer, so that another write support replays it with
+     * {@link #prepareConverted}. The write support must be initialized. A record that fails leaves nothing in
+     * the buffer.
+     *
+     * @throws RejectedRecordException if the record is rejected to the {@link RejectedRecordHandler}
+     */
+    void convert(T record, RecordBuffer into) {
+        int mark = into.mark();
+        RecordConsumer consumer = recordConsumer;
+        recordConsumer = into;
         try {
+            into.startMessage();
             messageWriter.writeTopLevelMessage(record);
+            into.endMessage();
         } catch (RuntimeException e) {
-            LOG.error("Cannot write message " + e.getMessage() + " : " + record);
-            throw e;
+            LOG.debug("Cannot write message {}", record, e);
+            into.rollback(mark);
+            throw failed(record, e);
+        } finally {
+            recordConsumer = consumer;
         }
+    }
 
-        recordConsumer.endMessage();
+    /**
+     * Has the next {@link #write} of the record replay the calls {@link #convert} buffered for it between two
+     * marks, instead of converting it again.
+     */
+    void prepareConverted(T record, RecordBuffer buffer, int from, int to) {
+        preparedRecord = record;
+        converted = buffer;
+        convertedFrom = from;
+        convertedTo = to;
     }
 
-    private FieldWriter unknownType(Schema fieldDescriptor) {
-        String exceptionMsg = "Unknown type with descriptor \"" + fieldDescriptor
-                + "\" and type \"" + fieldDescriptor.getType() + "\".";
-        throw new InvalidRecordException(exceptionMsg);
+    /**
+     * Writes the JSON object the parser is positioned on (or right before) without building a JsonNode
+     * tree. On return the parser is positioned on the END_OBJECT token of the record.
+     */
+    void writeStream(JsonParser parser) throws IOException {
+        if (recordBuffer != null) {
+            if (preparedRecord != parser) {
+                prepareStream(parser);
+            }
+            preparedRecord = null;
+            recordBuffer.replay(parquetConsumer);
+            return;
+        }
+
+        startRecord(parser);
+        try {
+            recordConsumer.startMessage();
+            messageWriter.writeTopLevelMessage(parser);
+            recordConsumer.endMessage();
+        } catch (RuntimeException e) {
+            LOG.debug("Cannot write message at {}", parser.currentLocation(), e);
+            throw failed(null, e);
+        }
+    }
+
+    /**
+     * Streaming counterpart of {@link #prepare}. The tokens of the record are copied as they are read into a
+     * buffer reused across records, so that a rejected record reaches the handler as a tree. A rejected
+     * record is skipped, the parser is then left on its END_OBJECT token.
+     */
+    void prepareStream(JsonParser parser) throws IOException {
+        if (recordBuffer == null) {
+            return;
+        }
+        startRecord(parser);
+        recordBuffer.reset();
+        preparedRecord = null;
+        int depth = parser.getParsingContext().getNestingDepth();
+        if (recording == null) {
+            recording = new RecordingParser();
+        }
+        recording.record(parser);
+
+        try {
+            recordConsumer.startMessage();
+            messageWriter.writeTopLevelMessage(recording);
+            recordConsumer.endMessage();
+        } catch (RuntimeException e) {
+            LOG.debug("Cannot write message at {}", parser.currentLocation(), e);
+            RuntimeException failure;
+            try {
+                skipRecord(recording, depth);
+            } finally {
+                // with the record as far as it could be read
+                failure = failed(recording.toTree(), e);
+            }
+            throw failure;
+        }
+        preparedRecord = parser;
+    }
+
+    private static void startRecord(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.nextToken();
+        }
+
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new InvalidRecordException("Expected START_OBJECT but got " + parser.currentToken()
+                    + " at " + parser.currentLocation());
+        }
+    }
+
+    /**
+     * Reports a record that couldn't be written. When rejecting records, its buffered values are dropped and
+     * it is passed to the handler, the returned exception is then a {@link RejectedRecordException}.
+     */
+    private RuntimeException failed(JsonNode record, RuntimeException e) {
+        RejectedRecordHandler handler = options.getRejectedRecordHandler();
+        if (handler == null) {
+            errorLog.report(null, e.getClass().getSimpleName(), e.getMessage());
+            return e;
+        }
+
+        if (recordBuffer != null) {
+            recordBuffer.reset();
+        }
+        RejectedRecordException rejected = e instanceof RejectedRecordException
+                ? (RejectedRecordException) e
+                : new RejectedRecordException(null, reason(e), e);
+        errorLog.report(rejected.getFieldPath(),
+                rejected.getCause() == null ? "rejected" : rejected.getCause().getClass().getSimpleName(),
+                rejected.getReason());
+        if (options.getMetrics() != null && rejected.getFieldPath() != null) {
+            options.getMetrics().counters(rejected.getFieldPath()).rejections.increment();
+        }
+        handler.reject(record, rejected.getFieldPath(), rejected.getReason());
+        return rejected;
+    }
+
+    private static String reason(Exception e) {
+        return e.getMessage() == null ? e.getClass().getName() : e.getMessage();
+    }
+
+    // moves the parser to the END_OBJECT of a rejected record, whose START_OBJECT was at the given depth
+    private static void skipRecord(JsonParser parser, int depth) throws IOException {
+        while (parser.currentToken() != JsonToken.END_OBJECT || parser.getParsingContext().getNestingDepth() >= depth) {
+            if (parser.nextToken() == null) {
+                return;
+            }
+        }
+    }
+
+    private FieldWriter createWriter(Node field, String parentPath) {
+
+        String path = parentPath == null ? field.name : parentPath + "." + field.name;
+        FieldWriter writer;
+
+        switch (field.kind) {
+            case STRING:
+                writer = new StringWriter();
+                break;
+            case BINARY:
+                writer = new BinaryWriter();
+                break;
+            case DATE:
+                writer = new DateWriter();
+                break;
+            case DATE_TIME:
+                writer = new DateTimeWriter((TimestampLogicalTypeAnnotation) field.logicalType);
+                break;
+            case INT:
+                writer = new IntWriter();
+                break;
+            case LONG:
+                writer = new LongWriter();
+                break;
+            case BOOLEAN:
+                writer = new BooleanWriter();
+                break;
+            case FLOAT:
+                writer = new FloatWriter();
+                break;
+            case DOUBLE:
+                writer = new DoubleWriter();
+                break;
+            case UUID:
+                writer = new UuidWriter();
+                break;
+            case ENUM:
+                writer = new EnumWriter(field);
+                break;
+            case DECIMAL:
+                writer = new DecimalWriter((DecimalLogicalTypeAnnotation) field.logicalType);
+                break;
+            case ARRAY:
+                writer = new ArrayWriter(createWriter(field.element, path + ".list"), field.element.required);
+                break;
+            case OBJECT:
+                writer = new MessageWriter(field, path);
+                break;
+            case MAP:
+                writer = new MapWriter(createWriter(JsonWritePlan.stringKey(), path + ".key_value"),
+                        createWriter(field.element, path + ".key_value"));
+                break;
+            default:
+                throw new InvalidRecordException("Unknown writer kind " + field.kind);
+        }
+
+        writer.setFieldName(field.name);
+        writer.setPath(path);
+        writer.setIndex(field.index);
+        if (options.getMetrics() != null) {
+            writer.setCounters(options.getMetrics().counters(path));
+        }
+        return writer;
     }
 
     class FieldWriter {
         String fieldName;
+        // column path of the field, e.g. key.list.element
+        String path;
         int index = -1;
+        // null unless metrics are enabled
+        FieldCounters counters = null;
 
         void setFieldName(String fieldName) {
             this.fieldName = fieldName;
         }
 
+        void setPath(String path) {
+            this.path = path;
+        }
+
         void setIndex(int index) {
             this.index = index;
         }
 
+        void setCounters(FieldCounters counters) {
+            this.counters = counters;
+        }
+
         void writeRawValue(Object value) {
         }
 
         void writeField(Object value) {
 
             if (value instanceof NullNode || value == null) {
-                LOG.debug("Null value");
+                countNull();
                 return;
             }
 
@@ -139,165 +445,149 @@ public class JsonWriteSupport<T extends JsonNode> extends WriteSupport<T> {
             recordConsumer.endField(fieldName, index);
         }
 
-    }
-
-    class MessageWriter extends FieldWriter {
-        final FieldWriter[] fieldWriters;
-        ObjectSchema messageObjectSchema;
-
-        @SuppressWarnings("unchecked")
-        MessageWriter(ObjectSchema objSchema, GroupType schema) {
-
-            this.messageObjectSchema = objSchema;
-            int fieldsSize = messageObjectSchema.getProperties().entrySet().size();
-            fieldWriters = (FieldWriter[]) Array.newInstance(FieldWriter.class, fieldsSize);
-
-            int fieldIndex = 0;
-            for (Map.Entry<String, Schema> field : messageObjectSchema.getProperties().entrySet()) {
-
-                String name = field.getKey();
-                Type type = schema.getType(name);
-                FieldWriter writer = createWriter(field.getValue(), type);
-
-                LOG.debug("Field {} has index {}", name, fieldIndex);
-                writer.setFieldName(name);
-                writer.setIndex(fieldIndex);
+        // Streaming counterparts: the parser is positioned on the value token and is left on the
+        // last token of the value (END_OBJECT/END_ARRAY for containers)
+        void writeRawValue(JsonParser parser) throws IOException {
+        }
 
-                fieldWriters[fieldIndex] = writer;
+        void writeField(JsonParser parser) throws IOException {
 
-                fieldIndex++;
+            if (parser.currentToken() == JsonToken.VALUE_NULL) {
+                countNull();
+                return;
             }
 
+            recordConsumer.startField(fieldName, index);
+            writeRawValue(parser);
+            recordConsumer.endField(fieldName, index);
         }
 
-        private MessageWriter CreateObjectWriter(Schema field, Type type) {
-            return new MessageWriter((ObjectSchema) field, type.asGroupType());
+        void unexpectedToken(JsonParser parser) throws IOException {
+            mismatch(parser.currentToken() + " token not expected by " + getClass().getSimpleName());
+            parser.skipChildren();
         }
 
-        private ArrayWriter CreateArrayWriter(Schema field, Type type) {
-            FieldWriter itemWriter;
-
-            Schema itemSchema = ((ArraySchema) field).getItems();
+        void typeMismatch(Object value) {
+            mismatch(value.getClass().getSimpleName() + " type not expected by " + getClass().getSimpleName());
+        }
 
-            // Array of objects
-            if (itemSchema instanceof ObjectSchema) {
-                Type innerType = type
-                        .asGroupType()
-                        .getType("list")
-                        .asGroupType()
-                        .getType("element");
-                itemWriter = createWriter(itemSchema, innerType);
-            } else if (itemSchema instanceof MapSchema) {
-                LOG.error("Array of maps is not supported");
-                return (ArrayWriter) unknownType(itemSchema);
+        // the value is skipped, unless records are rejected in which case the whole record is
+        private void mismatch(String reason) {
+            if (counters != null) {
+                counters.typeMismatches.increment();
             }
-            else {
-                // Array of primitive type
-                itemWriter = createWriter(itemSchema, type);
+            if (options.getRejectedRecordHandler() != null) {
+                throw new RejectedRecordException(path, reason, null);
             }
+            errorLog.report(path, "type mismatch", reason);
+        }
 
-            return new ArrayWriter(itemWriter);
+        void countValue() {
+            if (counters != null) {
+                counters.values.increment();
+            }
         }
 
-        private MapWriter CreateMapWriter(Schema field, Type type) {
+        void countNull() {
+            if (counters != null) {
+                counters.nulls.increment();
+            }
+        }
 
-            StringSchema keySchema = new StringSchema();
-            FieldWriter keyWriter = createWriter(keySchema, null); // with OPAI map always have string keys
-            FieldWriter valueWriter;
-            keyWriter.setFieldName("key");
-            keyWriter.setIndex(0);
+        void countDefault() {
+            if (counters != null) {
+                counters.defaults.increment();
+            }
+        }
 
-            Schema valueSchema = (Schema) field.getAdditionalProperties();
+        // leaf values go through these so that they are counted when metrics are enabled
 
-            // we will assume that we won't get a "Free-Form Objects"
-            if (valueSchema instanceof ObjectSchema) {
-                Type innerType = type
-                        .asGroupType()
-                        .getType("key_value")
-                        .asGroupType()
-                        .getType("value");
-                valueWriter = createWriter(valueSchema, innerType);
-            } else if (valueSchema instanceof ArraySchema) {
-                Schema itemsSchema = ((ArraySchema) field.getAdditionalProperties()).getItems();
-                // Handle arrays of objects
-                if (itemsSchema instanceof ObjectSchema) {
-                    Type innerType = type
-                        .asGroupType()
-                        .getType("key_value")
-                        .asGroupType()
-                        .getType("value");
-                    valueWriter = createWriter(valueSchema, innerType);
-                } else {
-                    valueWriter = createWriter(valueSchema, type);
-                }
-            }
-            else {
-                valueWriter = createWriter(valueSchema, type);
+        void addBinary(Binary value) {
+            recordConsumer.addBinary(value);
+            if (counters != null) {
+                counters.values.increment();
+                counters.bytes.add(value.length());
             }
+        }
 
-            valueWriter.setIndex(1);
-            valueWriter.setFieldName("value");
-            return new MapWriter(keyWriter, valueWriter);
+        void addInteger(int value) {
+            recordConsumer.addInteger(value);
+            countPrimitive(Integer.BYTES);
         }
 
-        private FieldWriter createWriter(Schema field, Type type) {
+        void addLong(long value) {
+            recordConsumer.addLong(value);
+            countPrimitive(Long.BYTES);
+        }
 
-            if (field instanceof StringSchema || field instanceof PasswordSchema || field instanceof EmailSchema) {
-                return new StringWriter();
-            } else if (field instanceof BinarySchema) {
-                return new BinaryWriter();
-            } else if (field instanceof UUIDSchema) {
-                //todo: fix once PARQUET-1827 is released
-                return new StringWriter();
-            } else if (field instanceof DateSchema) {
-                return new DateWriter();
-            } else if (field instanceof DateTimeSchema) {
-                return new DateTimeWriter();
-            } else if (field instanceof IntegerSchema) {
+        void addBoolean(boolean value) {
+            recordConsumer.addBoolean(value);
+            countPrimitive(1);
+        }
 
-                if (field.getFormat() == null) {
-                    return new IntWriter();
-                }
+        void addFloat(float value) {
+            recordConsumer.addFloat(value);
+            countPrimitive(Float.BYTES);
+        }
 
-                if (field.getFormat().toLowerCase().equals("int32")) {
-                    return new IntWriter();
-                } else if (field.getFormat().toLowerCase().equals("int64")) {
-                    return new LongWriter();
-                } else if (field.getFormat().toLowerCase().equals("int16")) {
-                    return new IntWriter();
-                } else {
-                    return unknownType(field);
-                }
-            } else if (field instanceof BooleanSchema) {
-                return new BooleanWriter();
-            } else if (field instanceof NumberSchema) {
+        void addDouble(double value) {
+            recordConsumer.addDouble(value);
+            countPrimitive(Double.BYTES);
+        }
 
-                if (field.getFormat() == null) {
-                    return new FloatWriter();
-                }
+        private void countPrimitive(int bytes) {
+            if (counters != null) {
+                counters.values.increment();
+                counters.bytes.add(bytes);
+            }
+        }
 
-                if (field.getFormat().toLowerCase().equals("float")) {
-                    return new FloatWriter();
-                } else if (field.getFormat().toLowerCase().equals("double")) {
-                    return new DoubleWriter();
-                } else {
-                    return unknownType(field);
+    }
+
+    class MessageWriter extends FieldWriter {
+        // nested writers are created the first time their field appears, see fieldWriter()
+        final FieldWriter[] fieldWriters;
+        final Node[] fields;
+        final String messagePath;
+        // used when iterating over the payload, to dispatch field names and track the fields written
+        final FieldIndex fieldIndexes;
+        final int[] checkedFields;
+        // fieldStamps[i] == stamp when field i has been written in the current message
+        final int[] fieldStamps;
+        int stamp = 0;
+
+        @SuppressWarnings("unchecked")
+        MessageWriter(Node messageNode, String path) {
+
+            this.fields = messageNode.fields;
+            this.messagePath = path;
+            this.fieldIndexes = messageNode.fieldIndexes;
+            this.checkedFields = messageNode.checkedFields;
+            fieldWriters = (FieldWriter[]) Array.newInstance(FieldWriter.class, fields.length);
+            fieldStamps = new int[fields.length];
+
+            // with metrics, all writers are built up front so that the snapshot lists every field
+            boolean eager = options.getMetrics() != null;
+            for (int fieldIndex = 0; fieldIndex < fields.length; fieldIndex++) {
+                if (eager || !isNested(fields[fieldIndex])) {
+                    fieldWriters[fieldIndex] = createWriter(fields[fieldIndex], path);
                 }
+            }
 
-            } else if (field instanceof ArraySchema) {
-                return CreateArrayWriter(field, type);
-            } else if (field instanceof ObjectSchema || field.getType() == null) {
+        }
 
-                field = JsonSchemaConverter.getObjectSchema(field);
+        private boolean isNested(Node field) {
+            return field.kind == Kind.OBJECT || field.kind == Kind.ARRAY || field.kind == Kind.MAP;
+        }
 
-                return CreateObjectWriter(field, type);
-            } else if (field instanceof MapSchema) {
-                return CreateMapWriter(field, type);
-            }
-            else {
-                return unknownType(field); //should not be executed, always throws exception.
+        // wide schemas often have nested branches that never show up, their writers are only built when needed
+        private FieldWriter fieldWriter(int fieldIndex) {
+            FieldWriter writer = fieldWriters[fieldIndex];
+            if (writer == null) {
+                writer = createWriter(fields[fieldIndex], messagePath);
+                fieldWriters[fieldIndex] = writer;
             }
-
+            return writer;
         }
 
         /**
@@ -307,104 +597,206 @@ public class JsonWriteSupport<T extends JsonNode> extends WriteSupport<T> {
             writeAllFields((JsonNode) value);
         }
 
+        void writeTopLevelMessage(JsonParser parser) throws IOException {
+            writeAllFields(parser);
+        }
+
         // Use to write an ObjectNode (nested structure)
         @Override
         final void writeRawValue(Object value) {
+            countValue();
             recordConsumer.startGroup();
             writeAllFields((ObjectNode) value);
             recordConsumer.endGroup();
         }
 
+        @Override
+        final void writeRawValue(JsonParser parser) throws IOException {
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                throw new InvalidRecordException("Expected START_OBJECT for " + fieldName + " but got "
+                        + parser.currentToken());
+            }
+            countValue();
+            recordConsumer.startGroup();
+            writeAllFields(parser);
+            recordConsumer.endGroup();
+        }
+
         private void writeAllFields(JsonNode pb) {
 
-            int fieldIndex = 0;
-            // objectSchema doesn't map to the right schema, it maps to the root schema
-            for (Map.Entry<String, Schema> field : messageObjectSchema.getProperties().entrySet()) {
+            if (options.isPayloadDrivenIteration()) {
+                writePayloadFields(pb);
+                return;
+            }
+
+            for (int fieldIndex = 0; fieldIndex < fieldWriters.length; fieldIndex++) {
+
+                // null only when the field is absent, an explicit null is a NullNode
+                JsonNode node = pb.get(fields[fieldIndex].name);
 
-                String lkpFieldName = field.getKey();
-                Schema valueSchema = field.getValue();
-                JsonNode node;
+                if (node == null) {
+                    writeMissingField(fieldIndex);
+                    continue;
+                }
+
+                writeValue(fieldIndex, node);
+            }
+        }
+
+        /**
+         * Writes the fields in the order they appear in the payload, so that the cost depends on the
+         * payload and not on the width of the schema.
+         */
+        private void writePayloadFields(JsonNode pb) {
+
+            int currentStamp = nextStamp();
+
+            for (Iterator<Entry<String, JsonNode>> it = pb.fields(); it.hasNext(); ) {
+                Entry<String, JsonNode> field = it.next();
+
+                int fieldIndex = fieldIndexes.get(field.getKey());
+                if (fieldIndex < 0) {
+                    // not part of the schema
+                    continue;
+                }
 
-                LOG.debug("Looking for {}", lkpFieldName);
+                fieldStamps[fieldIndex] = currentStamp;
+                writeValue(fieldIndex, field.getValue());
+            }
+
+            writeMissingFields(currentStamp);
+        }
+
+        /**
+         * Writes the fields in the order they appear in the payload, the parser is positioned on the
+         * START_OBJECT token and is left on the matching END_OBJECT token.
+         */
+        private void writeAllFields(JsonParser parser) throws IOException {
+
+            int currentStamp = nextStamp();
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String lkpFieldName = parser.currentName();
+                parser.nextToken();
+
+                int fieldIndex = fieldIndexes.get(lkpFieldName);
+                if (fieldIndex < 0) {
+                    // not part of the schema, ignored like in the tree path
+                    parser.skipChildren();
+                    continue;
+                }
+
+                if (fieldStamps[fieldIndex] == currentStamp) {
+                    throw new InvalidRecordException(String.format("Field %s is duplicated", lkpFieldName));
+                }
+                fieldStamps[fieldIndex] = currentStamp;
 
-                if (pb.has(lkpFieldName)) {
-                    node = pb.get(lkpFieldName);
+                if (parser.currentToken() == JsonToken.VALUE_NULL) {
+                    writeValue(fieldIndex, NullNode.getInstance());
                 } else {
-                    // the field lkpFieldName is missing in the payload, if specified
-                    // we write the default value instead (if there is any)
-                    if (writeDefaultValue) {
-                        if(valueSchema.getDefault() != null) {
-                            Object value = valueSchema.getDefault();
-                            ObjectMapper mapper = new ObjectMapper();
-
-                            LOG.debug("Default for {} is {}", lkpFieldName, value);
-
-                            LOG.debug("Default value type: {}", value.getClass().getCanonicalName());
-
-                            switch (value.getClass().getCanonicalName()) {
-                                case "java.util.Date":
-                                    DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
-                                    node = mapper.convertValue(dateFormat.format((Date) value), JsonNode.class);
-                                    break;
-                                case "java.time.OffsetDateTime":
-                                    node = mapper.convertValue(value.toString(), JsonNode.class);
-                                    break;
-                                default:
-                                    node = mapper.convertValue(value, JsonNode.class);
-                            }
-
-                        } else {
-
-                            if (valueSchema.getNullable() == null || !valueSchema.getNullable()) {
-                                throw new RequiredFieldException(String.format("Field %s missing/null and"
-                                    + " writeDefaultValue enabled", lkpFieldName));
-                            } else {
-                                fieldIndex++;
-                                continue;
-                            }
-                        }
-                    } else {
-                        if (valueSchema.getNullable() == null || !valueSchema.getNullable()) {
-                            throw new RequiredFieldException(String.format("Field %s missing/null"
-                                    + " but defined as non-nullable",
-                                lkpFieldName));
-                        } else {
-                            fieldIndex++;
-                            continue;
-                        }
+                    try {
+                        fieldWriter(fieldIndex).writeField(parser);
+                    } catch (RuntimeException e) {
+                        throw fieldFailure(fieldIndex, e);
                     }
                 }
+            }
 
-                // if the value is NULL, and if specified we replace with default
-                // if default is also NULL we carry on
-                if (node instanceof NullNode && writeNullAsDefault) {
-                    if(valueSchema.getDefault() != null) {
-                        node = (JsonNode) valueSchema.getDefault();
-                    }
+            writeMissingFields(currentStamp);
+        }
+
+        private int nextStamp() {
+            if (++stamp == 0) {
+                // wrapped around, forget the stamps of past messages
+                Arrays.fill(fieldStamps, 0);
+                stamp = 1;
+            }
+            return stamp;
+        }
+
+        // only the required fields and the ones with a default have something to do when missing
+        private void writeMissingFields(int currentStamp) {
+            for (int fieldIndex : checkedFields) {
+                if (fieldStamps[fieldIndex] != currentStamp) {
+                    writeMissingField(fieldIndex);
                 }
+            }
+        }
 
-                fieldWriters[fieldIndex].writeField(node);
-                fieldIndex++;
+        private void writeValue(int fieldIndex, JsonNode node) {
+
+            // if the value is NULL, and if specified we replace with default
+            // if default is also NULL we carry on
+            if (node instanceof NullNode && options.isWriteNullAsDefault()) {
+                if (fields[fieldIndex].defaultValue != null) {
+                    fieldWriter(fieldIndex).countNull();
+                    fieldWriter(fieldIndex).countDefault();
+                    node = fields[fieldIndex].defaultValue;
+                }
+            }
 
+            try {
+                fieldWriter(fieldIndex).writeField(node);
+            } catch (RuntimeException e) {
+                throw fieldFailure(fieldIndex, e);
+            }
+        }
+
+        // ties the failure to the field when rejecting records
+        private RuntimeException fieldFailure(int fieldIndex, RuntimeException e) {
+            if (e instanceof RejectedRecordException || options.getRejectedRecordHandler() == null) {
+                return e;
+            }
+            return new RejectedRecordException(fieldWriter(fieldIndex).path, reason(e), e);
+        }
+
+        private void writeMissingField(int fieldIndex) {
+
+            Node field = fields[fieldIndex];
+
+            // the field is missing in the payload, if specified
+            // we write the default value instead (if there is any)
+            if (options.isWriteDefaultValue()) {
+                if (field.defaultValue != null) {
+                    fieldWriter(fieldIndex).countDefault();
+                    fieldWriter(fieldIndex).writeField(field.defaultValue);
+                } else if (field.required) {
+                    throw fieldFailure(fieldIndex, new RequiredFieldException(String.format("Field %s missing/null and"
+                        + " writeDefaultValue enabled", field.name)));
+                }
+            } else if (field.required) {
+                throw fieldFailure(fieldIndex, new RequiredFieldException(String.format("Field %s missing/null"
+                        + " but defined as non-nullable",
+                    field.name)));
             }
         }
 
     }
 
     class BinaryWriter extends FieldWriter {
+        private final Base64Buffer base64Buffer = new Base64Buffer();
+
         @Override
         final void writeRawValue(Object value) {
 
                 JsonNode node = (JsonNode) value;
-                byte[] data;
                 if (node.isTextual()) {
-                    data = Base64.getDecoder().decode(node.asText().getBytes(StandardCharsets.UTF_8));
-                    recordConsumer.addBinary(Binary.fromReusedByteArray(data));
+                    addBinary(base64Buffer.decode(node.textValue()));
                 } else {
-                    LOG.error("{} : {} type not expected", BinaryWriter.class.getCanonicalName(), value.getClass().getName());
+                    typeMismatch(value);
                 }
         }
 
+        @Override
+        final void writeRawValue(JsonParser parser) throws IOException {
+            if (parser.currentToken() == JsonToken.VALUE_STRING) {
+                addBinary(base64Buffer.decode(parser.getTextCharacters(), parser.getTextOffset(),
+                        parser.getTextLength()));
+            } else {
+                unexpectedToken(parser);
+            }
+        }
+
     }
 
     class StringWriter extends FieldWriter {
@@ -415,45 +807,241 @@ public class JsonWriteSupport<T extends JsonNode> extends WriteSupport<T> {
                 JsonNode node = (JsonNode) value;
 
                 if (node.isTextual()) {
-                    Binary binaryString = Binary.fromString(node.asText());
-                    recordConsumer.addBinary(binaryString);
+                    addBinary(utf8Buffer.encode(node.textValue()));
                 } else {
-                    LOG.error("{} : {} type not expected", StringWriter.class.getCanonicalName(), value.getClass().getName());
+                    typeMismatch(value);
                 }
             } else {
                 String strValue = (String) value;
-                recordConsumer.addBinary(Binary.fromString(strValue));
+                addBinary(utf8Buffer.encode(strValue));
+            }
+
+        }
+
+        @Override
+        final void writeRawValue(JsonParser parser) throws IOException {
+            if (parser.currentToken() == JsonToken.VALUE_STRING) {
+                // encodes from the parser's own character buffer, no String is created
+                addBinary(utf8Buffer.encode(parser.getTextCharacters(), parser.getTextOffset(),
+                        parser.getTextLength()));
+            } else {
+                unexpectedToken(parser);
+            }
+        }
+    }
+
+    class DecimalWriter extends FieldWriter {
+        private final PrimitiveTypeName primitiveType;
+        private final int precision;
+        private final int scale;
+        // null above 18 digits, which go through BigDecimal
+        private final DecimalParser decimalParser;
+        // FIXED_LEN_BYTE_ARRAY only
+        private final byte[] fixed;
+
+        DecimalWriter(DecimalLogicalTypeAnnotation decimal) {
+            PrimitiveType type = JsonSchemaConverter.decimalPrimitiveType(decimal);
+            this.primitiveType = type.getPrimitiveTypeName();
+            this.precision = decimal.getPrecision();
+            this.scale = decimal.getScale();
+            boolean fitsLong = primitiveType != PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY;
+            this.decimalParser = fitsLong ? new DecimalParser(precision, scale) : null;
+            this.fixed = fitsLong ? null : new byte[type.getTypeLength()];
+        }
+
+        @Override
+        void writeRawValue(Object value) {
+            JsonNode node = (JsonNode) value;
+
+            if (decimalParser == null && (node.isNumber() || node.isTextual())) {
+                addFixed(node.isNumber() ? node.decimalValue() : new BigDecimal(node.textValue()));
+            } else if (node.isIntegralNumber() && node.canConvertToLong()) {
+                addUnscaled(decimalParser.unscaled(node.longValue()));
+            } else if (node.isBigDecimal() || node.isBigInteger()) {
+                addUnscaled(decimalParser.unscaled(node.decimalValue()));
+            } else if (node.isNumber()) {
+                // float and double values, by their shortest text form
+                addUnscaled(decimalParser.parseUnscaled(node.asText()));
+            } else if (node.isTextual()) {
+                addUnscaled(decimalParser.parseUnscaled(node.textValue()));
+            } else {
+                typeMismatch(value);
+            }
+        }
+
+        @Override
+        void writeRawValue(JsonParser parser) throws IOException {
+            JsonToken token = parser.currentToken();
+            if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT
+                    || token == JsonToken.VALUE_STRING) {
+                if (decimalParser == null) {
+                    addFixed(new BigDecimal(parser.getTextCharacters(), parser.getTextOffset(),
+                            parser.getTextLength()));
+                } else {
+                    // straight from the digits of the JSON text
+                    addUnscaled(decimalParser.parseUnscaled(parser.getTextCharacters(), parser.getTextOffset(),
+                            parser.getTextLength()));
+                }
+            } else {
+                unexpectedToken(parser);
+            }
+        }
+
+        private void addUnscaled(long unscaled) {
+            if (primitiveType == PrimitiveTypeName.INT32) {
+                addInteger((int) unscaled);
+            } else {
+                addLong(unscaled);
+            }
+        }
+
+        // big endian two's complement, sign extended to the length of the column
+        private void addFixed(BigDecimal value) {
+            BigDecimal scaled;
+            try {
+                scaled = value.setScale(scale, RoundingMode.UNNECESSARY);
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException(value + " has more than " + scale + " decimals");
+            }
+            if (scaled.precision() > precision) {
+                throw new IllegalArgumentException(value + " does not fit DECIMAL(" + precision + "," + scale + ")");
+            }
+            byte[] unscaled = scaled.unscaledValue().toByteArray();
+            int padding = fixed.length - unscaled.length;
+            Arrays.fill(fixed, 0, padding, (byte) (scaled.signum() < 0 ? -1 : 0));
+            System.arraycopy(unscaled, 0, fixed, padding, unscaled.length);
+            addBinary(Binary.fromReusedByteArray(fixed));
+        }
+    }
+
+    class EnumWriter extends FieldWriter {
+        private final Node field;
+
+        EnumWriter(Node field) {
+            this.field = field;
+        }
+
+        @Override
+        void writeRawValue(Object value) {
+            JsonNode node = (JsonNode) value;
+
+            if (node.isTextual()) {
+                int symbol = field.fieldIndexes.get(node.textValue());
+                if (symbol < 0) {
+                    throw notAllowed(node.textValue());
+                }
+                addBinary(field.encodedSymbols[symbol]);
+            } else {
+                typeMismatch(value);
+            }
+        }
+
+        @Override
+        void writeRawValue(JsonParser parser) throws IOException {
+            if (parser.currentToken() == JsonToken.VALUE_STRING) {
+                int symbol = field.fieldIndexes.get(parser.getTextCharacters(), parser.getTextOffset(),
+                        parser.getTextLength());
+                if (symbol < 0) {
+                    throw notAllowed(parser.getText());
+                }
+                addBinary(field.encodedSymbols[symbol]);
+            } else {
+                unexpectedToken(parser);
             }
+        }
 
+        private IllegalArgumentException notAllowed(String value) {
+            return new IllegalArgumentException("Value " + value + " is not one of " + Arrays.toString(field.symbols));
+        }
+    }
+
+    class UuidWriter extends FieldWriter {
+        private final UuidBuffer uuidBuffer = new UuidBuffer();
+
+        @Override
+        void writeRawValue(Object value) {
+            JsonNode node = (JsonNode) value;
+
+            if (node.isTextual()) {
+                addBinary(uuidBuffer.parse(node.textValue()));
+            } else {
+                typeMismatch(value);
+            }
+        }
+
+        @Override
+        void writeRawValue(JsonParser parser) throws IOException {
+            if (parser.currentToken() == JsonToken.VALUE_STRING) {
+                addBinary(uuidBuffer.parse(parser.getTextCharacters(), parser.getTextOffset(),
+                        parser.getTextLength()));
+            } else {
+                unexpectedToken(parser);
+            }
         }
     }
 
     class DateWriter extends FieldWriter {
+        private final IsoDateTimeParser dateParser = new IsoDateTimeParser();
+
         @Override
         void writeRawValue(Object value) {
             JsonNode node = (JsonNode) value;
 
             if (node.isTextual()) {
                 // https://github.com/apache/parquet-format/blob/master/LogicalTypes.md#date
-                LocalDate ts = LocalDate.parse(node.asText());
-                long noOfDaysBetween = ChronoUnit.DAYS.between(LocalDate.of(1970, Month.JANUARY, 1), ts);
-                recordConsumer.addInteger((int) noOfDaysBetween);
+                addInteger(dateParser.parseEpochDay(node.textValue()));
+            } else {
+                typeMismatch(value);
+            }
+        }
+
+        @Override
+        void writeRawValue(JsonParser parser) throws IOException {
+            if (parser.currentToken() == JsonToken.VALUE_STRING) {
+                addInteger(dateParser.parseEpochDay(parser.getTextCharacters(),
+                        parser.getTextOffset(), parser.getTextLength()));
             } else {
-                LOG.error("{} : {} type not expected", DateWriter.class.getCanonicalName(), value.getClass().getName());
+                unexpectedToken(parser);
             }
         }
     }
 
+    /**
+     * Writes ISO text in the unit of the column, and integers as they are: they are epoch values already in
+     * that unit.
+     */
     class DateTimeWriter extends FieldWriter {
+        private final IsoDateTimeParser dateTimeParser = new IsoDateTimeParser();
+        private final TimeUnit unit;
+        private final boolean adjustedToUTC;
+
+        DateTimeWriter(TimestampLogicalTypeAnnotation timestamp) {
+            this.unit = timestamp.getUnit();
+            this.adjustedToUTC = timestamp.isAdjustedToUTC();
+        }
+
         @Override
         void writeRawValue(Object value) {
             JsonNode node = (JsonNode) value;
 
             if (node.isTextual()) {
-                OffsetDateTime ts = OffsetDateTime.parse(node.asText());
-                recordConsumer.addLong(ts.toInstant().toEpochMilli());
+                addLong(dateTimeParser.parseEpoch(node.textValue(), unit, adjustedToUTC));
+            } else if (node.isIntegralNumber() && node.canConvertToLong()) {
+                addLong(node.longValue());
             } else {
-                LOG.error("{} : {} type not expected", DateTimeWriter.class.getCanonicalName(), value.getClass().getName());
+                typeMismatch(value);
+            }
+        }
+
+        @Override
+        void writeRawValue(JsonParser parser) throws IOException {
+            if (parser.currentToken() == JsonToken.VALUE_STRING) {
+                addLong(dateTimeParser.parseEpoch(parser.getTextCharacters(),
+                        parser.getTextOffset(), parser.getTextLength(), unit, adjustedToUTC));
+            } else if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                addLong(parser.getLongValue());
+            } else {
+                unexpectedToken(parser);
             }
         }
     }
@@ -464,9 +1052,18 @@ public class JsonWriteSupport<T extends JsonNode> extends WriteSupport<T> {
             JsonNode node = (JsonNode) value;
 
             if (node.isInt()) {
-                recordConsumer.addInteger(node.asInt());
+                addInteger(node.asInt());
             } else {
-                LOG.error("{} : {} type not expected", IntWriter.class.getCanonicalName(), value.getClass().getName());
+                typeMismatch(value);
+            }
+        }
+
+        @Override
+        void writeRawValue(JsonParser parser) throws IOException {
+            if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() == NumberType.INT) {
+                addInteger(parser.getIntValue());
+            } else {
+                unexpectedToken(parser);
             }
         }
     }
@@ -477,9 +1074,18 @@ public class JsonWriteSupport<T extends JsonNode> extends WriteSupport<T> {
             JsonNode node = (JsonNode) value;
 
             if (node.isNumber()) {
-                recordConsumer.addLong(node.asLong());
+                addLong(node.asLong());
+            } else {
+                typeMismatch(value);
+            }
+        }
+
+        @Override
+        void writeRawValue(JsonParser parser) throws IOException {
+            if (parser.currentToken().isNumeric()) {
+                addLong(parser.getValueAsLong());
             } else {
-                LOG.error("{} : {} type not expected", LongWriter.class.getCanonicalName(), value.getClass().getName());
+                unexpectedToken(parser);
             }
         }
     }
@@ -490,19 +1096,37 @@ public class JsonWriteSupport<T extends JsonNode> extends WriteSupport<T> {
             JsonNode node = (JsonNode) value;
 
             if (node.isBoolean()) {
-                recordConsumer.addBoolean(node.asBoolean());
+                addBoolean(node.asBoolean());
             } else {
-                LOG.error("{} : {} type not expected", BooleanWriter.class.getCanonicalName(), value.getClass().getName());
+                typeMismatch(value);
             }
 
         }
+
+        @Override
+        void writeRawValue(JsonParser parser) throws IOException {
+            if (parser.currentToken().isBoolean()) {
+                addBoolean(parser.getBooleanValue());
+            } else {
+                unexpectedToken(parser);
+            }
+        }
     }
 
     class FloatWriter extends FieldWriter {
         @Override
         final void writeRawValue(Object value) {
             JsonNode node = (JsonNode) value;
-            recordConsumer.addFloat((float) node.asDouble());
+            addFloat((float) node.asDouble());
+        }
+
+        @Override
+        final void writeRawValue(JsonParser parser) throws IOException {
+            if (parser.currentToken().isNumeric()) {
+                addFloat((float) parser.getDoubleValue());
+            } else {
+                unexpectedToken(parser);
+            }
         }
     }
 
@@ -510,15 +1134,31 @@ public class JsonWriteSupport<T extends JsonNode> extends WriteSupport<T> {
         @Override
         final void writeRawValue(Object value) {
             JsonNode node = (JsonNode) value;
-            recordConsumer.addDouble(node.asDouble());
+            addDouble(node.asDouble());
+        }
+
+        @Override
+        final void writeRawValue(JsonParser parser) throws IOException {
+            if (parser.currentToken().isNumeric()) {
+                addDouble(parser.getDoubleValue());
+            } else {
+                unexpectedToken(parser);
+            }
         }
     }
 
     class ArrayWriter extends FieldWriter {
         final FieldWriter fieldWriter;
+        // a null element can only be written, as a group without the element, when the element is optional
+        final boolean requiredElement;
 
-        ArrayWriter(FieldWriter fieldWriter) {
+        ArrayWriter(FieldWriter fieldWriter, boolean requiredElement) {
             this.fieldWriter = fieldWriter;
+            this.requiredElement = requiredElement;
+        }
+
+        private RequiredFieldException nullElement() {
+            return new RequiredFieldException(String.format("Element of %s null but defined as non-nullable", path));
         }
 
         @Override
@@ -529,7 +1169,10 @@ public class JsonWriteSupport<T extends JsonNode> extends WriteSupport<T> {
         @Override
         final void writeField(Object value) {
 
-            if (value instanceof NullNode || value == null) {return;}
+            if (value instanceof NullNode || value == null) {
+                countNull();
+                return;
+            }
 
             ArrayNode node = (ArrayNode) value;
 
@@ -537,18 +1180,25 @@ public class JsonWriteSupport<T extends JsonNode> extends WriteSupport<T> {
                 return;
             }
 
+            countValue();
             recordConsumer.startField(fieldName, index);
             recordConsumer.startGroup();
 
             recordConsumer.startField("list", 0); // This is the wrapper group for the array field
             for (Iterator<JsonNode> it = node.elements(); it.hasNext(); ) {
-                Object listEntry = it.next();
+                JsonNode listEntry = it.next();
+                if (listEntry.isNull() && requiredElement) {
+                    throw nullElement();
+                }
                 recordConsumer.startGroup();
-                recordConsumer.startField("element", 0); // This is the mandatory inner field
+                // a null element is written as an empty repeated group
+                if (!listEntry.isNull()) {
+                    recordConsumer.startField("element", 0); // This is the mandatory inner field
 
-                fieldWriter.writeRawValue(listEntry);
+                    fieldWriter.writeRawValue(listEntry);
 
-                recordConsumer.endField("element", 0);
+                    recordConsumer.endField("element", 0);
+                }
                 recordConsumer.endGroup();
             }
             recordConsumer.endField("list", 0);
@@ -556,6 +1206,55 @@ public class JsonWriteSupport<T extends JsonNode> extends WriteSupport<T> {
             recordConsumer.endGroup();
             recordConsumer.endField(fieldName, index);
         }
+
+        @Override
+        final void writeRawValue(JsonParser parser) throws IOException {
+            throw new UnsupportedOperationException("Array has no raw value");
+        }
+
+        @Override
+        final void writeField(JsonParser parser) throws IOException {
+
+            if (parser.currentToken() == JsonToken.VALUE_NULL) {
+                countNull();
+                return;
+            }
+
+            if (parser.currentToken() != JsonToken.START_ARRAY) {
+                unexpectedToken(parser);
+                return;
+            }
+
+            // an empty list is not written at all, so we need to look at the first element first
+            if (parser.nextToken() == JsonToken.END_ARRAY) {
+                return;
+            }
+
+            countValue();
+            recordConsumer.startField(fieldName, index);
+            recordConsumer.startGroup();
+
+            recordConsumer.startField("list", 0); // This is the wrapper group for the array field
+            do {
+                if (parser.currentToken() == JsonToken.VALUE_NULL && requiredElement) {
+                    throw nullElement();
+                }
+                recordConsumer.startGroup();
+                // a null element is written as an empty repeated group
+                if (parser.currentToken() != JsonToken.VALUE_NULL) {
+                    recordConsumer.startField("element", 0); // This is the mandatory inner field
+
+                    fieldWriter.writeRawValue(parser);
+
+                    recordConsumer.endField("element", 0);
+                }
+                recordConsumer.endGroup();
+            } while (parser.nextToken() != JsonToken.END_ARRAY);
+            recordConsumer.endField("list", 0);
+
+            recordConsumer.endGroup();
+            recordConsumer.endField(fieldName, index);
+        }
     }
 
     class MapWriter extends FieldWriter {
@@ -577,6 +1276,7 @@ public class JsonWriteSupport<T extends JsonNode> extends WriteSupport<T> {
                 return;
             }
 
+            countValue();
             recordConsumer.startGroup();
 
             recordConsumer.startField("key_value", 0); // This is the wrapper group for the map field
@@ -589,9 +1289,6 @@ public class JsonWriteSupport<T extends JsonNode> extends WriteSupport<T> {
 
                 recordConsumer.startGroup();
 
-                //todo: remove me
-                LOG.debug("KEY {}", mapKey);
-
                 keyWriter.writeField(mapKey);
                 valueWriter.writeField(mapValue);
 
@@ -603,6 +1300,62 @@ public class JsonWriteSupport<T extends JsonNode> extends WriteSupport<T> {
 
             recordConsumer.endGroup();
         }
+
+        @Override
+        final void writeRawValue(JsonParser parser) throws IOException {
+            parser.nextToken();
+            writeEntries(parser);
+        }
+
+        @Override
+        final void writeField(JsonParser parser) throws IOException {
+
+            if (parser.currentToken() == JsonToken.VALUE_NULL) {
+                countNull();
+                return;
+            }
+
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                unexpectedToken(parser);
+                return;
+            }
+
+            // an empty map is not written at all, so we need to look at the first entry first
+            if (parser.nextToken() == JsonToken.END_OBJECT) {
+                return;
+            }
+
+            countValue();
+            recordConsumer.startField(fieldName, index);
+            writeEntries(parser);
+            recordConsumer.endField(fieldName, index);
+        }
+
+        // the parser is positioned on the first FIELD_NAME and is left on the END_OBJECT token
+        private void writeEntries(JsonParser parser) throws IOException {
+
+            recordConsumer.startGroup();
+
+            recordConsumer.startField("key_value", 0); // This is the wrapper group for the map field
+
+            while (parser.currentToken() == JsonToken.FIELD_NAME) {
+                String mapKey = parser.currentName();
+                parser.nextToken();
+
+                recordConsumer.startGroup();
+
+                keyWriter.writeField(mapKey);
+                valueWriter.writeField(parser);
+
+                recordConsumer.endGroup();
+
+                parser.nextToken();
+            }
+
+            recordConsumer.endField("key_value", 0);
+
+            recordConsumer.endGroup();
+        }
     }
 
 }
@@ -0,0 +1,72 @@
+package org.getyourguide.parquet.json;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+
+/**
+ * {@link RejectedRecordHandler} writing the rejected records to a newline delimited JSON file, one line per
+ * record: {@code {"field":"booking.price","reason":"...","record":{...}}}.
+ *
+ * <p>Thread safe, a single file can collect the rejections of several writers. Lines are buffered, the
+ * handler must be closed once the writers are.
+ */
+public class NdjsonRejectedRecordHandler implements RejectedRecordHandler, Closeable {
+
+    private static final JsonFactory FACTORY = new ObjectMapper().getFactory();
+
+    private final JsonGenerator generator;
+    private long rejected = 0;
+
+    public NdjsonRejectedRecordHandler(OutputStream out) throws IOException {
+        this.generator = FACTORY.createGenerator(out, JsonEncoding.UTF8);
+        this.generator.setRootValueSeparator(null);
+    }
+
+    /**
+     * Creates or overwrites the given file.
+     */
+    public NdjsonRejectedRecordHandler(Path path, Configuration conf) throws IOException {
+        this(path.getFileSystem(conf).create(path, true));
+    }
+
+    @Override
+    public synchronized void reject(JsonNode record, String fieldPath, String reason) {
+        try {
+            generator.writeStartObject();
+            generator.writeStringField("field", fieldPath);
+            generator.writeStringField("reason", reason);
+            generator.writeFieldName("record");
+            if (record == null) {
+                generator.writeNull();
+            } else {
+                generator.writeTree(record);
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            rejected++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write rejected record", e);
+        }
+    }
+
+    /**
+     * Number of records written so far.
+     */
+    public synchronized long getRejected() {
+        return rejected;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        generator.close();
+    }
+}
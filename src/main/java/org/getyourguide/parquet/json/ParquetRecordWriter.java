@@ -0,0 +1,47 @@
+package org.getyourguide.parquet.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+import org.apache.parquet.hadoop.ParquetWriter;
+
+/**
+ * {@link JsonRecordWriter} writing to a single {@link ParquetWriter}.
+ */
+final class ParquetRecordWriter implements JsonRecordWriter {
+
+    private final ParquetWriter<JsonNode> writer;
+    // the write support of the writer, to reject records before they reach the writer
+    private final JsonWriteSupport<JsonNode> writeSupport;
+
+    ParquetRecordWriter(ParquetWriter<JsonNode> writer, JsonWriteSupport<JsonNode> writeSupport) {
+        this.writer = writer;
+        this.writeSupport = writeSupport;
+    }
+
+    @Override
+    public void write(JsonNode record) throws IOException {
+        writeSupport.prepare(record);
+        writer.write(record);
+    }
+
+    /**
+     * Writes a record already converted by {@link JsonWriteSupport#convert}, replaying its calls between two
+     * marks of the buffer.
+     */
+    void writeConverted(JsonNode record, RecordBuffer buffer, int from, int to) throws IOException {
+        writeSupport.prepareConverted(record, buffer, from, to);
+        writer.write(record);
+    }
+
+    /**
+     * Size of the file so far, including the buffered row group.
+     */
+    long getDataSize() {
+        return writer.getDataSize();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
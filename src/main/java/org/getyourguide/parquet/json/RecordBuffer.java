@@ -0,0 +1,208 @@
+package org.getyourguide.parquet.json;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+
+/**
+ * {@link RecordConsumer} keeping the calls of a record until it is known to be valid, then replaying them
+ * on the consumer of the parquet writer.
+ *
+ * <p>The column writers of parquet cannot take back values, so a record failing half way would leave the
+ * columns of the current row group out of step. Buffering lets a failed record be dropped without any
+ * trace. Calls are kept in flat arrays reused from one record to the next, and binaries are copied into a
+ * single byte array since the writers reuse their buffers.
+ *
+ * <p>A buffer can also hold a sequence of records, each replayed on its own from its {@link #mark()}, so that
+ * records converted on one thread are encoded on another.
+ */
+final class RecordBuffer extends RecordConsumer {
+
+    private static final byte START_MESSAGE = 0;
+    private static final byte END_MESSAGE = 1;
+    private static final byte START_FIELD = 2;
+    private static final byte END_FIELD = 3;
+    private static final byte START_GROUP = 4;
+    private static final byte END_GROUP = 5;
+    private static final byte INTEGER = 6;
+    private static final byte LONG = 7;
+    private static final byte BOOLEAN = 8;
+    private static final byte BINARY = 9;
+    private static final byte FLOAT = 10;
+    private static final byte DOUBLE = 11;
+
+    private byte[] operations = new byte[256];
+    // the value of each operation: primitive bits, field index, or offset and length of a binary
+    private long[] values = new long[256];
+    private String[] fieldNames = new String[256];
+    private byte[] binaries = new byte[4096];
+    private int size = 0;
+    private int binariesLength = 0;
+
+    /**
+     * Drops the buffered calls.
+     */
+    void reset() {
+        size = 0;
+        binariesLength = 0;
+    }
+
+    /**
+     * Position of the next call, where the next record starts.
+     */
+    int mark() {
+        return size;
+    }
+
+    /**
+     * Drops the calls buffered since the mark, e.g. those of a record that failed half way.
+     */
+    void rollback(int mark) {
+        for (int i = mark; i < size; i++) {
+            if (operations[i] == BINARY) {
+                binariesLength = (int) (values[i] >>> 32);
+                break;
+            }
+        }
+        size = mark;
+    }
+
+    /**
+     * Replays the buffered calls on the consumer, then drops them.
+     */
+    void replay(RecordConsumer consumer) {
+        replay(consumer, 0, size);
+        reset();
+    }
+
+    /**
+     * Replays the calls between two marks on the consumer, keeping them.
+     */
+    void replay(RecordConsumer consumer, int from, int to) {
+        for (int i = from; i < to; i++) {
+            long value = values[i];
+            switch (operations[i]) {
+                case START_MESSAGE:
+                    consumer.startMessage();
+                    break;
+                case END_MESSAGE:
+                    consumer.endMessage();
+                    break;
+                case START_FIELD:
+                    consumer.startField(fieldNames[i], (int) value);
+                    break;
+                case END_FIELD:
+                    consumer.endField(fieldNames[i], (int) value);
+                    break;
+                case START_GROUP:
+                    consumer.startGroup();
+                    break;
+                case END_GROUP:
+                    consumer.endGroup();
+                    break;
+                case INTEGER:
+                    consumer.addInteger((int) value);
+                    break;
+                case LONG:
+                    consumer.addLong(value);
+                    break;
+                case BOOLEAN:
+                    consumer.addBoolean(value != 0);
+                    break;
+                case BINARY:
+                    consumer.addBinary(Binary.fromReusedByteArray(binaries, (int) (value >>> 32), (int) value));
+                    break;
+                case FLOAT:
+                    consumer.addFloat(Float.intBitsToFloat((int) value));
+                    break;
+                default:
+                    consumer.addDouble(Double.longBitsToDouble(value));
+                    break;
+            }
+        }
+    }
+
+    private void add(byte operation, long value) {
+        if (size == operations.length) {
+            operations = Arrays.copyOf(operations, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+            fieldNames = Arrays.copyOf(fieldNames, size * 2);
+        }
+        operations[size] = operation;
+        values[size] = value;
+        size++;
+    }
+
+    private void addField(byte operation, String field, int index) {
+        add(operation, index);
+        fieldNames[size - 1] = field;
+    }
+
+    @Override
+    public void startMessage() {
+        add(START_MESSAGE, 0);
+    }
+
+    @Override
+    public void endMessage() {
+        add(END_MESSAGE, 0);
+    }
+
+    @Override
+    public void startField(String field, int index) {
+        addField(START_FIELD, field, index);
+    }
+
+    @Override
+    public void endField(String field, int index) {
+        addField(END_FIELD, field, index);
+    }
+
+    @Override
+    public void startGroup() {
+        add(START_GROUP, 0);
+    }
+
+    @Override
+    public void endGroup() {
+        add(END_GROUP, 0);
+    }
+
+    @Override
+    public void addInteger(int value) {
+        add(INTEGER, value);
+    }
+
+    @Override
+    public void addLong(long value) {
+        add(LONG, value);
+    }
+
+    @Override
+    public void addBoolean(boolean value) {
+        add(BOOLEAN, value ? 1 : 0);
+    }
+
+    @Override
+    public void addBinary(Binary value) {
+        int length = value.length();
+        if (binariesLength + length > binaries.length) {
+            binaries = Arrays.copyOf(binaries, Math.max(binaries.length * 2, binariesLength + length));
+        }
+        ByteBuffer buffer = value.toByteBuffer();
+        buffer.get(binaries, binariesLength, length);
+        add(BINARY, ((long) binariesLength << 32) | length);
+        binariesLength += length;
+    }
+
+    @Override
+    public void addFloat(float value) {
+        add(FLOAT, Float.floatToRawIntBits(value));
+    }
+
+    @Override
+    public void addDouble(double value) {
+        add(DOUBLE, Double.doubleToRawLongBits(value));
+    }
+}
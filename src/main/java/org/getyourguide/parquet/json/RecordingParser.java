@@ -0,0 +1,92 @@
+package org.getyourguide.parquet.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * {@link JsonParser} copying the tokens of a record as they are read, so that a record written from a token
+ * stream can still be handed to the {@link RejectedRecordHandler} once rejected.
+ *
+ * <p>The tokens are written back as JSON into a buffer kept from one record to the next: recording a record
+ * costs its serialization but no allocation once the buffer fits the largest record, and only a rejected
+ * record is read back into a tree.
+ *
+ * <p>Only {@link #nextToken()} moves the parser: {@link #skipChildren()} goes through it instead of skipping
+ * in the underlying parser, so that skipped values are copied too.
+ */
+final class RecordingParser extends JsonParserDelegate {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private JsonGenerator generator = null;
+
+    RecordingParser() {
+        super(null);
+    }
+
+    /**
+     * Starts recording a record at the current token of the parser, the START_OBJECT of the record.
+     */
+    RecordingParser record(JsonParser parser) throws IOException {
+        delegate = parser;
+        if (generator == null) {
+            generator = MAPPER.getFactory().createGenerator(bytes);
+        } else {
+            generator.flush();
+        }
+        bytes.reset();
+        generator.copyCurrentEvent(parser);
+        return this;
+    }
+
+    /**
+     * The record read so far, null unless it was read up to its END_OBJECT.
+     */
+    JsonNode toTree() {
+        try {
+            generator.flush();
+            return MAPPER.readTree(bytes.toByteArray());
+        } catch (IOException | RuntimeException e) {
+            return null;
+        } finally {
+            // left within the record, the next one starts over with a new generator
+            generator = null;
+        }
+    }
+
+    @Override
+    public JsonToken nextToken() throws IOException {
+        JsonToken token = delegate.nextToken();
+        if (token != null) {
+            generator.copyCurrentEvent(delegate);
+        }
+        return token;
+    }
+
+    @Override
+    public JsonParser skipChildren() throws IOException {
+        JsonToken token = currentToken();
+        if (token != JsonToken.START_OBJECT && token != JsonToken.START_ARRAY) {
+            return this;
+        }
+        int open = 1;
+        while (open > 0) {
+            token = nextToken();
+            if (token == null) {
+                return this;
+            } else if (token.isStructStart()) {
+                open++;
+            } else if (token.isStructEnd()) {
+                open--;
+            }
+        }
+        return this;
+    }
+}
@@ -0,0 +1,31 @@
+package org.getyourguide.parquet.json;
+
+import org.apache.parquet.io.InvalidRecordException;
+
+/**
+ * Thrown when a record is rejected, after it has been passed to the {@link RejectedRecordHandler}. Nothing
+ * of the record was written and the writer can be used for the next records.
+ */
+public class RejectedRecordException extends InvalidRecordException {
+
+    private final String fieldPath;
+    private final String reason;
+
+    RejectedRecordException(String fieldPath, String reason, Throwable cause) {
+        super(fieldPath == null ? "Rejected record: " + reason : "Rejected record, " + fieldPath + ": " + reason,
+                cause);
+        this.fieldPath = fieldPath;
+        this.reason = reason;
+    }
+
+    /**
+     * Column path of the field that couldn't be written, null when the failure isn't tied to a field.
+     */
+    public String getFieldPath() {
+        return fieldPath;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+}
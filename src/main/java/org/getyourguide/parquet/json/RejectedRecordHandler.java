@@ -0,0 +1,38 @@
+package org.getyourguide.parquet.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Receives the records the writers cannot write, e.g. to keep them in a dead letter file.
+ *
+ * <p>When a handler is set with {@link JsonWriteOptions.Builder#withRejectedRecordHandler}, a record is
+ * rejected as a whole as soon as one of its values cannot be written: nothing of it reaches the row group,
+ * the handler is called and the write throws a {@link RejectedRecordException}, after which the writer can
+ * keep on writing. Values of an unexpected JSON type reject the record instead of being skipped.
+ *
+ * <p>A plain {@link org.apache.parquet.hadoop.ParquetWriter} aborts on the first exception of its write
+ * support, so records must be written through {@link JsonParquetWriter.Builder#buildRecordWriter},
+ * {@link JsonStreamingParquetWriter.Builder#buildRecordWriter}, {@link JsonParquetParallelWriter} or
+ * {@link JsonNdjsonConverter}, which check each record before handing it to parquet.
+ *
+ * <p>Checking records first has a cost: each record is written into a buffer before being replayed to
+ * parquet, and a record written from a {@link com.fasterxml.jackson.core.JsonParser} also has its tokens
+ * copied as JSON, so that a rejected one can be handed over as a tree. Both buffers are reused from one
+ * record to the next.
+ *
+ * <p>Handlers are called on the writing thread; a handler shared by several writers must be thread safe.
+ *
+ * @see NdjsonRejectedRecordHandler
+ */
+@FunctionalInterface
+public interface RejectedRecordHandler {
+
+    /**
+     * @param record    the rejected record, null when it couldn't be read as a whole, e.g. a line that isn't
+     *                  valid JSON
+     * @param fieldPath column path of the field that couldn't be written, e.g. {@code booking.price}, null
+     *                  when the failure isn't tied to a field
+     * @param reason    why the record was rejected
+     */
+    void reject(JsonNode record, String fieldPath, String reason);
+}
@@ -0,0 +1,106 @@
+package org.getyourguide.parquet.json;
+
+import org.apache.parquet.io.api.Binary;
+
+/**
+ * Reusable buffer encoding characters to UTF-8 for {@link org.apache.parquet.io.api.RecordConsumer#addBinary}.
+ *
+ * <p>The returned {@link Binary} is backed by the reused byte array and is only valid until the next
+ * call. This is fine for parquet column writers, which copy the bytes when they need to keep them
+ * (dictionary entries, statistics).
+ */
+final class Utf8Buffer {
+
+    private static final int INITIAL_SIZE = 256;
+
+    private byte[] buffer = new byte[INITIAL_SIZE];
+
+    Binary encode(CharSequence value) {
+        int length = value.length();
+        ensureCapacity(length);
+
+        int position = 0;
+        int i = 0;
+
+        // ASCII fast path
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                break;
+            }
+            buffer[position++] = (byte) c;
+        }
+
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                position = putCodePoint(Character.toCodePoint(c, value.charAt(++i)), position);
+            } else {
+                position = putChar(c, position);
+            }
+        }
+
+        return Binary.fromReusedByteArray(buffer, 0, position);
+    }
+
+    Binary encode(char[] chars, int offset, int length) {
+        ensureCapacity(length);
+
+        int position = 0;
+        int i = offset;
+        int end = offset + length;
+
+        // ASCII fast path
+        for (; i < end; i++) {
+            char c = chars[i];
+            if (c >= 0x80) {
+                break;
+            }
+            buffer[position++] = (byte) c;
+        }
+
+        for (; i < end; i++) {
+            char c = chars[i];
+            if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(chars[i + 1])) {
+                position = putCodePoint(Character.toCodePoint(c, chars[++i]), position);
+            } else {
+                position = putChar(c, position);
+            }
+        }
+
+        return Binary.fromReusedByteArray(buffer, 0, position);
+    }
+
+    // a char encodes to at most 3 bytes, a surrogate pair (2 chars) to 4 bytes
+    private void ensureCapacity(int chars) {
+        int required = chars * 3;
+        if (required > buffer.length) {
+            buffer = new byte[Math.max(required, buffer.length * 2)];
+        }
+    }
+
+    private int putChar(char c, int position) {
+        if (c < 0x80) {
+            buffer[position++] = (byte) c;
+        } else if (c < 0x800) {
+            buffer[position++] = (byte) (0xC0 | (c >> 6));
+            buffer[position++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isSurrogate(c)) {
+            // unpaired surrogate, replaced like String.getBytes(UTF_8) does
+            buffer[position++] = (byte) '?';
+        } else {
+            buffer[position++] = (byte) (0xE0 | (c >> 12));
+            buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buffer[position++] = (byte) (0x80 | (c & 0x3F));
+        }
+        return position;
+    }
+
+    private int putCodePoint(int codePoint, int position) {
+        buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+        buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+        buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+        buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+        return position;
+    }
+}
@@ -0,0 +1,71 @@
+package org.getyourguide.parquet.json;
+
+import org.apache.parquet.io.api.Binary;
+
+/**
+ * Reusable buffer parsing the canonical text form of a UUID, {@code 8-4-4-4-12} hex digits, into the 16 big
+ * endian bytes of a parquet {@code UUID} column.
+ *
+ * <p>As with {@link Utf8Buffer}, the returned {@link Binary} is backed by the reused byte array and is only
+ * valid until the next call.
+ */
+final class UuidBuffer {
+
+    private static final int TEXT_LENGTH = 36;
+
+    private final byte[] buffer = new byte[JsonSchemaConverter.UUID_LENGTH];
+
+    /**
+     * @throws IllegalArgumentException if the text is not a UUID in canonical form
+     */
+    Binary parse(CharSequence text) {
+        if (text.length() != TEXT_LENGTH) {
+            throw invalid(text);
+        }
+        int position = 0;
+        for (int i = 0; i < TEXT_LENGTH; i += 2) {
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (text.charAt(i) != '-') {
+                    throw invalid(text);
+                }
+                i++;
+            }
+            int high = Character.digit(text.charAt(i), 16);
+            int low = Character.digit(text.charAt(i + 1), 16);
+            if (high < 0 || low < 0) {
+                throw invalid(text);
+            }
+            buffer[position++] = (byte) (high << 4 | low);
+        }
+        return Binary.fromReusedByteArray(buffer);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the characters are not a UUID in canonical form
+     */
+    Binary parse(char[] chars, int offset, int length) {
+        if (length != TEXT_LENGTH) {
+            throw invalid(new String(chars, offset, length));
+        }
+        int position = 0;
+        for (int i = 0; i < TEXT_LENGTH; i += 2) {
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (chars[offset + i] != '-') {
+                    throw invalid(new String(chars, offset, length));
+                }
+                i++;
+            }
+            int high = Character.digit(chars[offset + i], 16);
+            int low = Character.digit(chars[offset + i + 1], 16);
+            if (high < 0 || low < 0) {
+                throw invalid(new String(chars, offset, length));
+            }
+            buffer[position++] = (byte) (high << 4 | low);
+        }
+        return Binary.fromReusedByteArray(buffer);
+    }
+
+    private static IllegalArgumentException invalid(CharSequence text) {
+        return new IllegalArgumentException("Invalid UUID: " + text);
+    }
+}
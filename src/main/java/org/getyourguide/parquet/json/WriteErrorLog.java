@@ -0,0 +1,71 @@
+package org.getyourguide.parquet.json;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+
+/**
+ * Rate limited log of the write errors, so that a burst of bad data doesn't turn into a burst of log lines.
+ *
+ * <p>Errors are counted by field path and kind. The first error of each kind is logged with its details,
+ * the following ones are only counted and logged as a summary at most once per interval, and when the
+ * writer is closed. Each write support has its own, synchronized since the file closed last may be
+ * finalized in the background while the next one is written.
+ */
+final class WriteErrorLog {
+
+    static final long INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Logger log;
+    private final long intervalNanos;
+    // errors since the last summary, by "path: kind"
+    private final Map<String, long[]> counts = new LinkedHashMap<>();
+    private final Set<String> seen = new HashSet<>();
+    private long total = 0;
+    private long windowStart = System.nanoTime();
+
+    WriteErrorLog(Logger log, long intervalNanos) {
+        this.log = log;
+        this.intervalNanos = intervalNanos;
+    }
+
+    synchronized void report(String path, String kind, String detail) {
+        String key = (path == null ? "<record>" : path) + ": " + kind;
+        counts.computeIfAbsent(key, k -> new long[1])[0]++;
+        total++;
+
+        if (seen.add(key)) {
+            log.error("{} ({}), further errors of this kind are only counted", key, detail);
+        }
+
+        long now = System.nanoTime();
+        if (now - windowStart >= intervalNanos) {
+            flush(now);
+        }
+    }
+
+    /**
+     * Logs the summary of the errors counted since the last one, if any.
+     */
+    synchronized void flush() {
+        flush(System.nanoTime());
+    }
+
+    private void flush(long now) {
+        if (total > 0) {
+            StringBuilder summary = new StringBuilder();
+            for (Map.Entry<String, long[]> entry : counts.entrySet()) {
+                summary.append(summary.length() == 0 ? "" : ", ").append(entry.getKey()).append(" x")
+                        .append(entry.getValue()[0]);
+            }
+            log.warn("{} write errors in the last {} s: {}", total,
+                    TimeUnit.NANOSECONDS.toSeconds(now - windowStart), summary);
+            counts.clear();
+            total = 0;
+        }
+        windowStart = now;
+    }
+}
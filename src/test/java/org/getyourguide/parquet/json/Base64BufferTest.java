@@ -0,0 +1,52 @@
+package org.getyourguide.parquet.json;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Base64;
+import java.util.Random;
+import org.junit.Test;
+
+public class Base64BufferTest {
+
+    private static final String[] INVALID = {
+        "a", "abcde", "ab=", "a===", "====", "ab==c", "abc=d", "ab cd", "ab\ncd", "ab-_", "abcé"
+    };
+
+    @Test
+    public void testDecodeMatchesJdk() {
+        Base64Buffer buffer = new Base64Buffer();
+        Random random = new Random(42);
+        // larger values first, so that the reused buffer is bigger than the smaller ones
+        for (int length = 1000; length >= 0; length--) {
+            byte[] bytes = new byte[length];
+            random.nextBytes(bytes);
+            String padded = Base64.getEncoder().encodeToString(bytes);
+            String unpadded = Base64.getEncoder().withoutPadding().encodeToString(bytes);
+
+            assertArrayEquals(padded, bytes, buffer.decode(padded).getBytes());
+            assertArrayEquals(unpadded, bytes, buffer.decode(unpadded).getBytes());
+            char[] chars = ("\"" + padded + "\"").toCharArray();
+            assertArrayEquals(padded, bytes, buffer.decode(chars, 1, padded.length()).getBytes());
+        }
+    }
+
+    @Test
+    public void testInvalidInputIsRejectedLikeTheJdk() {
+        Base64Buffer buffer = new Base64Buffer();
+        for (String value : INVALID) {
+            try {
+                Base64.getDecoder().decode(value);
+                fail("JDK accepts " + value);
+            } catch (IllegalArgumentException expected) {
+                // the reference behaviour
+            }
+            try {
+                buffer.decode(value);
+                fail("Accepted " + value);
+            } catch (IllegalArgumentException expected) {
+                // as the JDK
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package org.getyourguide.parquet.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.column.Encoding;
+import org.apache.parquet.column.values.bloomfilter.BloomFilter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.io.api.Binary;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ColumnHintsTest extends JsonParquetTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testHintsByColumnPath() throws Exception {
+        Map<String, ColumnHints> hints = new JsonSchemaConverter().columnHints(getSchema("TestColumnHints"));
+
+        assertEquals(List.of("booking_id", "amount", "score", "comment", "tags.list.element", "user.country"),
+                List.copyOf(hints.keySet()));
+        ColumnHints bookingId = hints.get("booking_id");
+        assertTrue(bookingId.isBloomFilter());
+        assertEquals(1000, bookingId.getBloomFilterNdv());
+        assertEquals(0.01, bookingId.getBloomFilterFpp(), 0);
+        assertTrue(hints.get("tags.list.element").isBloomFilter());
+        assertEquals(-1, hints.get("tags.list.element").getBloomFilterNdv());
+    }
+
+    @Test
+    public void testBloomFiltersAreWritten() throws Exception {
+        JsonNode example = getExample("TestColumnHints");
+        Path path = new Path(folder.getRoot().toURI().resolve("hints.parquet"));
+        try (ParquetWriter<JsonNode> writer = JsonParquetWriter.Builder(path)
+                .withSchema(getSchema("TestColumnHints"))
+                .build()) {
+            writer.write(example);
+        }
+
+        Map<String, BloomFilter> filters = new HashMap<>();
+        try (ParquetFileReader reader = ParquetFileReader.open(HadoopInputFile.fromPath(path, new Configuration()))) {
+            for (ColumnChunkMetaData column : reader.getFooter().getBlocks().get(0).getColumns()) {
+                filters.put(column.getPath().toDotString(), reader.readBloomFilter(column));
+            }
+        }
+        assertNull(filters.get("amount"));
+        BloomFilter bookingId = filters.get("booking_id");
+        assertNotNull(bookingId);
+        assertTrue(bookingId.findHash(bookingId.hash(Binary.fromString("GYG-0001"))));
+        assertFalse(bookingId.findHash(bookingId.hash(Binary.fromString("GYG-0002"))));
+        assertNotNull(filters.get("tags.list.element"));
+        assertNotNull(filters.get("user.country"));
+    }
+
+    @Test
+    public void testEncodingsAndStatistics() throws Exception {
+        Path path = new Path(folder.getRoot().toURI().resolve("hints.parquet"));
+        try (ParquetWriter<JsonNode> writer = JsonParquetWriter.Builder(path)
+                .withSchema(getSchema("TestColumnHints"))
+                .withDictionaryEncoding(true)
+                .build()) {
+            ObjectNode record = getExample("TestColumnHints").deepCopy();
+            ((ObjectNode) record.get("user")).put("country", "A country with a rather long name");
+            // repeated values, for the dictionary to pay off
+            for (int i = 0; i < 100; i++) {
+                writer.write(record);
+            }
+        }
+
+        Map<String, ColumnChunkMetaData> columns = new HashMap<>();
+        try (ParquetFileReader reader = ParquetFileReader.open(HadoopInputFile.fromPath(path, new Configuration()))) {
+            for (ColumnChunkMetaData column : reader.getFooter().getBlocks().get(0).getColumns()) {
+                columns.put(column.getPath().toDotString(), column);
+            }
+        }
+        assertTrue(columns.get("booking_id").getEncodings().contains(Encoding.PLAIN_DICTIONARY));
+        assertFalse(columns.get("amount").getEncodings().contains(Encoding.PLAIN_DICTIONARY));
+        assertEquals(Set.of(Encoding.BYTE_STREAM_SPLIT), columns.get("score").getEncodings().stream()
+                .filter(encoding -> encoding != Encoding.RLE && encoding != Encoding.BIT_PACKED)
+                .collect(Collectors.toSet()));
+        assertFalse(columns.get("comment").getStatistics().hasNonNullValue());
+        assertTrue(columns.get("booking_id").getStatistics().hasNonNullValue());
+        // truncated for all columns, the hint is on comment
+        assertEquals(16, ((Binary) columns.get("user.country").getStatistics().genericGetMax()).length());
+    }
+
+    @Test
+    public void testHintsAreSavedWithThePlan() throws Exception {
+        JsonWritePlan plan = JsonWritePlan.of(getSchema("TestColumnHints"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        plan.writeTo(out);
+        JsonWritePlan loaded = JsonWritePlan.read(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(plan.getColumnHints().keySet(), loaded.getColumnHints().keySet());
+        assertEquals(plan.getColumnHints().get("booking_id").getExtensions(),
+                loaded.getColumnHints().get("booking_id").getExtensions());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidHint() {
+        ColumnHints.of("booking_id", Map.of(ColumnHints.BLOOM_FILTER, Map.of("fpp", 2)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDeltaEncodingIsNotPerColumn() {
+        ColumnHints.of("amount", Map.of(ColumnHints.ENCODING, "DELTA_BINARY_PACKED"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownHint() {
+        ColumnHints.of("booking_id", Map.of("x-parquet-bloom", true));
+    }
+}
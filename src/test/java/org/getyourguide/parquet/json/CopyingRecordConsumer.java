@@ -0,0 +1,77 @@
+package org.getyourguide.parquet.json;
+
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+
+/**
+ * Forwards to a (mocked) consumer, copying binaries first. The writers pass binaries backed by reused
+ * buffers, which are only valid for the duration of the addBinary call, like the parquet column writers
+ * expect; mocks on the other hand keep the arguments around for verification.
+ */
+class CopyingRecordConsumer extends RecordConsumer {
+    private final RecordConsumer delegate;
+
+    CopyingRecordConsumer(RecordConsumer delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void startMessage() {
+        delegate.startMessage();
+    }
+
+    @Override
+    public void endMessage() {
+        delegate.endMessage();
+    }
+
+    @Override
+    public void startField(String field, int index) {
+        delegate.startField(field, index);
+    }
+
+    @Override
+    public void endField(String field, int index) {
+        delegate.endField(field, index);
+    }
+
+    @Override
+    public void startGroup() {
+        delegate.startGroup();
+    }
+
+    @Override
+    public void endGroup() {
+        delegate.endGroup();
+    }
+
+    @Override
+    public void addInteger(int value) {
+        delegate.addInteger(value);
+    }
+
+    @Override
+    public void addLong(long value) {
+        delegate.addLong(value);
+    }
+
+    @Override
+    public void addBoolean(boolean value) {
+        delegate.addBoolean(value);
+    }
+
+    @Override
+    public void addBinary(Binary value) {
+        delegate.addBinary(value.copy());
+    }
+
+    @Override
+    public void addFloat(float value) {
+        delegate.addFloat(value);
+    }
+
+    @Override
+    public void addDouble(double value) {
+        delegate.addDouble(value);
+    }
+}
@@ -0,0 +1,69 @@
+package org.getyourguide.parquet.json;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import org.junit.Test;
+
+public class DecimalParserTest {
+
+    private final DecimalParser parser = new DecimalParser(10, 2);
+
+    @Test
+    public void testParseUnscaled() {
+        assertEquals(1234, parser.parseUnscaled("12.34"));
+        assertEquals(-1234, parser.parseUnscaled("-12.34"));
+        assertEquals(1200, parser.parseUnscaled("12"));
+        assertEquals(1230, parser.parseUnscaled("12.3"));
+        assertEquals(5, parser.parseUnscaled("0.05"));
+        assertEquals(0, parser.parseUnscaled("-0.00"));
+        assertEquals(1234, parser.parseUnscaled("12.3400000000000000000000"));
+        assertEquals(1234, parser.parseUnscaled("1.234E1"));
+        assertEquals(1234, parser.parseUnscaled("1234e-2"));
+        assertEquals(9999999999L, parser.parseUnscaled("99999999.99"));
+    }
+
+    @Test
+    public void testParseCharArray() {
+        char[] chars = "[12.34,5]".toCharArray();
+        assertEquals(1234, parser.parseUnscaled(chars, 1, 5));
+        assertEquals(500, parser.parseUnscaled(chars, 7, 1));
+    }
+
+    @Test
+    public void testUnscaledOfNumbers() {
+        assertEquals(4200, parser.unscaled(42));
+        assertEquals(-4200, parser.unscaled(-42));
+        assertEquals(1250, parser.unscaled(new BigDecimal("12.500")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooManyDecimals() {
+        parser.parseUnscaled("12.345");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDoubleArtifactsAreNotRounded() {
+        parser.parseUnscaled(Double.toString(0.1 + 0.2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPrecisionExceeded() {
+        parser.parseUnscaled("100000000");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLongExceeded() {
+        parser.unscaled(Long.MIN_VALUE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNotANumber() {
+        parser.parseUnscaled("12,34");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingExponent() {
+        parser.parseUnscaled("1e");
+    }
+}
@@ -0,0 +1,45 @@
+package org.getyourguide.parquet.json;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class FieldIndexTest {
+
+    @Test
+    public void testWideSchema() {
+        String[] names = new String[1500];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = "field_" + i;
+        }
+
+        FieldIndex index = FieldIndex.of(names);
+
+        for (int i = 0; i < names.length; i++) {
+            // a different instance than the one of the schema
+            assertEquals(i, index.get(new String(names[i].toCharArray())));
+        }
+        assertEquals(-1, index.get("field_1500"));
+        assertEquals(-1, index.get(""));
+    }
+
+    @Test
+    public void testCharArrayLookup() {
+        FieldIndex index = FieldIndex.of(new String[] {"CONFIRMED", "PENDING", "CANCELLED"});
+        char[] chars = "__PENDING__CONFIRMEDX".toCharArray();
+
+        assertEquals(1, index.get(chars, 2, 7));
+        assertEquals(0, index.get(chars, 11, 9));
+        assertEquals(-1, index.get(chars, 11, 10));
+        assertEquals(-1, index.get(chars, 0, 0));
+    }
+
+    @Test
+    public void testSmallAndEmpty() {
+        FieldIndex index = FieldIndex.of(new String[] {"a"});
+        assertEquals(0, index.get("a"));
+        assertEquals(-1, index.get("b"));
+
+        assertEquals(-1, FieldIndex.of(new String[0]).get("a"));
+    }
+}
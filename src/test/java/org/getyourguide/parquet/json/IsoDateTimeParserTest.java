@@ -0,0 +1,92 @@
+package org.getyourguide.parquet.json;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import org.apache.parquet.schema.LogicalTypeAnnotation.TimeUnit;
+import org.junit.Test;
+
+public class IsoDateTimeParserTest {
+
+    private static final String[] DATES = {
+        "1970-01-01", "2020-06-20", "2020-02-29", "2000-02-29", "1969-12-31", "1900-03-01", "0001-01-01",
+        "9999-12-31", "+10000-01-01", "2020-06-20", "2020-06-20"
+    };
+
+    private static final String[] DATE_TIMES = {
+        "2020-06-20T10:10:10.000Z", "2020-06-20T10:10:10Z", "2020-06-20t10:10:10.5z",
+        "2020-06-20T10:10:10.123456789+02:00", "2020-06-20T10:10:10.999-05:30", "1969-12-31T23:59:59.999Z",
+        "1901-01-01T00:00:00+18:00", "2020-06-20T10:10+01:00", "2020-06-20T10:10:10+01:00:30"
+    };
+
+    @Test
+    public void testEpochDays() {
+        IsoDateTimeParser parser = new IsoDateTimeParser();
+        for (String date : DATES) {
+            assertEquals(date, LocalDate.parse(date).toEpochDay(), parser.parseEpochDay(date));
+            char[] chars = (" " + date + " ").toCharArray();
+            assertEquals(date, LocalDate.parse(date).toEpochDay(), parser.parseEpochDay(chars, 1, date.length()));
+        }
+    }
+
+    @Test
+    public void testEpochMillis() {
+        IsoDateTimeParser parser = new IsoDateTimeParser();
+        for (String dateTime : DATE_TIMES) {
+            long expected = OffsetDateTime.parse(dateTime).toInstant().toEpochMilli();
+            assertEquals(dateTime, expected, parser.parseEpochMillis(dateTime));
+            assertEquals(dateTime, expected, parser.parseEpochMillis(dateTime.toCharArray(), 0, dateTime.length()));
+        }
+    }
+
+    @Test
+    public void testEpochMicrosAndNanos() {
+        IsoDateTimeParser parser = new IsoDateTimeParser();
+        for (String dateTime : DATE_TIMES) {
+            Instant instant = OffsetDateTime.parse(dateTime).toInstant();
+            long nanos = instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+            assertEquals(dateTime, Math.floorDiv(nanos, 1000L), parser.parseEpoch(dateTime, TimeUnit.MICROS, true));
+            assertEquals(dateTime, nanos, parser.parseEpoch(dateTime.toCharArray(), 0, dateTime.length(),
+                    TimeUnit.NANOS, true));
+        }
+    }
+
+    @Test
+    public void testLocalDateTime() {
+        IsoDateTimeParser parser = new IsoDateTimeParser();
+        long expected = LocalDateTime.parse("2020-06-20T10:10:10.5").toInstant(ZoneOffset.UTC).toEpochMilli();
+        for (String dateTime : new String[]{"2020-06-20T10:10:10.5", "2020-06-20T10:10:10.500+02:00",
+                "2020-06-20T10:10:10.5-05:30", "2020-06-20T10:10:10.5Z", "2020-06-20T10:10:10.5+02:00:30"}) {
+            assertEquals(dateTime, expected, parser.parseEpoch(dateTime, TimeUnit.MILLIS, false));
+        }
+        assertEquals(expected - 500, parser.parseEpoch("2020-06-20T10:10:10", TimeUnit.MILLIS, false));
+    }
+
+    @Test(expected = DateTimeParseException.class)
+    public void testLocalDateTimeNeedsAnOffsetWhenAdjustedToUTC() {
+        new IsoDateTimeParser().parseEpoch("2020-06-20T10:10:10", TimeUnit.MILLIS, true);
+    }
+
+    @Test
+    public void testEpochDayMatchesJavaTime() {
+        for (long day = LocalDate.of(1600, 1, 1).toEpochDay(); day < LocalDate.of(2400, 1, 1).toEpochDay(); day++) {
+            LocalDate date = LocalDate.ofEpochDay(day);
+            assertEquals(day, IsoDateTimeParser.epochDay(date.getYear(), date.getMonthValue(), date.getDayOfMonth()));
+        }
+    }
+
+    @Test(expected = DateTimeParseException.class)
+    public void testInvalidDate() {
+        new IsoDateTimeParser().parseEpochDay("2021-02-29");
+    }
+
+    @Test(expected = DateTimeParseException.class)
+    public void testInvalidDateTime() {
+        new IsoDateTimeParser().parseEpochMillis("2020-06-20T24:10:10Z");
+    }
+}
@@ -0,0 +1,282 @@
+package org.getyourguide.parquet.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.getyourguide.parquet.json.JsonAsyncParquetWriter.OverflowPolicy;
+import org.getyourguide.parquet.json.JsonParquetParallelWriter.PartFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JsonAsyncParquetWriterTest extends JsonParquetTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ObjectNode record(int i) throws Exception {
+        ObjectNode record = getExample("TestPrimitives").deepCopy();
+        record.put("key_int32", i);
+        return record;
+    }
+
+    private List<Integer> readInts(Path path) throws Exception {
+        List<Integer> values = new ArrayList<>();
+        try (ParquetReader<JsonNode> reader = JsonParquetReader.Builder(path).build()) {
+            for (JsonNode record = reader.read(); record != null; record = reader.read()) {
+                values.add(record.get("key_int32").intValue());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Record writer holding the first record until released.
+     */
+    private static final class BlockedWriter implements JsonRecordWriter {
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+        private final List<JsonNode> written = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void write(JsonNode record) {
+            started.countDown();
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            written.add(record);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    @Test
+    public void testWritesInOrder() throws Exception {
+        Path path = new Path(folder.getRoot().toURI().resolve("async.parquet"));
+        JsonAsyncParquetWriter writer = JsonAsyncParquetWriter.Builder(JsonParquetWriter.Builder(path)
+                        .withSchema(getSchema("TestPrimitives"))
+                        .buildRecordWriter())
+                .withQueueSize(8)
+                .build();
+
+        List<CompletableFuture<Void>> acks = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            acks.add(writer.write(record(i)));
+        }
+        List<JsonNode> batch = new ArrayList<>();
+        for (int i = 50; i < 60; i++) {
+            batch.add(record(i));
+        }
+        CompletableFuture<JsonBatchResult> batchAck = writer.writeAll(batch);
+        writer.flush().get();
+
+        for (CompletableFuture<Void> ack : acks) {
+            assertTrue(ack.isDone());
+        }
+        assertEquals(10, batchAck.get().getWritten());
+        writer.close();
+
+        List<Integer> values = readInts(path);
+        assertEquals(60, values.size());
+        for (int i = 0; i < 60; i++) {
+            assertEquals(i, values.get(i).intValue());
+        }
+    }
+
+    @Test
+    public void testFlushClosesRollingFiles() throws Exception {
+        List<PartFile> completed = Collections.synchronizedList(new ArrayList<>());
+        JsonRollingParquetWriter rolling = JsonRollingParquetWriter.Builder(new Path(folder.getRoot().toURI()))
+                .withSchema(getSchema("TestPrimitives"))
+                .withListener(completed::add)
+                .build();
+        JsonAsyncParquetWriter writer = JsonAsyncParquetWriter.Builder(rolling).build();
+
+        for (int i = 0; i < 5; i++) {
+            writer.write(record(i));
+        }
+        writer.flush().get();
+
+        assertEquals(1, completed.size());
+        assertEquals(5, readInts(completed.get(0).getPath()).size());
+        writer.close();
+        assertEquals(1, rolling.getManifest().size());
+    }
+
+    @Test
+    public void testFailFast() throws Exception {
+        BlockedWriter blocked = new BlockedWriter();
+        JsonAsyncParquetWriter writer = JsonAsyncParquetWriter.Builder(blocked)
+                .withQueueSize(1)
+                .withOverflowPolicy(OverflowPolicy.FAIL_FAST)
+                .build();
+
+        writer.write(record(0));
+        blocked.started.await();
+        writer.write(record(1));
+        try {
+            writer.write(record(2));
+            fail("Queue should be full");
+        } catch (RejectedExecutionException e) {
+            // expected
+        }
+        blocked.released.countDown();
+        writer.close();
+
+        assertEquals(2, blocked.written.size());
+    }
+
+    @Test
+    public void testDrop() throws Exception {
+        BlockedWriter blocked = new BlockedWriter();
+        JsonAsyncParquetWriter writer = JsonAsyncParquetWriter.Builder(blocked)
+                .withQueueSize(1)
+                .withOverflowPolicy(OverflowPolicy.DROP)
+                .build();
+
+        CompletableFuture<Void> first = writer.write(record(0));
+        blocked.started.await();
+        writer.write(record(1));
+        CompletableFuture<Void> dropped = writer.write(record(2));
+        CompletableFuture<JsonBatchResult> droppedBatch = writer.writeAll(List.of(record(3), record(4)));
+
+        assertTrue(dropped.isCompletedExceptionally());
+        assertTrue(droppedBatch.isCompletedExceptionally());
+        // each dropped record gets its own future
+        assertTrue(dropped != writer.write(record(5)));
+        assertFalse(first.isDone());
+        assertEquals(4, writer.getDropped());
+
+        blocked.released.countDown();
+        writer.close();
+        assertTrue(first.isDone());
+        assertEquals(2, blocked.written.size());
+    }
+
+    @Test
+    public void testRejectedRecordFailsItsFutureOnly() throws Exception {
+        Path path = new Path(folder.getRoot().toURI().resolve("rejected.parquet"));
+        JsonAsyncParquetWriter writer = JsonAsyncParquetWriter.Builder(JsonParquetWriter.Builder(path)
+                        .withSchema(getSchema("TestPrimitives"))
+                        .withOptions(JsonWriteOptions.builder()
+                                .withRejectedRecordHandler((record, field, reason) -> { })
+                                .build())
+                        .buildRecordWriter())
+                .build();
+
+        ObjectNode invalid = record(1);
+        invalid.put("key_int32", "one");
+        writer.write(record(0));
+        CompletableFuture<Void> rejected = writer.write(invalid);
+        CompletableFuture<Void> next = writer.write(record(2));
+        writer.close();
+
+        try {
+            rejected.get();
+            fail("Record should be rejected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RejectedRecordException);
+        }
+        next.get();
+        assertEquals(List.of(0, 2), readInts(path));
+    }
+
+    @Test
+    public void testCloseCompletesRacingWrites() throws Exception {
+        JsonNode record = record(0);
+        for (int round = 0; round < 20; round++) {
+            AtomicLong written = new AtomicLong();
+            JsonAsyncParquetWriter writer = JsonAsyncParquetWriter.Builder(new JsonRecordWriter() {
+                        @Override
+                        public void write(JsonNode record) {
+                            written.incrementAndGet();
+                        }
+
+                        @Override
+                        public void close() {
+                        }
+                    })
+                    .withQueueSize(1)
+                    .build();
+
+            List<CompletableFuture<Void>> acks = Collections.synchronizedList(new ArrayList<>());
+            List<Thread> producers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                Thread producer = new Thread(() -> {
+                    try {
+                        while (true) {
+                            acks.add(writer.write(record));
+                        }
+                    } catch (IllegalStateException | InterruptedIOException e) {
+                        // closed
+                    }
+                });
+                producer.start();
+                producers.add(producer);
+            }
+            Thread.sleep(2);
+            writer.close();
+
+            for (Thread producer : producers) {
+                producer.join(TimeUnit.SECONDS.toMillis(10));
+                assertFalse("Producer still blocked", producer.isAlive());
+            }
+            long succeeded = 0;
+            for (CompletableFuture<Void> ack : acks) {
+                assertTrue("Write never completed", ack.isDone());
+                succeeded += ack.isCompletedExceptionally() ? 0 : 1;
+            }
+            assertEquals(written.get(), succeeded);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testInterruptedWriterFailsLaterWrites() throws Exception {
+        List<Thread> threads = new ArrayList<>();
+        JsonAsyncParquetWriter writer = JsonAsyncParquetWriter.Builder(new BlockedWriter())
+                .withQueueSize(2)
+                .withThreadFactory(runnable -> {
+                    Thread thread = new Thread(runnable);
+                    threads.add(thread);
+                    return thread;
+                })
+                .build();
+        threads.get(0).interrupt();
+        threads.get(0).join();
+
+        List<CompletableFuture<Void>> acks = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            acks.add(writer.write(record(i)));
+        }
+        for (CompletableFuture<Void> ack : acks) {
+            assertTrue(ack.isCompletedExceptionally());
+        }
+        try {
+            writer.close();
+            fail("Writer should report the interrupt");
+        } catch (IOException e) {
+            assertTrue(e.getCause() instanceof InterruptedException);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package org.getyourguide.parquet.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JsonFiltersTest extends JsonParquetTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private JsonFilters filters;
+    private Path path;
+
+    @Before
+    public void setUp() throws Exception {
+        filters = JsonFilters.of(getSchema("TestPrimitives"));
+        path = new Path(folder.getRoot().toURI().resolve("filters.parquet"));
+
+        JsonNode example = getExample("TestPrimitives");
+        ParquetWriter<JsonNode> writer = JsonParquetWriter.Builder(path)
+                .withSchema(getSchema("TestPrimitives"))
+                .withRowGroupSize(1024)
+                .build();
+        for (int i = 0; i < 100; i++) {
+            ObjectNode record = example.deepCopy();
+            record.put("key_string", i % 2 == 0 ? "even" : "odd");
+            record.put("key_int32", i);
+            record.put("key_int64", i * 10L);
+            record.put("date", LocalDate.of(2020, 1, 1).plusDays(i).toString());
+            record.put("datetime", Instant.parse("2020-01-01T00:00:00Z").plusSeconds(i * 60L).toString());
+            if (i >= 90) {
+                record.putNull("key_double");
+            }
+            writer.write(record);
+        }
+        writer.close();
+    }
+
+    private List<Integer> read(FilterPredicate predicate) throws Exception {
+        List<Integer> values = new ArrayList<>();
+        try (ParquetReader<JsonNode> reader = JsonParquetReader.Builder(path)
+                .withFilter(FilterCompat.get(predicate))
+                .build()) {
+            JsonNode record;
+            while ((record = reader.read()) != null) {
+                values.add(record.get("key_int32").intValue());
+            }
+        }
+        return values;
+    }
+
+    @Test
+    public void testComparisons() throws Exception {
+        assertEquals(Arrays.asList(98, 99), read(filters.gt("key_int32", 97)));
+        assertEquals(Arrays.asList(0, 1), read(filters.lt("key_int64", 20)));
+        assertEquals(Arrays.asList(42), read(filters.eq("key_int64", 420)));
+        assertEquals(99, read(filters.notEq("key_int32", 5)).size());
+    }
+
+    @Test
+    public void testStrings() throws Exception {
+        assertEquals(50, read(filters.eq("key_string", "odd")).size());
+        assertEquals(Arrays.asList(1, 3),
+                read(JsonFilters.and(filters.in("key_string", "odd", "other"), filters.ltEq("key_int32", 3))));
+        assertEquals(0, read(filters.notIn("key_string", "odd", "even")).size());
+    }
+
+    @Test
+    public void testDates() throws Exception {
+        assertEquals(Arrays.asList(0, 1), read(filters.lt("date", "2020-01-03")));
+        assertEquals(Arrays.asList(10), read(filters.eq("date", LocalDate.of(2020, 1, 11))));
+        assertEquals(Arrays.asList(0, 1), read(filters.lt("datetime", "2020-01-01T00:02:00Z")));
+        assertEquals(Arrays.asList(99), read(filters.gtEq("datetime", Instant.parse("2020-01-01T01:39:00Z"))));
+    }
+
+    @Test
+    public void testLocalTimestamps() throws Exception {
+        Path localPath = new Path(folder.getRoot().toURI().resolve("local.parquet"));
+        try (ParquetWriter<JsonNode> writer = JsonParquetWriter.Builder(localPath)
+                .withSchema(getSchema("TestTimestamp"))
+                .build()) {
+            for (int hour = 9; hour <= 11; hour++) {
+                ObjectNode record = getExample("TestTimestamp").deepCopy();
+                record.put("local_time", String.format("2024-01-01T%02d:00:00+02:00", hour));
+                writer.write(record);
+            }
+        }
+        JsonFilters timestamps = JsonFilters.of(getSchema("TestTimestamp"));
+
+        // the local date-time is written, whatever the offset
+        for (Object value : new Object[]{"2024-01-01T10:00:00+02:00", "2024-01-01T10:00:00",
+                "2024-01-01T10:00:00-05:00", LocalDateTime.parse("2024-01-01T10:00:00"),
+                OffsetDateTime.parse("2024-01-01T10:00:00+02:00")}) {
+            FilterPredicate predicate = timestamps.eq("local_time", value);
+            assertEquals(value.toString(), "eq(local_time, 1704103200000000000)", predicate.toString());
+            try (ParquetReader<JsonNode> reader = JsonParquetReader.Builder(localPath)
+                    .withFilter(FilterCompat.get(predicate))
+                    .build()) {
+                assertEquals("2024-01-01T10:00", reader.read().get("local_time").textValue());
+                assertNull(reader.read());
+            }
+        }
+    }
+
+    @Test
+    public void testNulls() throws Exception {
+        assertEquals(10, read(filters.isNull("key_double")).size());
+        assertEquals(90, read(filters.isNotNull("key_double")).size());
+        assertEquals(Arrays.asList(90, 91),
+                read(JsonFilters.and(filters.isNull("key_double"), JsonFilters.not(filters.gt("key_int32", 91)))));
+    }
+
+    @Test
+    public void testNestedPath() throws Exception {
+        JsonFilters nested = JsonFilters.of(getSchema("TestNestedStructure"));
+
+        assertEquals("lt(simple_nested.key1, 18433)", nested.lt("simple_nested.key1", "2020-06-20").toString());
+    }
+
+    @Test
+    public void testExactNumbers() {
+        assertEquals("lt(key_int32, 100)", filters.lt("key_int32", 100.0).toString());
+        assertEquals("lt(key_int32, 100)", filters.lt("key_int32", 100L).toString());
+        assertEquals("eq(key_int64, 4294967296)", filters.eq("key_int64", 4294967296.0).toString());
+        assertEquals("gt(key_float, 10.5)", filters.gt("key_float", 10.5).toString());
+        assertEquals("gt(key_float, 10.1)", filters.gt("key_float", 10.1f).toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFractionOfIntegerColumn() {
+        // would compare as < 100 and miss the rows equal to 100
+        filters.lt("key_int32", 100.5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLongOutOfIntRange() {
+        filters.eq("key_int32", 1L << 32);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRoundedFloat() {
+        filters.lt("key_float", 0.1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownField() {
+        filters.eq("missing", 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testArrayField() throws Exception {
+        JsonFilters.of(getSchema("TestNestedStructure")).eq("simple_nested.key2", 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testObjectField() throws Exception {
+        JsonFilters.of(getSchema("TestNestedStructure")).isNull("simple_nested");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBooleanIsNotOrdered() {
+        filters.gt("is_true", false);
+    }
+}
@@ -0,0 +1,183 @@
+package org.getyourguide.parquet.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JsonNdjsonConverterTest extends JsonParquetTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path writeInput(String name, int records) throws Exception {
+        JsonNode example = getExample("TestPrimitives");
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < records; i++) {
+            ObjectNode record = example.deepCopy();
+            record.put("key_int32", i);
+            lines.append(record).append(i % 10 == 0 ? "\r\n\n" : "\n");
+        }
+        File file = folder.newFile(name);
+        Files.write(file.toPath(), lines.toString().getBytes(StandardCharsets.UTF_8));
+        return new Path(file.toURI());
+    }
+
+    private Path output(String name) {
+        return new Path(folder.getRoot().toURI().resolve(name));
+    }
+
+    @Test
+    public void testConvertInOrder() throws Exception {
+        Path first = writeInput("first.ndjson", 300);
+        Path second = writeInput("second.ndjson", 200);
+        Path output = output("out.parquet");
+
+        JsonNdjsonConverter.Report report = JsonNdjsonConverter.Builder(output)
+                .withSchema(getSchema("TestPrimitives"))
+                .withParserThreads(3)
+                .withQueueDepth(2)
+                .withChunkSize(100)
+                .build()
+                .convert(first, second);
+
+        assertEquals(500, report.getRecords());
+        assertEquals(new File(first.toUri()).length() + new File(second.toUri()).length(), report.getInputBytes());
+        assertEquals(1, report.getFiles().size());
+        assertTrue(report.getOutputBytes() > 0);
+        assertTrue(report.getRecordsPerSecond() > 0);
+
+        try (ParquetReader<JsonNode> reader = JsonParquetReader.Builder(output).build()) {
+            for (int i = 0; i < 500; i++) {
+                assertEquals(i < 300 ? i : i - 300, reader.read().get("key_int32").intValue());
+            }
+            assertEquals(null, reader.read());
+        }
+    }
+
+    @Test
+    public void testConvertToParts() throws Exception {
+        Path input = writeInput("input.ndjson", 1000);
+        Path output = output("parts");
+
+        JsonNdjsonConverter.Report report = JsonNdjsonConverter.Builder(output)
+                .withSchema(getSchema("TestPrimitives"))
+                .withWriterThreads(2)
+                .withChunkSize(4096)
+                .build()
+                .convert(input);
+
+        assertEquals(1000, report.getRecords());
+        assertEquals(2, report.getFiles().size());
+        long records = 0;
+        for (Path file : report.getFiles()) {
+            try (ParquetReader<JsonNode> reader = JsonParquetReader.Builder(file).build()) {
+                while (reader.read() != null) {
+                    records++;
+                }
+            }
+        }
+        assertEquals(1000, records);
+    }
+
+    @Test
+    public void testInvalidJson() throws Exception {
+        File file = folder.newFile("invalid.ndjson");
+        Files.write(file.toPath(), (getExample("TestPrimitives") + "\n{\"key_string\": \n").getBytes(StandardCharsets.UTF_8));
+
+        IOException failure = null;
+        try {
+            JsonNdjsonConverter.Builder(output("invalid.parquet"))
+                    .withSchema(getSchema("TestPrimitives"))
+                    .build()
+                    .convert(new Path(file.toURI()));
+        } catch (IOException e) {
+            failure = e;
+        }
+
+        assertTrue(failure.getMessage(), failure.getMessage().startsWith("Invalid JSON in "));
+        assertTrue(failure.getMessage(), failure.getMessage().endsWith(" at offset "
+                + (getExample("TestPrimitives").toString().length() + 1)));
+    }
+
+    @Test
+    public void testRejectedRecords() throws Exception {
+        JsonNode example = getExample("TestPrimitives");
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            ObjectNode record = example.deepCopy();
+            if (i % 7 == 0) {
+                record.put("key_int32", "bad " + i);
+            } else {
+                record.put("key_int32", i);
+            }
+            lines.append(record).append('\n');
+        }
+        File file = folder.newFile("rejected.ndjson");
+        Files.write(file.toPath(), lines.toString().getBytes(StandardCharsets.UTF_8));
+        Path output = output("rejected.parquet");
+
+        List<JsonNode> rejected = Collections.synchronizedList(new ArrayList<>());
+        JsonNdjsonConverter.Report report = JsonNdjsonConverter.Builder(output)
+                .withSchema(getSchema("TestPrimitives"))
+                .withOptions(JsonWriteOptions.builder()
+                        .withRejectedRecordHandler((record, field, reason) -> rejected.add(record))
+                        .build())
+                .withParserThreads(2)
+                .withConverterThreads(3)
+                .withChunkSize(500)
+                .build()
+                .convert(new Path(file.toURI()));
+
+        assertEquals(171, report.getRecords());
+        assertEquals(29, report.getRejected());
+        assertEquals(29, rejected.size());
+        try (ParquetReader<JsonNode> reader = JsonParquetReader.Builder(output).build()) {
+            for (int i = 0; i < 200; i++) {
+                if (i % 7 != 0) {
+                    assertEquals(i, reader.read().get("key_int32").intValue());
+                }
+            }
+            assertEquals(null, reader.read());
+        }
+    }
+
+    @Test
+    public void testCommandLine() throws Exception {
+        Path input = writeInput("input.ndjson", 10);
+        String spec = new File(Objects.requireNonNull(getClass().getClassLoader().getResource("openapi.yaml"))
+                .getFile()).getAbsolutePath();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+        int status = JsonNdjsonConverter.run(new String[]{
+                "--spec", spec, "--schema", "TestPrimitives", "--output", output("cli.parquet").toString(),
+                "--parser-threads", "2", "--converter-threads", "2", "--compression", "gzip", input.toString()},
+                new PrintStream(out), new PrintStream(err));
+
+        assertEquals(err.toString(), 0, status);
+        assertTrue(out.toString(), out.toString().startsWith("10 records, "));
+        assertTrue(new File(folder.getRoot(), "cli.parquet").exists());
+
+        assertEquals(2, JsonNdjsonConverter.run(new String[]{"--spec", spec, "--schema"},
+                new PrintStream(out), new PrintStream(err)));
+        assertEquals(2, JsonNdjsonConverter.run(new String[]{"--spec", spec, "--schema", "Missing",
+                "--output", "out", input.toString()}, new PrintStream(out), new PrintStream(err)));
+    }
+}
@@ -0,0 +1,149 @@
+package org.getyourguide.parquet.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JsonParquetParallelWriterTest extends JsonParquetTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private List<JsonParquetParallelWriter.PartFile> write(JsonParquetParallelWriter.Sharding sharding,
+                                                           int records) throws Exception {
+        JsonNode example = getExample("TestPrimitives");
+
+        JsonParquetParallelWriter writer = JsonParquetParallelWriter.Builder(new Path(folder.getRoot().toURI()))
+                .withSchema(getSchema("TestPrimitives"))
+                .withParallelism(3)
+                .withQueueSize(4)
+                .withSharding(sharding)
+                .withWriterConfig(builder -> builder.withCompressionCodec(CompressionCodecName.SNAPPY))
+                .build();
+
+        for (int i = 0; i < records; i++) {
+            ObjectNode record = example.deepCopy();
+            record.put("key_int32", i);
+            writer.write(record);
+        }
+        writer.close();
+
+        return writer.getManifest();
+    }
+
+    private long countRecords(List<JsonParquetParallelWriter.PartFile> parts) throws Exception {
+        long total = 0;
+        for (JsonParquetParallelWriter.PartFile part : parts) {
+            try (ParquetFileReader reader = ParquetFileReader.open(
+                    HadoopInputFile.fromPath(part.getPath(), new Configuration()))) {
+                assertEquals(part.getRecordCount(), reader.getRecordCount());
+                total += reader.getRecordCount();
+            }
+        }
+        return total;
+    }
+
+    @Test
+    public void testRoundRobin() throws Exception {
+        List<JsonParquetParallelWriter.PartFile> parts = write(JsonParquetParallelWriter.Sharding.roundRobin(), 100);
+
+        assertEquals(3, parts.size());
+        assertEquals(34, parts.get(0).getRecordCount());
+        assertEquals(33, parts.get(1).getRecordCount());
+        assertEquals(33, parts.get(2).getRecordCount());
+        assertEquals(100, countRecords(parts));
+    }
+
+    @Test
+    public void testLeastLoaded() throws Exception {
+        List<JsonParquetParallelWriter.PartFile> parts = write(JsonParquetParallelWriter.Sharding.leastLoaded(), 100);
+
+        assertEquals(100, countRecords(parts));
+    }
+
+    @Test
+    public void testHashOmitsEmptyParts() throws Exception {
+        // all records share the same key_string, they must end up in a single part
+        List<JsonParquetParallelWriter.PartFile> parts = write(JsonParquetParallelWriter.Sharding.hash("key_string"), 50);
+
+        assertEquals(1, parts.size());
+        assertEquals(50, countRecords(parts));
+        assertEquals(1, folder.getRoot().list((dir, name) -> name.endsWith(".parquet")).length);
+    }
+
+    @Test
+    public void testFailureIsReported() throws Exception {
+        JsonParquetParallelWriter writer = JsonParquetParallelWriter.Builder(new Path(folder.getRoot().toURI()))
+                .withSchema(getSchema("NullInPayload"))
+                .withParallelism(2)
+                .build();
+
+        writer.write(getExample("NullInPayload"));
+
+        boolean failed = false;
+        try {
+            writer.close();
+        } catch (IOException e) {
+            failed = e.getCause() instanceof RequiredFieldException;
+        }
+        assertTrue(failed);
+        assertFalse(new File(folder.getRoot(), "part-00001.parquet").exists());
+    }
+
+    @Test(timeout = 10000)
+    public void testInterruptedWorkerFailsWrites() throws Exception {
+        Set<Thread> before = new HashSet<>(Thread.getAllStackTraces().keySet());
+        JsonParquetParallelWriter writer = JsonParquetParallelWriter.Builder(new Path(folder.getRoot().toURI()))
+                .withSchema(getSchema("TestPrimitives"))
+                .withParallelism(1)
+                .withQueueSize(2)
+                .build();
+        Thread worker = null;
+        while (worker == null) {
+            for (Thread thread : Thread.getAllStackTraces().keySet()) {
+                if (!before.contains(thread) && thread.getName().startsWith("parquet-json-writer-")) {
+                    worker = thread;
+                }
+            }
+        }
+        // the pool clears the interrupt status before running the shard, wait for it to block on its queue
+        while (worker.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+        worker.interrupt();
+
+        // the worker thread stays in its pool, writes go on until the shard sees the interrupt
+        IOException failure = null;
+        while (failure == null) {
+            try {
+                writer.write(getExample("TestPrimitives"));
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        assertTrue(failure.getCause() instanceof InterruptedException);
+        try {
+            writer.close();
+            fail("Close should report the interrupt");
+        } catch (IOException e) {
+            assertTrue(e.getCause() instanceof InterruptedException);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package org.getyourguide.parquet.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.getyourguide.parquet.json.JsonParquetParallelWriter.PartFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JsonParquetPartitionedWriterTest extends JsonParquetTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ObjectNode record(int i, String country) throws Exception {
+        ObjectNode record = getExample("TestPrimitives").deepCopy();
+        record.put("key_int32", i);
+        record.put("date", "2024-05-0" + (1 + i % 2));
+        if (country == null) {
+            record.remove("key_string");
+        } else {
+            record.put("key_string", country);
+        }
+        return record;
+    }
+
+    private JsonParquetPartitionedWriter.Builder builder() throws Exception {
+        return JsonParquetPartitionedWriter.Builder(new Path(folder.getRoot().toURI()))
+                .withSchema(getSchema("TestPrimitives"))
+                .withPartitionFields("date", "key_string");
+    }
+
+    private long count(Path path) throws Exception {
+        long count = 0;
+        try (ParquetReader<JsonNode> reader = JsonParquetReader.Builder(path).build()) {
+            while (reader.read() != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void testPartitions() throws Exception {
+        JsonParquetPartitionedWriter writer = builder().build();
+        for (int i = 0; i < 12; i++) {
+            writer.write(record(i, i % 3 == 0 ? "DE" : "FR"));
+        }
+        assertEquals(4, writer.getOpenWriters());
+        writer.close();
+
+        Map<String, Long> counts = new TreeMap<>();
+        for (PartFile part : writer.getManifest()) {
+            String directory = part.getPath().getParent().getParent().getName() + "/"
+                    + part.getPath().getParent().getName();
+            counts.put(directory, part.getRecordCount());
+            assertEquals(part.getRecordCount(), count(part.getPath()));
+        }
+        assertEquals(Map.of(
+                "date=2024-05-01/key_string=DE", 2L,
+                "date=2024-05-01/key_string=FR", 4L,
+                "date=2024-05-02/key_string=DE", 2L,
+                "date=2024-05-02/key_string=FR", 4L), counts);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedWriterIsClosed() throws Exception {
+        JsonParquetPartitionedWriter writer = builder()
+                .withPartitionFields("key_string")
+                .withMaxOpenWriters(2)
+                .build();
+        writer.write(record(0, "DE"));
+        writer.write(record(1, "FR"));
+        writer.write(record(2, "DE"));
+        // FR is the least recently used
+        writer.write(record(3, "IT"));
+        assertEquals(2, writer.getOpenWriters());
+        writer.write(record(4, "FR"));
+        writer.close();
+
+        List<PartFile> parts = writer.getManifest();
+        assertEquals(4, parts.size());
+        assertEquals("part-00000.parquet", parts.get(0).getPath().getName());
+        assertEquals("key_string=FR", parts.get(0).getPath().getParent().getName());
+        assertTrue(parts.stream().anyMatch(part -> part.getPath().toString().endsWith("key_string=FR/part-00001.parquet")));
+        assertEquals(5, parts.stream().mapToLong(PartFile::getRecordCount).sum());
+    }
+
+    @Test
+    public void testPartitionValues() throws Exception {
+        JsonParquetPartitionedWriter writer = builder().withPartitionFields("key_string").build();
+
+        assertEquals("key_string=" + JsonParquetPartitionedWriter.DEFAULT_PARTITION, writer.partitionOf(record(0, null)));
+        assertEquals("key_string=a%2Fb%3Dc d", writer.partitionOf(record(0, "a/b=c d")));
+        writer.close();
+    }
+
+    @Test
+    public void testMemoryBudgetIsShared() throws Exception {
+        JsonParquetPartitionedWriter writer = builder()
+                .withMaxOpenWriters(8)
+                .withMemoryBudget(64L * 1024 * 1024)
+                .build();
+        assertEquals(8L * 1024 * 1024, writer.getRowGroupSize());
+        writer.close();
+
+        writer = builder().withMaxOpenWriters(1000).withMemoryBudget(64L * 1024 * 1024).build();
+        assertEquals(1024 * 1024, writer.getRowGroupSize());
+        writer.close();
+    }
+
+    @Test
+    public void testMemoryBudgetIsEnforced() throws Exception {
+        long budget = 1024 * 1024;
+        JsonParquetPartitionedWriter writer = builder()
+                .withPartitionFields("date")
+                .withMaxOpenWriters(4)
+                .withMemoryBudget(budget)
+                .withWriterConfig(b -> b.withDictionaryEncoding(false))
+                .build();
+        // each writer could buffer a row group of 1 MB, 4 MB together
+        assertEquals(1024 * 1024, writer.getRowGroupSize());
+
+        Random random = new Random(42);
+        byte[] bytes = new byte[2048];
+        for (int i = 0; i < 1000; i++) {
+            ObjectNode record = record(i, null);
+            record.put("date", "2024-05-0" + (1 + i % 4));
+            random.nextBytes(bytes);
+            record.put("key_string", Base64.getEncoder().encodeToString(bytes));
+            writer.write(record);
+            assertTrue(writer.getBufferedSize() <= budget);
+        }
+        writer.close();
+
+        List<PartFile> parts = writer.getManifest();
+        assertTrue(parts.size() > 4);
+        long records = 0;
+        for (PartFile part : parts) {
+            records += count(part.getPath());
+        }
+        assertEquals(1000, records);
+    }
+}
@@ -0,0 +1,341 @@
+package org.getyourguide.parquet.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.swagger.v3.oas.models.media.NumberSchema;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Map;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.schema.InvalidSchemaException;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JsonParquetReaderTest extends JsonParquetTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private Path writeExample(String typeName) throws Exception {
+        Path path = new Path(folder.getRoot().toURI().resolve(typeName + ".parquet"));
+        ParquetWriter<JsonNode> writer = JsonParquetWriter.Builder(path)
+                .withSchema(getSchema(typeName))
+                .build();
+        writer.write(getExample(typeName));
+        writer.close();
+        return path;
+    }
+
+    private JsonNode readSingle(ParquetReader<JsonNode> reader) throws Exception {
+        JsonNode record = reader.read();
+        assertNull(reader.read());
+        reader.close();
+        return record;
+    }
+
+    private void testRoundTrip(String typeName) throws Exception {
+        Path path = writeExample(typeName);
+        assertEquals(getExample(typeName), readSingle(JsonParquetReader.Builder(path).build()));
+    }
+
+    @Test
+    public void testPrimitives() throws Exception {
+        Path path = writeExample("TestPrimitives");
+
+        JsonNode record = readSingle(JsonParquetReader.Builder(path).build());
+
+        assertEquals("hello", record.get("key_string").textValue());
+        assertEquals(32, record.get("key_int32").intValue());
+        assertEquals(64L, record.get("key_int64").longValue());
+        assertEquals(10.1f, record.get("key_float").floatValue(), 0);
+        assertEquals(10.101, record.get("key_double").doubleValue(), 0);
+        assertEquals(true, record.get("is_true").booleanValue());
+        assertEquals("2020-06-20", record.get("date").textValue());
+        assertEquals("2020-06-20T10:10:10Z", record.get("datetime").textValue());
+        assertEquals("SGVsbG8gd29ybGQh", record.get("key_bytes_from_string").textValue());
+    }
+
+    @Test
+    public void testArraysPrimitives() throws Exception {
+        testRoundTrip("TestArraysPrimitives");
+    }
+
+    @Test
+    public void testArraysOfObjects() throws Exception {
+        testRoundTrip("TestArraysOfObjects");
+    }
+
+    @Test
+    public void testNestedStructure() throws Exception {
+        testRoundTrip("TestNestedStructure");
+        testRoundTrip("TestDeeperNestedStructure");
+        testRoundTrip("TestObjectNoType");
+    }
+
+    @Test
+    public void testMaps() throws Exception {
+        testRoundTrip("TestMapStructure");
+        testRoundTrip("TestMapStructureofObject");
+        testRoundTrip("TestMapStructureOfArrayOfObjects");
+    }
+
+    @Test
+    public void testProjectionByFieldPaths() throws Exception {
+        Path path = writeExample("TestDeeperNestedStructure");
+
+        JsonNode record = readSingle(JsonParquetReader.Builder(path)
+                .withProjection("1st_level_key_nested.key1.key1_key2")
+                .build());
+
+        assertEquals(mapper.readTree("{\"1st_level_key_nested\":{\"key1\":{\"key1_key2\":\"Guten Tag!\"}}}"), record);
+    }
+
+    @Test
+    public void testProjectionFromConfiguration() throws Exception {
+        Path path = writeExample("TestPrimitives");
+        Configuration conf = new Configuration();
+        conf.set(JsonReadSupport.PROJECTION_FIELDS, "key_string , key_int32");
+
+        JsonNode record = readSingle(JsonParquetReader.Builder(path).withConf(conf).build());
+
+        JsonNode example = getExample("TestPrimitives");
+        ObjectNode expected = mapper.createObjectNode();
+        expected.set("key_string", example.get("key_string"));
+        expected.set("key_int32", example.get("key_int32"));
+        assertEquals(expected, record);
+    }
+
+    @Test
+    public void testProjectionOfMapValues() throws Exception {
+        Path path = writeExample("TestMapStructureofObject");
+
+        JsonNode record = readSingle(JsonParquetReader.Builder(path)
+                .withProjection("map_key.name")
+                .build());
+
+        assertEquals(mapper.readTree("{\"map_key\":{\"en\":{\"name\":\"english\"},\"de\":{\"name\":\"german\"}}}"),
+                record);
+    }
+
+    @Test
+    public void testProjectionBySchema() throws Exception {
+        Path path = writeExample("TestPrimitives");
+
+        ObjectSchema full = getSchema("TestPrimitives");
+        ObjectSchema projection = new ObjectSchema();
+        projection.setTitle(full.getTitle());
+        projection.addProperty("key_string", full.getProperties().get("key_string"));
+        projection.addProperty("date", full.getProperties().get("date"));
+
+        JsonNode record = readSingle(JsonParquetReader.Builder(path)
+                .withProjection(projection)
+                .build());
+
+        assertEquals(mapper.readTree("{\"key_string\":\"hello\",\"date\":\"2020-06-20\"}"), record);
+    }
+
+    @Test
+    public void testUuid() throws Exception {
+        testRoundTrip("TestUuid");
+    }
+
+    @Test
+    public void testEnum() throws Exception {
+        testRoundTrip("TestEnum");
+    }
+
+    @Test
+    public void testDecimal() throws Exception {
+        JsonNode record = readSingle(JsonParquetReader.Builder(writeExample("TestDecimal")).build());
+
+        assertEquals(new BigDecimal("12.34"), record.get("price").decimalValue());
+        assertEquals(new BigDecimal("0.0525"), record.get("rate").decimalValue());
+        assertEquals(new BigDecimal("-123456789012345678.500000"), record.get("total").decimalValue());
+        assertEquals(new BigDecimal("2.50"), record.get("amounts").get(1).decimalValue());
+    }
+
+    @Test
+    public void testTimestampUnits() throws Exception {
+        JsonNode record = readSingle(JsonParquetReader.Builder(writeExample("TestTimestamp")).build());
+
+        assertEquals("2020-06-20T10:10:10.123Z", record.get("created_at").textValue());
+        assertEquals("2020-06-20T10:10:10.123456Z", record.get("event_time").textValue());
+        assertEquals("2020-06-20T10:10:10.123456789", record.get("local_time").textValue());
+    }
+
+    @Test
+    public void testBinaryValuesSurviveBufferReuse() throws Exception {
+        Path path = new Path(folder.getRoot().toURI().resolve("binaries.parquet"));
+        String[] values = {"SGVsbG8gd29ybGQh", "AQID", "SGVsbG8gd29ybGQh", "", "/+8="};
+        try (ParquetWriter<JsonNode> writer = JsonParquetWriter.Builder(path)
+                .withSchema(getSchema("TestPrimitives"))
+                .withDictionaryEncoding(true)
+                .build()) {
+            for (String value : values) {
+                ObjectNode record = getExample("TestPrimitives").deepCopy();
+                record.put("key_bytes_from_string", value);
+                writer.write(record);
+            }
+        }
+
+        try (ParquetReader<JsonNode> reader = JsonParquetReader.Builder(path).build()) {
+            for (String value : values) {
+                assertEquals(value, reader.read().get("key_bytes_from_string").textValue());
+            }
+        }
+    }
+
+    @Test
+    public void testNullListElements() throws Exception {
+        String json = "{\"array_int\": [1, null, 2]}";
+        Path treePath = new Path(folder.getRoot().toURI().resolve("null-elements-tree.parquet"));
+        try (ParquetWriter<JsonNode> writer = JsonParquetWriter.Builder(treePath)
+                .withSchema(getSchema("TestArraysPrimitives"))
+                .build()) {
+            writer.write(mapper.readTree(json));
+        }
+        Path streamingPath = new Path(folder.getRoot().toURI().resolve("null-elements-streaming.parquet"));
+        try (ParquetWriter<JsonParser> writer = JsonStreamingParquetWriter.Builder(streamingPath)
+                .withSchema(getSchema("TestArraysPrimitives"))
+                .build()) {
+            JsonParser parser = mapper.getFactory().createParser(json);
+            parser.nextToken();
+            writer.write(parser);
+        }
+
+        for (Path path : new Path[]{treePath, streamingPath}) {
+            JsonNode record = readSingle(JsonParquetReader.Builder(path).build());
+            JsonNode array = record.get("array_int");
+            assertEquals(3, array.size());
+            assertEquals(1L, array.get(0).longValue());
+            assertTrue(array.get(1).isNull());
+            assertEquals(2L, array.get(2).longValue());
+        }
+    }
+
+    @Test
+    public void testNullRequiredListElementIsRejected() throws Exception {
+        String json = "{\"array_string\": [\"a\", null, \"b\"]}";
+        Path path = new Path(folder.getRoot().toURI().resolve("null-required-elements.parquet"));
+        try (ParquetWriter<JsonNode> writer = JsonParquetWriter.Builder(path)
+                .withSchema(getSchema("TestArraysPrimitives"))
+                .build()) {
+            writer.write(mapper.readTree(json));
+            fail("Null element written in a list of required elements");
+        } catch (RequiredFieldException e) {
+            assertEquals("Element of array_string null but defined as non-nullable", e.getMessage());
+        }
+
+        path = new Path(folder.getRoot().toURI().resolve("null-required-elements-streaming.parquet"));
+        try (ParquetWriter<JsonParser> writer = JsonStreamingParquetWriter.Builder(path)
+                .withSchema(getSchema("TestArraysPrimitives"))
+                .build()) {
+            JsonParser parser = mapper.getFactory().createParser(json);
+            parser.nextToken();
+            writer.write(parser);
+            fail("Null element written in a list of required elements");
+        } catch (RequiredFieldException e) {
+            assertEquals("Element of array_string null but defined as non-nullable", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testDottedNames() throws Exception {
+        JsonNode record = readSingle(JsonParquetReader.Builder(writeExample("TestDottedNames")).build());
+
+        assertEquals(new BigDecimal("12.34"), record.get("price.amount").decimalValue());
+        assertEquals(new BigDecimal("1.50"), record.get("prices.by.day").get("monday").decimalValue());
+        assertEquals("2024-01-01T10:00:00.123456Z", record.get("event.time").textValue());
+    }
+
+    @Test
+    public void testUuidAsString() throws Exception {
+        Path path = new Path(folder.getRoot().toURI().resolve("uuid.parquet"));
+        try (ParquetWriter<JsonNode> writer = JsonParquetWriter.Builder(path)
+                .withSchema(getSchema("TestUuid"))
+                .withOptions(JsonWriteOptions.builder().withUuidAsString(true).build())
+                .build()) {
+            writer.write(getExample("TestUuid"));
+        }
+
+        // the projection is converted with 16 byte UUIDs, the file has strings
+        ObjectSchema projection = new ObjectSchema();
+        projection.setTitle("TestUuid");
+        projection.addProperty("id", getSchema("TestUuid").getProperties().get("id"));
+        JsonNode record = readSingle(JsonParquetReader.Builder(path).withProjection(projection).build());
+
+        assertEquals(getExample("TestUuid").get("id"), record.get("id"));
+    }
+
+    @Test
+    public void testProjectionTakesTheWrittenTimestampUnit() throws Exception {
+        Path path = new Path(folder.getRoot().toURI().resolve("micros.parquet"));
+        try (ParquetWriter<JsonNode> writer = JsonParquetWriter.Builder(path)
+                .withSchema(getSchema("TestTimestamp"))
+                .withOptions(JsonWriteOptions.builder()
+                        .withTimestampUnit(LogicalTypeAnnotation.TimeUnit.MICROS)
+                        .withTimestampAdjustedToUTC(false)
+                        .build())
+                .build()) {
+            writer.write(mapper.readTree("{\"created_at\": \"2024-01-01T10:00:00+02:00\", "
+                    + "\"event_time\": \"2024-01-01T10:00:00.5Z\", \"local_time\": \"2024-01-01T10:00:00\"}"));
+        }
+
+        // converted with the default MILLIS and UTC adjustment, the file has MICROS local timestamps
+        ObjectSchema projection = new ObjectSchema();
+        projection.setTitle("TestTimestamp");
+        projection.addProperty("created_at", getSchema("TestTimestamp").getProperties().get("created_at"));
+        projection.addProperty("event_time", getSchema("TestTimestamp").getProperties().get("event_time"));
+        JsonNode record = readSingle(JsonParquetReader.Builder(path).withProjection(projection).build());
+
+        assertEquals("2024-01-01T10:00", record.get("created_at").textValue());
+        assertEquals("2024-01-01T10:00:00.500", record.get("event_time").textValue());
+    }
+
+    @Test
+    public void testProjectionTakesTheWrittenDecimalType() throws Exception {
+        Path path = writeExample("TestDecimal");
+
+        // a precision of 20 is FIXED_LEN_BYTE_ARRAY, the file has INT64
+        NumberSchema price = new NumberSchema();
+        price.addExtension(ColumnHints.DECIMAL, Map.of("precision", 20, "scale", 2));
+        ObjectSchema projection = new ObjectSchema();
+        projection.setTitle("TestDecimal");
+        projection.addProperty("price", price);
+        JsonNode record = readSingle(JsonParquetReader.Builder(path).withProjection(projection).build());
+
+        assertEquals(new BigDecimal("12.34"), record.get("price").decimalValue());
+    }
+
+    @Test
+    public void testProjectedColumns() throws Exception {
+        MessageType fileSchema = JsonWritePlan.of(getSchema("TestArraysOfObjects")).getSchema();
+
+        MessageType projected = JsonReadSupport.project(fileSchema, Arrays.asList("array_key.key_b"));
+
+        assertEquals(1, projected.getColumns().size());
+        assertEquals("array_key.list.element.key_b", String.join(".", projected.getColumns().get(0).getPath()));
+    }
+
+    @Test(expected = InvalidSchemaException.class)
+    public void testProjectionUnknownField() throws Exception {
+        JsonReadSupport.project(JsonWritePlan.of(getSchema("TestPrimitives")).getSchema(),
+                Arrays.asList("unknown"));
+    }
+}
@@ -0,0 +1,183 @@
+package org.getyourguide.parquet.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JsonParquetWriterConcurrencyTest extends JsonParquetTest {
+
+    private static final int WRITERS = 16;
+    private static final int RECORDS = 2000;
+
+    @ClassRule
+    public static TemporaryFolder folder = new TemporaryFolder();
+
+    private static JsonWriteOptions options(int writer) {
+        return JsonWriteOptions.builder()
+            .withWriteDefault(writer % 2 == 0)
+            .withNullAsDefault(writer % 4 < 2)
+            .build();
+    }
+
+    private static <T> List<T> runInParallel(List<Callable<T>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testMixedOptionsWriteSupports() throws Exception {
+        ObjectSchema schema = getSchema("TestPrimitives");
+        JsonNode payload = new ObjectMapper().readTree("{\"key_string\": \"x\", \"date\": null}");
+
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < WRITERS; i++) {
+            JsonWriteOptions options = options(i);
+            tasks.add(() -> {
+                IntegerCountingConsumer consumer = new IntegerCountingConsumer();
+                JsonWriteSupport<JsonNode> support = new JsonWriteSupport<>(schema, options);
+                support.init(new Configuration());
+                support.prepareForWrite(consumer);
+                for (int record = 0; record < RECORDS; record++) {
+                    support.write(payload);
+                }
+                return consumer.integers;
+            });
+        }
+
+        List<Integer> results = runInParallel(tasks);
+
+        for (int i = 0; i < WRITERS; i++) {
+            JsonWriteOptions options = options(i);
+            // the missing key_int32 is written when defaults are enabled, the null date when nulls are defaulted
+            int expected = ((options.isWriteDefaultValue() ? 1 : 0) + (options.isWriteNullAsDefault() ? 1 : 0)) * RECORDS;
+            assertEquals(options.toString(), expected, (int) results.get(i));
+        }
+    }
+
+    @Test
+    public void testMixedOptionsWriters() throws Exception {
+        ObjectSchema schema = getSchema("TestPrimitives");
+        // key_string is required, it can only be written from its default value
+        JsonNode payload = new ObjectMapper().readTree("{\"key_int32\": 32}");
+
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int i = 0; i < WRITERS; i++) {
+            JsonWriteOptions options = options(i);
+            Path path = new Path(folder.getRoot() + "/concurrent-" + i + ".parquet");
+            tasks.add(() -> {
+                ParquetWriter<JsonNode> writer = JsonParquetWriter.Builder(path)
+                    .withSchema(schema)
+                    .withOptions(options)
+                    .build();
+                try {
+                    for (int record = 0; record < RECORDS; record++) {
+                        writer.write(payload);
+                    }
+                    writer.close();
+                    return true;
+                } catch (RequiredFieldException e) {
+                    return false;
+                }
+            });
+        }
+
+        List<Boolean> results = runInParallel(tasks);
+
+        for (int i = 0; i < WRITERS; i++) {
+            assertEquals(options(i).toString(), options(i).isWriteDefaultValue(), results.get(i));
+            if (results.get(i)) {
+                assertTrue(new File(folder.getRoot() + "/concurrent-" + i + ".parquet").exists());
+            }
+        }
+    }
+
+    private static class IntegerCountingConsumer extends RecordConsumer {
+        int integers;
+
+        @Override
+        public void startMessage() {
+        }
+
+        @Override
+        public void endMessage() {
+        }
+
+        @Override
+        public void startField(String field, int index) {
+        }
+
+        @Override
+        public void endField(String field, int index) {
+        }
+
+        @Override
+        public void startGroup() {
+        }
+
+        @Override
+        public void endGroup() {
+        }
+
+        @Override
+        public void addInteger(int value) {
+            integers++;
+        }
+
+        @Override
+        public void addLong(long value) {
+        }
+
+        @Override
+        public void addBoolean(boolean value) {
+        }
+
+        @Override
+        public void addBinary(Binary value) {
+        }
+
+        @Override
+        public void addFloat(float value) {
+        }
+
+        @Override
+        public void addDouble(double value) {
+        }
+    }
+}
@@ -1,12 +1,21 @@
 package org.getyourguide.parquet.json;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.swagger.v3.oas.models.media.ObjectSchema;
 import io.swagger.v3.oas.models.media.Schema;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.ParquetReader;
 import org.apache.parquet.hadoop.ParquetWriter;
 import org.junit.ClassRule;
 import org.junit.Rule;
@@ -74,6 +83,69 @@ public class JsonParquetWriterTest extends JsonParquetTest{
         testFile("TestMapStructureofObject");
     }
 
+    @Test
+    public void testWriteStreaming() throws Exception {
+        String typeName = "TestMapStructureOfArrayOfObjects";
+        String file = getFullPath(typeName + "-streaming.parquet");
+
+        String json = new ObjectMapper().writeValueAsString(getExample(typeName));
+        JsonParser parser = new JsonFactory().createParser(json + "\n" + json);
+
+        ParquetWriter<JsonParser> writer = JsonStreamingParquetWriter.Builder(new Path(file))
+            .withSchema(getSchema(typeName))
+            .build();
+
+        while (parser.nextToken() != null) {
+            writer.write(parser);
+        }
+        writer.close();
+
+        assertTrue(new File(file).exists());
+    }
+
+    @Test
+    public void testValidationWritesInSchemaOrder() throws Exception {
+        Path path = new Path(getFullPath("validated.parquet"));
+        ObjectNode payload = new ObjectMapper().createObjectNode();
+        // keys in reverse schema order
+        List<String> names = new ArrayList<>();
+        getExample("TestPrimitives").fieldNames().forEachRemaining(names::add);
+        Collections.reverse(names);
+        for (String name : names) {
+            payload.set(name, getExample("TestPrimitives").get(name));
+        }
+
+        ParquetWriter<JsonNode> writer = JsonParquetWriter.Builder(path)
+            .withSchema(getSchema("TestPrimitives"))
+            .withValidation(true)
+            .build();
+        writer.write(payload);
+        writer.close();
+
+        try (ParquetReader<JsonNode> reader = JsonParquetReader.Builder(path).build()) {
+            assertEquals(getExample("TestPrimitives").get("key_string"), reader.read().get("key_string"));
+        }
+    }
+
+    @Test
+    public void testValidationRejectsPayloadOrder() throws Exception {
+        exceptionRule.expect(IllegalStateException.class);
+        JsonParquetWriter.Builder(new Path(getFullPath("payload-driven.parquet")))
+            .withSchema(getSchema("TestPrimitives"))
+            .withOptions(JsonWriteOptions.builder().withPayloadDrivenIteration(true).build())
+            .withValidation(true)
+            .build();
+    }
+
+    @Test
+    public void testValidationRejectsStreaming() throws Exception {
+        exceptionRule.expect(IllegalStateException.class);
+        JsonStreamingParquetWriter.Builder(new Path(getFullPath("streaming-validated.parquet")))
+            .withSchema(getSchema("TestPrimitives"))
+            .enableValidation()
+            .build();
+    }
+
     @Test
     public void testMissingInPayload() throws Exception {
         exceptionRule.expect(RequiredFieldException.class);
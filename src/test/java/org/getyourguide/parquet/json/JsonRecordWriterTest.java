@@ -0,0 +1,79 @@
+package org.getyourguide.parquet.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JsonRecordWriterTest extends JsonParquetTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private JsonRecordWriter writer(Path path) throws Exception {
+        return JsonParquetWriter.Builder(path)
+                .withSchema(getSchema("TestPrimitives"))
+                .buildRecordWriter();
+    }
+
+    private List<JsonNode> records(int count) throws Exception {
+        List<JsonNode> records = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ObjectNode record = getExample("TestPrimitives").deepCopy();
+            record.put("key_int32", i);
+            records.add(record);
+        }
+        return records;
+    }
+
+    private long countRecords(Path path) throws Exception {
+        try (ParquetFileReader reader = ParquetFileReader.open(HadoopInputFile.fromPath(path, new Configuration()))) {
+            return reader.getRecordCount();
+        }
+    }
+
+    @Test
+    public void testWriteAll() throws Exception {
+        Path path = new Path(folder.getRoot().toURI().resolve("batch.parquet"));
+        List<JsonNode> records = records(10);
+
+        JsonRecordWriter writer = writer(path);
+        JsonBatchResult iterable = writer.writeAll(records);
+        JsonBatchResult stream = writer.writeAll(records.stream());
+        JsonBatchResult array = writer.writeAll(records.toArray(new JsonNode[0]), 2, 5);
+        writer.close();
+
+        assertTrue(iterable.isSuccess());
+        assertEquals(10, iterable.getWritten());
+        assertEquals(10, stream.getWritten());
+        assertEquals(5, array.getWritten());
+        assertEquals(25, countRecords(path));
+    }
+
+    @Test
+    public void testWriteAllStopsOnFailure() throws Exception {
+        Path path = new Path(folder.getRoot().toURI().resolve("failure.parquet"));
+        List<JsonNode> records = records(5);
+        ((ObjectNode) records.get(3)).remove("key_string");
+
+        JsonRecordWriter writer = writer(path);
+        JsonBatchResult result = writer.writeAll(records.toArray(new JsonNode[0]), 1, 4);
+
+        assertFalse(result.isSuccess());
+        assertEquals(2, result.getWritten());
+        assertEquals(1, result.getFailures().size());
+        assertEquals(2, result.getFailures().get(0).getIndex());
+        assertTrue(result.getFailures().get(0).getCause() instanceof RequiredFieldException);
+    }
+}
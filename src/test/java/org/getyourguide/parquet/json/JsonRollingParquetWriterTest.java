@@ -0,0 +1,147 @@
+package org.getyourguide.parquet.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.getyourguide.parquet.json.JsonParquetParallelWriter.PartFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JsonRollingParquetWriterTest extends JsonParquetTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final List<PartFile> completed = Collections.synchronizedList(new ArrayList<>());
+
+    private JsonRollingParquetWriter.Builder builder() throws Exception {
+        return JsonRollingParquetWriter.Builder(new Path(folder.getRoot().toURI()))
+                .withSchema(getSchema("TestPrimitives"))
+                .withListener(completed::add);
+    }
+
+    private void write(JsonRollingParquetWriter writer, int from, int to) throws Exception {
+        JsonNode example = getExample("TestPrimitives");
+        for (int i = from; i < to; i++) {
+            ObjectNode record = example.deepCopy();
+            record.put("key_int32", i);
+            writer.write(record);
+        }
+    }
+
+    private List<Integer> readInts(List<PartFile> parts) throws Exception {
+        List<Integer> values = new ArrayList<>();
+        for (PartFile part : parts) {
+            try (ParquetReader<JsonNode> reader = JsonParquetReader.Builder(part.getPath()).build()) {
+                for (JsonNode record = reader.read(); record != null; record = reader.read()) {
+                    values.add(record.get("key_int32").intValue());
+                }
+            }
+        }
+        return values;
+    }
+
+    @Test
+    public void testRollsOnRecordCount() throws Exception {
+        JsonRollingParquetWriter writer = builder().withMaxRecords(4).build();
+        write(writer, 0, 10);
+        writer.close();
+
+        List<PartFile> parts = writer.getManifest();
+        assertEquals(3, parts.size());
+        assertEquals(4, parts.get(0).getRecordCount());
+        assertEquals(4, parts.get(1).getRecordCount());
+        assertEquals(2, parts.get(2).getRecordCount());
+        assertEquals("part-00002.parquet", parts.get(2).getPath().getName());
+        assertEquals(parts, completed);
+
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            expected.add(i);
+        }
+        assertEquals(expected, readInts(parts));
+    }
+
+    @Test
+    public void testRollsOnSize() throws Exception {
+        JsonRollingParquetWriter writer = builder().withMaxBytes(1).withMaxPendingFiles(1).build();
+        write(writer, 0, 200);
+        writer.close();
+
+        List<PartFile> parts = writer.getManifest();
+        assertEquals(4, parts.size());
+        assertEquals(64, parts.get(0).getRecordCount());
+        assertEquals(8, parts.get(3).getRecordCount());
+        assertEquals(200, readInts(parts).size());
+    }
+
+    @Test
+    public void testRollsOnAgeAndOnDemand() throws Exception {
+        JsonRollingParquetWriter writer = builder().withMaxDuration(Duration.ofHours(1)).build();
+        write(writer, 0, 3);
+        writer.roll();
+        // nothing written since the last roll
+        writer.roll();
+        write(writer, 3, 5);
+        writer.close();
+
+        List<PartFile> parts = writer.getManifest();
+        assertEquals(2, parts.size());
+        assertEquals(3, parts.get(0).getRecordCount());
+        assertEquals(2, parts.get(1).getRecordCount());
+        assertNotEquals(parts.get(0).getPath(), parts.get(1).getPath());
+        assertTrue(parts.get(1).getFileSize() > 0);
+    }
+
+    @Test
+    public void testNothingWritten() throws Exception {
+        JsonRollingParquetWriter writer = builder().withMaxRecords(4).build();
+        writer.close();
+
+        assertTrue(writer.getManifest().isEmpty());
+        assertEquals(0, folder.getRoot().list().length);
+    }
+
+    @Test
+    public void testKeepsOnlyPendingFiles() throws Exception {
+        JsonRollingParquetWriter writer = builder().withMaxRecords(1).withMaxPendingFiles(2).build();
+        write(writer, 0, 50);
+        assertTrue(writer.pendingFiles() <= 2);
+        writer.flush();
+        assertEquals(0, writer.pendingFiles());
+        writer.close();
+
+        assertEquals(50, writer.getManifest().size());
+        assertEquals(completed, writer.getManifest());
+    }
+
+    @Test
+    public void testWritesWithSavedPlan() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonWritePlan.of(getSchema("TestPrimitives")).writeTo(out);
+        JsonWritePlan loaded = JsonWritePlan.readFrom(new ByteArrayInputStream(out.toByteArray()));
+
+        JsonRollingParquetWriter writer = JsonRollingParquetWriter.Builder(new Path(folder.getRoot().toURI()))
+                .withWritePlan(loaded)
+                .withMaxRecords(2)
+                .build();
+        write(writer, 0, 5);
+        writer.close();
+
+        List<PartFile> parts = writer.getManifest();
+        assertEquals(3, parts.size());
+        assertEquals(List.of(0, 1, 2, 3, 4), readInts(parts));
+    }
+}
@@ -7,6 +7,7 @@ import io.swagger.v3.oas.models.media.ObjectSchema;
 import io.swagger.v3.parser.OpenAPIV3Parser;
 import java.io.File;
 import java.util.Objects;
+import org.apache.parquet.schema.LogicalTypeAnnotation.TimeUnit;
 import org.apache.parquet.schema.MessageType;
 import org.apache.parquet.schema.MessageTypeParser;
 import org.junit.BeforeClass;
@@ -64,6 +65,89 @@ public class JsonSchemaConverterTest {
         testConversion(TypeName, expectedSchema);
     }
 
+    @Test
+    public void testConvertUuid() throws Exception {
+        String expectedSchema =
+                "message TestUuid {\n" +
+                        "  required fixed_len_byte_array(16) id (UUID);\n" +
+                        "  optional fixed_len_byte_array(16) parent_id (UUID);\n" +
+                        "  required group related_ids (LIST) {\n" +
+                        "    repeated group list {\n" +
+                        "      required fixed_len_byte_array(16) element (UUID);\n" +
+                        "    }\n" +
+                        "  }\n" +
+                        "}";
+
+        testConversion("TestUuid", expectedSchema);
+    }
+
+    @Test
+    public void testConvertUuidAsString() throws Exception {
+        JsonWriteOptions options = JsonWriteOptions.builder().withUuidAsString(true).build();
+        MessageType targetSchema = new JsonSchemaConverter(options).convert(getSchema("TestUuid"));
+
+        assertEquals("required binary id (STRING)", targetSchema.getType("id").toString());
+    }
+
+    @Test
+    public void testConvertEnum() throws Exception {
+        String expectedSchema =
+                "message TestEnum {\n" +
+                        "  required binary status (ENUM);\n" +
+                        "  optional binary channel (ENUM);\n" +
+                        "  required group flags (LIST) {\n" +
+                        "    repeated group list {\n" +
+                        "      required binary element (ENUM);\n" +
+                        "    }\n" +
+                        "  }\n" +
+                        "}";
+
+        testConversion("TestEnum", expectedSchema);
+    }
+
+    @Test
+    public void testConvertDecimal() throws Exception {
+        String expectedSchema =
+                "message TestDecimal {\n" +
+                        "  required int64 price (DECIMAL(18,2));\n" +
+                        "  required int32 rate (DECIMAL(9,4));\n" +
+                        "  optional fixed_len_byte_array(13) total (DECIMAL(30,6));\n" +
+                        "  required group amounts (LIST) {\n" +
+                        "    repeated group list {\n" +
+                        "      required int64 element (DECIMAL(18,2));\n" +
+                        "    }\n" +
+                        "  }\n" +
+                        "}";
+
+        testConversion("TestDecimal", expectedSchema);
+    }
+
+    @Test
+    public void testConvertTimestamp() throws Exception {
+        String expectedSchema =
+                "message TestTimestamp {\n" +
+                        "  required int64 created_at (TIMESTAMP(MILLIS,true));\n" +
+                        "  required int64 event_time (TIMESTAMP(MICROS,true));\n" +
+                        "  required int64 local_time (TIMESTAMP(NANOS,false));\n" +
+                        "}";
+
+        testConversion("TestTimestamp", expectedSchema);
+    }
+
+    @Test
+    public void testConvertTimestampWithOptions() throws Exception {
+        JsonWriteOptions options = JsonWriteOptions.builder()
+                .withTimestampUnit(TimeUnit.MICROS)
+                .withTimestampAdjustedToUTC(false)
+                .build();
+        MessageType targetSchema = new JsonSchemaConverter(options).convert(getSchema("TestTimestamp"));
+
+        assertEquals("required int64 created_at (TIMESTAMP(MICROS,false))", targetSchema.getType("created_at").toString());
+        // the extension only sets the unit
+        assertEquals("required int64 event_time (TIMESTAMP(MICROS,false))", targetSchema.getType("event_time").toString());
+        assertEquals("required int64 local_time (TIMESTAMP(NANOS,false))", targetSchema.getType("local_time").toString());
+    }
+
     @Test
     public void testConvertArrayOfPrimitiveTypes() throws Exception {
         String TypeName = "TestArraysPrimitives";
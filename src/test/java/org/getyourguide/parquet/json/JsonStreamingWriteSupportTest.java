@@ -0,0 +1,287 @@
+package org.getyourguide.parquet.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.io.RecordConsumerLoggingWrapper;
+import org.apache.parquet.io.api.Binary;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+public class JsonStreamingWriteSupportTest extends JsonParquetTest {
+    private static final JsonFactory FACTORY = new JsonFactory();
+    private RecordConsumerLoggingWrapper readConsumerMock;
+
+    @Before
+    public void init() {
+        readConsumerMock = Mockito.mock(RecordConsumerLoggingWrapper.class);
+    }
+
+    private JsonStreamingWriteSupport getWriter(String schemaName) throws Exception {
+        JsonStreamingWriteSupport support = new JsonStreamingWriteSupport(getSchema(schemaName));
+        support.init(new Configuration());
+        support.prepareForWrite(new CopyingRecordConsumer(readConsumerMock));
+        return support;
+    }
+
+    private JsonParser exampleParser(String schemaName) throws Exception {
+        return FACTORY.createParser(new ObjectMapper().writeValueAsString(getExample(schemaName)));
+    }
+
+    @Test
+    public void testPrimitives() throws Exception {
+        String TypeName = "TestPrimitives";
+
+        JsonStreamingWriteSupport support = getWriter(TypeName);
+        support.write(exampleParser(TypeName));
+
+        InOrder inOrder = Mockito.inOrder(readConsumerMock);
+
+        inOrder.verify(readConsumerMock).startMessage();
+
+        inOrder.verify(readConsumerMock).startField("key_string", 0);
+        inOrder.verify(readConsumerMock).addBinary(Binary.fromString("hello"));
+        inOrder.verify(readConsumerMock).endField("key_string", 0);
+
+        inOrder.verify(readConsumerMock).startField("key_int32", 1);
+        inOrder.verify(readConsumerMock).addInteger(32);
+        inOrder.verify(readConsumerMock).endField("key_int32", 1);
+
+        inOrder.verify(readConsumerMock).startField("key_int64", 2);
+        inOrder.verify(readConsumerMock).addLong(64);
+        inOrder.verify(readConsumerMock).endField("key_int64", 2);
+
+        inOrder.verify(readConsumerMock).startField("key_float", 3);
+        inOrder.verify(readConsumerMock).addFloat((float) 10.10);
+        inOrder.verify(readConsumerMock).endField("key_float", 3);
+
+        inOrder.verify(readConsumerMock).startField("key_double", 4);
+        inOrder.verify(readConsumerMock).addDouble(10.101);
+        inOrder.verify(readConsumerMock).endField("key_double", 4);
+
+        inOrder.verify(readConsumerMock).startField("is_true", 5);
+        inOrder.verify(readConsumerMock).addBoolean(true);
+        inOrder.verify(readConsumerMock).endField("is_true", 5);
+
+        inOrder.verify(readConsumerMock).startField("date", 6);
+        inOrder.verify(readConsumerMock).addInteger(18433);
+        inOrder.verify(readConsumerMock).endField("date", 6);
+
+        inOrder.verify(readConsumerMock).startField("datetime", 7);
+        inOrder.verify(readConsumerMock).addLong(1592647810000L);
+        inOrder.verify(readConsumerMock).endField("datetime", 7);
+
+        inOrder.verify(readConsumerMock).startField("key_bytes_from_string", 8);
+        inOrder.verify(readConsumerMock).addBinary(Binary.fromString("Hello world!"));
+        inOrder.verify(readConsumerMock).endField("key_bytes_from_string", 8);
+
+        inOrder.verify(readConsumerMock).endMessage();
+        Mockito.verifyNoMoreInteractions(readConsumerMock);
+    }
+
+    @Test
+    public void testContainersInFloatingPointFieldsAreSkipped() throws Exception {
+        JsonStreamingWriteSupport support = getWriter("TestPrimitives");
+        JsonParser parser = FACTORY.createParser("{\"key_float\": {\"key_string\": \"evil\"}, \"key_string\": \"hello\"}\n"
+            + "{\"key_double\": [1.5, {\"key_int32\": 7}], \"key_int32\": 5, \"key_string\": \"again\"}");
+
+        support.write(parser);
+        support.write(parser);
+
+        InOrder inOrder = Mockito.inOrder(readConsumerMock);
+        inOrder.verify(readConsumerMock).startMessage();
+        inOrder.verify(readConsumerMock).startField("key_string", 0);
+        inOrder.verify(readConsumerMock).addBinary(Binary.fromString("hello"));
+        inOrder.verify(readConsumerMock).endField("key_string", 0);
+        inOrder.verify(readConsumerMock).endMessage();
+        inOrder.verify(readConsumerMock).startMessage();
+        inOrder.verify(readConsumerMock).startField("key_int32", 1);
+        inOrder.verify(readConsumerMock).addInteger(5);
+        inOrder.verify(readConsumerMock).endField("key_int32", 1);
+        inOrder.verify(readConsumerMock).endMessage();
+
+        Mockito.verify(readConsumerMock, Mockito.never()).addBinary(Binary.fromString("evil"));
+        Mockito.verify(readConsumerMock, Mockito.never()).addInteger(7);
+        Mockito.verify(readConsumerMock, Mockito.never()).addFloat(Mockito.anyFloat());
+        Mockito.verify(readConsumerMock, Mockito.never()).addDouble(Mockito.anyDouble());
+        Assert.assertNull(parser.nextToken());
+    }
+
+    @Test
+    public void testPayloadOrderAndUnknownFields() throws Exception {
+        JsonStreamingWriteSupport support = getWriter("TestDeeperNestedStructure");
+        support.write(FACTORY.createParser("{\"1st_level_key_nested\": {\"key2\": \"Olla!\", \"unknown\": [1, {\"a\": 2}], \"key1\": {}},"
+            + " \"1st_level_key1\": \"Hello\"}"));
+
+        InOrder inOrder = Mockito.inOrder(readConsumerMock);
+
+        inOrder.verify(readConsumerMock).startMessage();
+
+        inOrder.verify(readConsumerMock).startField("1st_level_key_nested", 1);
+        inOrder.verify(readConsumerMock).startGroup();
+        inOrder.verify(readConsumerMock).startField("key2", 1);
+        inOrder.verify(readConsumerMock).addBinary(Binary.fromString("Olla!"));
+        inOrder.verify(readConsumerMock).endField("key2", 1);
+        inOrder.verify(readConsumerMock).startField("key1", 0);
+        inOrder.verify(readConsumerMock).startGroup();
+        inOrder.verify(readConsumerMock).endGroup();
+        inOrder.verify(readConsumerMock).endField("key1", 0);
+        inOrder.verify(readConsumerMock).endGroup();
+        inOrder.verify(readConsumerMock).endField("1st_level_key_nested", 1);
+
+        inOrder.verify(readConsumerMock).startField("1st_level_key1", 0);
+        inOrder.verify(readConsumerMock).addBinary(Binary.fromString("Hello"));
+        inOrder.verify(readConsumerMock).endField("1st_level_key1", 0);
+
+        inOrder.verify(readConsumerMock).endMessage();
+        Mockito.verifyNoMoreInteractions(readConsumerMock);
+    }
+
+    @Test
+    public void testArraysOfObjectsAndEmptyArrays() throws Exception {
+        JsonStreamingWriteSupport support = getWriter("TestArraysOfObjects");
+        JsonParser parser = FACTORY.createParser("{\"array_key\": [{\"key_a\": \"hello\", \"key_b\": \"goodbye\"}]}\n"
+            + "{\"array_key\": []}");
+
+        support.write(parser);
+        support.write(parser);
+
+        InOrder inOrder = Mockito.inOrder(readConsumerMock);
+
+        inOrder.verify(readConsumerMock).startMessage();
+
+        inOrder.verify(readConsumerMock).startField("array_key", 0);
+        inOrder.verify(readConsumerMock).startGroup();
+        inOrder.verify(readConsumerMock).startField("list", 0);
+        inOrder.verify(readConsumerMock).startGroup();
+        inOrder.verify(readConsumerMock).startField("element", 0);
+        inOrder.verify(readConsumerMock).startGroup();
+        inOrder.verify(readConsumerMock).startField("key_a", 0);
+        inOrder.verify(readConsumerMock).addBinary(Binary.fromString("hello"));
+        inOrder.verify(readConsumerMock).endField("key_a", 0);
+        inOrder.verify(readConsumerMock).startField("key_b", 1);
+        inOrder.verify(readConsumerMock).addBinary(Binary.fromString("goodbye"));
+        inOrder.verify(readConsumerMock).endField("key_b", 1);
+        inOrder.verify(readConsumerMock).endGroup();
+        inOrder.verify(readConsumerMock).endField("element", 0);
+        inOrder.verify(readConsumerMock).endGroup();
+        inOrder.verify(readConsumerMock).endField("list", 0);
+        inOrder.verify(readConsumerMock).endGroup();
+        inOrder.verify(readConsumerMock).endField("array_key", 0);
+
+        inOrder.verify(readConsumerMock).endMessage();
+
+        // the empty array is omitted
+        inOrder.verify(readConsumerMock).startMessage();
+        inOrder.verify(readConsumerMock).endMessage();
+        Mockito.verifyNoMoreInteractions(readConsumerMock);
+    }
+
+    @Test
+    public void testMapObjectStructure() throws Exception {
+        String TypeName = "TestMapStructureofObject";
+
+        JsonStreamingWriteSupport support = getWriter(TypeName);
+        support.write(exampleParser(TypeName));
+
+        InOrder inOrder = Mockito.inOrder(readConsumerMock);
+
+        inOrder.verify(readConsumerMock).startMessage();
+        inOrder.verify(readConsumerMock).startField("map_key", 0);
+        inOrder.verify(readConsumerMock).startGroup();
+        inOrder.verify(readConsumerMock).startField("key_value", 0);
+
+        inOrder.verify(readConsumerMock).startGroup();
+        inOrder.verify(readConsumerMock).startField("key", 0);
+        inOrder.verify(readConsumerMock).addBinary(Binary.fromString("en"));
+        inOrder.verify(readConsumerMock).endField("key", 0);
+        inOrder.verify(readConsumerMock).startField("value", 1);
+        inOrder.verify(readConsumerMock).startGroup();
+        inOrder.verify(readConsumerMock).startField("name", 0);
+        inOrder.verify(readConsumerMock).addBinary(Binary.fromString("english"));
+        inOrder.verify(readConsumerMock).endField("name", 0);
+        inOrder.verify(readConsumerMock).startField("text", 1);
+        inOrder.verify(readConsumerMock).addBinary(Binary.fromString("hello"));
+        inOrder.verify(readConsumerMock).endField("text", 1);
+        inOrder.verify(readConsumerMock).endGroup();
+        inOrder.verify(readConsumerMock).endField("value", 1);
+        inOrder.verify(readConsumerMock).endGroup();
+
+        inOrder.verify(readConsumerMock).startGroup();
+        inOrder.verify(readConsumerMock).startField("key", 0);
+        inOrder.verify(readConsumerMock).addBinary(Binary.fromString("de"));
+        inOrder.verify(readConsumerMock).endField("key", 0);
+        inOrder.verify(readConsumerMock).startField("value", 1);
+        inOrder.verify(readConsumerMock).startGroup();
+        inOrder.verify(readConsumerMock).startField("name", 0);
+        inOrder.verify(readConsumerMock).addBinary(Binary.fromString("german"));
+        inOrder.verify(readConsumerMock).endField("name", 0);
+        inOrder.verify(readConsumerMock).startField("text", 1);
+        inOrder.verify(readConsumerMock).addBinary(Binary.fromString("hallo"));
+        inOrder.verify(readConsumerMock).endField("text", 1);
+        inOrder.verify(readConsumerMock).endGroup();
+        inOrder.verify(readConsumerMock).endField("value", 1);
+        inOrder.verify(readConsumerMock).endGroup();
+
+        inOrder.verify(readConsumerMock).endField("key_value", 0);
+        inOrder.verify(readConsumerMock).endGroup();
+        inOrder.verify(readConsumerMock).endField("map_key", 0);
+        inOrder.verify(readConsumerMock).endMessage();
+
+        Mockito.verifyNoMoreInteractions(readConsumerMock);
+    }
+
+    @Test(expected = RequiredFieldException.class)
+    public void testMissingRequiredField() throws Exception {
+        String TypeName = "NullInPayload";
+
+        JsonStreamingWriteSupport support = getWriter(TypeName);
+        support.write(exampleParser(TypeName));
+    }
+
+
+    @Test
+    public void testEnum() throws Exception {
+        JsonStreamingWriteSupport support = getWriter("TestEnum");
+        support.write(exampleParser("TestEnum"));
+
+        InOrder inOrder = Mockito.inOrder(readConsumerMock);
+        inOrder.verify(readConsumerMock).startField("status", 0);
+        inOrder.verify(readConsumerMock).addBinary(Binary.fromString("PENDING"));
+        inOrder.verify(readConsumerMock).startField("channel", 1);
+        inOrder.verify(readConsumerMock).addBinary(Binary.fromString("app"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testValueNotInEnum() throws Exception {
+        getWriter("TestEnum").write(FACTORY.createParser("{\"status\": \"REFUNDED\", \"flags\": []}"));
+    }
+
+    @Test
+    public void testDecimal() throws Exception {
+        JsonStreamingWriteSupport support = getWriter("TestDecimal");
+        support.write(FACTORY.createParser("{\"price\": 12.34, \"rate\": \"0.0525\", \"total\": 1e2, \"amounts\": []}"));
+
+        InOrder inOrder = Mockito.inOrder(readConsumerMock);
+        inOrder.verify(readConsumerMock).addLong(1234);
+        inOrder.verify(readConsumerMock).addInteger(525);
+        inOrder.verify(readConsumerMock).addBinary(Binary.fromConstantByteArray(
+                new byte[]{0, 0, 0, 0, 0, 0, 0, 0, 0, 0x05, (byte) 0xF5, (byte) 0xE1, 0}));
+    }
+
+    @Test
+    public void testTimestampUnitsAndEpochNumbers() throws Exception {
+        JsonStreamingWriteSupport support = getWriter("TestTimestamp");
+        support.write(FACTORY.createParser("{\"created_at\": \"2020-06-20T10:10:10.123Z\", "
+                + "\"event_time\": 1592647810123456, \"local_time\": \"2020-06-20T10:10:10\"}"));
+
+        InOrder inOrder = Mockito.inOrder(readConsumerMock);
+        inOrder.verify(readConsumerMock).addLong(1592647810123L);
+        inOrder.verify(readConsumerMock).addLong(1592647810123456L);
+        inOrder.verify(readConsumerMock).addLong(1592647810000000000L);
+    }
+}
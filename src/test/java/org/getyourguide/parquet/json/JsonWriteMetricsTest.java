@@ -0,0 +1,90 @@
+package org.getyourguide.parquet.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.Map;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.io.RecordConsumerLoggingWrapper;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class JsonWriteMetricsTest extends JsonParquetTest {
+
+    private JsonWriteSupport<JsonNode> getWriter(String schemaName, JsonWriteOptions options) throws Exception {
+        JsonWriteSupport<JsonNode> support = new JsonWriteSupport<>(getSchema(schemaName), options);
+        support.init(new Configuration());
+        support.prepareForWrite(Mockito.mock(RecordConsumerLoggingWrapper.class));
+        return support;
+    }
+
+    @Test
+    public void testPrimitives() throws Exception {
+        JsonWriteMetrics metrics = new JsonWriteMetrics();
+        JsonWriteSupport<JsonNode> support = getWriter("TestPrimitives", JsonWriteOptions.builder()
+                .withWriteDefault(true)
+                .withNullAsDefault(true)
+                .withMetrics(metrics)
+                .build());
+
+        ObjectNode record = getExample("TestPrimitives").deepCopy();
+        record.remove("key_int32");
+        record.putNull("key_int64");
+        record.put("is_true", "not a boolean");
+        support.write(record);
+        support.write(getExample("TestPrimitives"));
+
+        Map<String, JsonWriteMetrics.FieldMetrics> snapshot = metrics.snapshot();
+
+        assertEquals(2, snapshot.get("key_string").getValues());
+        assertEquals(10, snapshot.get("key_string").getBytes());
+
+        assertEquals(2, snapshot.get("key_int32").getValues());
+        assertEquals(1, snapshot.get("key_int32").getDefaults());
+        assertEquals(0, snapshot.get("key_int32").getNulls());
+
+        assertEquals(2, snapshot.get("key_int64").getValues());
+        assertEquals(1, snapshot.get("key_int64").getNulls());
+        assertEquals(1, snapshot.get("key_int64").getDefaults());
+        assertEquals(16, snapshot.get("key_int64").getBytes());
+
+        assertEquals(1, snapshot.get("is_true").getValues());
+        assertEquals(1, snapshot.get("is_true").getTypeMismatches());
+
+        assertEquals(24, snapshot.get("key_bytes_from_string").getBytes());
+
+        metrics.reset();
+        assertEquals(0, metrics.snapshot().get("key_string").getValues());
+    }
+
+    @Test
+    public void testNestedPathsAndStreaming() throws Exception {
+        JsonWriteMetrics metrics = new JsonWriteMetrics();
+        JsonWriteOptions options = JsonWriteOptions.builder().withMetrics(metrics).build();
+
+        getWriter("TestArraysPrimitives", options).write(getExample("TestArraysPrimitives"));
+
+        JsonStreamingWriteSupport streaming = new JsonStreamingWriteSupport(getSchema("TestArraysPrimitives"), options);
+        streaming.init(new Configuration());
+        streaming.prepareForWrite(Mockito.mock(RecordConsumerLoggingWrapper.class));
+        streaming.write(new JsonFactory().createParser(
+                new ObjectMapper().writeValueAsString(getExample("TestArraysPrimitives"))));
+
+        Map<String, JsonWriteMetrics.FieldMetrics> snapshot = metrics.snapshot();
+
+        assertEquals(2, snapshot.get("array_string").getValues());
+        assertEquals(8, snapshot.get("array_string.list.element").getValues());
+        assertTrue(snapshot.containsKey("array_int.list.element"));
+        assertEquals(0, snapshot.get("array_int").getValues());
+    }
+
+    @Test
+    public void testDisabledByDefault() throws Exception {
+        assertEquals(null, JsonWriteOptions.defaults().getMetrics());
+        getWriter("TestPrimitives", JsonWriteOptions.defaults()).write(getExample("TestPrimitives"));
+    }
+}
@@ -0,0 +1,153 @@
+package org.getyourguide.parquet.json;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.getyourguide.parquet.json.JsonWritePlan.Kind;
+import org.getyourguide.parquet.json.JsonWritePlan.Node;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JsonWritePlanTest extends JsonParquetTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static JsonWritePlan roundTrip(JsonWritePlan plan) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        plan.writeTo(out);
+        return JsonWritePlan.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    private static void assertSameNode(Node expected, Node actual) {
+        assertEquals(expected.kind, actual.kind);
+        assertEquals(expected.name, actual.name);
+        assertEquals(expected.index, actual.index);
+        assertEquals(expected.required, actual.required);
+        assertEquals(expected.defaultValue, actual.defaultValue);
+        assertArrayEquals(expected.symbols, actual.symbols);
+        assertEquals(expected.logicalType, actual.logicalType);
+        if (expected.fields != null) {
+            assertEquals(expected.fields.length, actual.fields.length);
+            assertArrayEquals(expected.checkedFields, actual.checkedFields);
+            for (int i = 0; i < expected.fields.length; i++) {
+                assertEquals(i, actual.fieldIndexes.get(expected.fields[i].name));
+                assertSameNode(expected.fields[i], actual.fields[i]);
+            }
+        }
+        if (expected.element != null) {
+            assertSameNode(expected.element, actual.element);
+        }
+    }
+
+    private static ObjectSchema generatedSchema(String name) {
+        ObjectSchema schema = new ObjectSchema();
+        schema.setTitle(name);
+        schema.addProperty(name.toLowerCase(), new StringSchema());
+        return schema;
+    }
+
+    @Test
+    public void testEqualSchemasShareThePlan() {
+        ObjectSchema schema = generatedSchema("Shared");
+        ObjectSchema copy = generatedSchema("Shared");
+
+        JsonWritePlan plan = JsonWritePlan.of(schema);
+        assertSame(plan, JsonWritePlan.of(copy));
+        assertNotSame(plan, JsonWritePlan.of(schema, JsonWriteOptions.builder().withUuidAsString(true).build()));
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        for (int i = 0; i <= JsonWritePlan.MAX_CACHED_PLANS; i++) {
+            JsonWritePlan.of(generatedSchema("Generated" + i));
+        }
+
+        assertEquals(JsonWritePlan.MAX_CACHED_PLANS, JsonWritePlan.cachedPlans());
+    }
+
+    @Test
+    public void testPlanIsCachedByFingerprint() throws Exception {
+        ObjectSchema schema = getSchema("TestPrimitives");
+
+        JsonWritePlan plan = JsonWritePlan.of(schema);
+
+        assertSame(plan, JsonWritePlan.of(schema));
+        assertEquals(new JsonSchemaConverter().convert(schema), plan.getSchema());
+    }
+
+    @Test
+    public void testDefaultsAreConverted() throws Exception {
+        Node root = JsonWritePlan.of(getSchema("TestPrimitives")).getRoot();
+
+        Node date = root.fields[root.fieldIndexes.get("date")];
+        assertEquals(Kind.DATE, date.kind);
+        assertEquals("2020-01-01", date.defaultValue.asText());
+        assertFalse(date.required);
+
+        Node keyString = root.fields[0];
+        assertEquals("key_string", keyString.name);
+        assertEquals("a string", keyString.defaultValue.asText());
+        assertTrue(keyString.required);
+
+        assertNull(root.fields[root.fieldIndexes.get("key_bytes_from_string")].defaultValue);
+    }
+
+    @Test
+    public void testNestedPlan() throws Exception {
+        Node root = JsonWritePlan.of(getSchema("TestMapStructureOfArrayOfObjects")).getRoot();
+
+        Node map = root.fields[0];
+        assertEquals(Kind.MAP, map.kind);
+        assertEquals(Kind.ARRAY, map.element.kind);
+        assertEquals(Kind.OBJECT, map.element.element.kind);
+        assertEquals("name", map.element.element.fields[0].name);
+    }
+
+    @Test
+    public void testSavedPlanRoundTrip() throws Exception {
+        for (String name : new String[]{"TestPrimitives", "TestNestedStructure", "TestMapStructureOfArrayOfObjects",
+                "TestEnum", "TestDecimal", "TestDottedNames"}) {
+            JsonWritePlan plan = JsonWritePlan.of(getSchema(name));
+            JsonWritePlan loaded = roundTrip(plan);
+
+            assertEquals(plan.getFingerprint(), loaded.getFingerprint());
+            assertEquals(plan.getSchema(), loaded.getSchema());
+            assertSameNode(plan.getRoot(), loaded.getRoot());
+        }
+    }
+
+    @Test
+    public void testWriteWithSavedPlan() throws Exception {
+        JsonWritePlan loaded = roundTrip(JsonWritePlan.of(getSchema("TestPrimitives")));
+        JsonNode example = getExample("TestPrimitives");
+        Path path = new Path(folder.getRoot().toURI().resolve("plan.parquet"));
+
+        try (ParquetWriter<JsonNode> writer = JsonParquetWriter.Builder(path).withWritePlan(loaded).build()) {
+            writer.write(example);
+        }
+        try (ParquetReader<JsonNode> reader = JsonParquetReader.Builder(path).build()) {
+            assertEquals(example.get("key_int64").asLong(), reader.read().get("key_int64").asLong());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotAPlan() throws Exception {
+        JsonWritePlan.read(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5}));
+    }
+}
@@ -24,7 +24,7 @@ public class JsonWriteSupportTest extends JsonParquetTest {
     private JsonWriteSupport getWriter(String schemaName) throws Exception {
         JsonWriteSupport support = new JsonWriteSupport(getSchema(schemaName));
         support.init(new Configuration());
-        support.prepareForWrite(readConsumerMock);
+        support.prepareForWrite(new CopyingRecordConsumer(readConsumerMock));
         return support;
     }
 
@@ -86,7 +86,7 @@ public class JsonWriteSupportTest extends JsonParquetTest {
         ObjectMapper mapper = new ObjectMapper();
         JsonWriteSupport support = new JsonWriteSupport(getSchema(TypeName), true, false);
         support.init(new Configuration());
-        support.prepareForWrite(readConsumerMock);
+        support.prepareForWrite(new CopyingRecordConsumer(readConsumerMock));
 
         String json = "\"{}\"";
         JsonNode payload = mapper.readTree(json);
@@ -133,6 +133,71 @@ public class JsonWriteSupportTest extends JsonParquetTest {
         Mockito.verifyNoMoreInteractions(readConsumerMock);
     }
 
+    @Test
+    public void testPayloadDrivenIteration() throws Exception {
+        String TypeName = "TestPrimitives";
+
+        JsonWriteSupport support = new JsonWriteSupport(getSchema(TypeName), JsonWriteOptions.builder()
+                .withWriteDefault(true)
+                .withPayloadDrivenIteration(true)
+                .build());
+        support.init(new Configuration());
+        support.prepareForWrite(new CopyingRecordConsumer(readConsumerMock));
+
+        JsonNode payload = new ObjectMapper().readTree(
+                "{\"datetime\":\"2020-06-20T10:10:10.000Z\",\"unknown\":1,\"key_string\":\"hello\",\"key_float\":null}");
+
+        support.write(payload);
+
+        InOrder inOrder = Mockito.inOrder(readConsumerMock);
+
+        inOrder.verify(readConsumerMock).startMessage();
+
+        // fields present in the payload, in payload order
+        inOrder.verify(readConsumerMock).startField("datetime", 7);
+        inOrder.verify(readConsumerMock).addLong(1592647810000L);
+        inOrder.verify(readConsumerMock).endField("datetime", 7);
+
+        inOrder.verify(readConsumerMock).startField("key_string", 0);
+        inOrder.verify(readConsumerMock).addBinary(Binary.fromString("hello"));
+        inOrder.verify(readConsumerMock).endField("key_string", 0);
+
+        // then the defaults of the missing fields, in schema order
+        inOrder.verify(readConsumerMock).startField("key_int32", 1);
+        inOrder.verify(readConsumerMock).addInteger(1);
+        inOrder.verify(readConsumerMock).endField("key_int32", 1);
+
+        inOrder.verify(readConsumerMock).startField("key_int64", 2);
+        inOrder.verify(readConsumerMock).addLong(1);
+        inOrder.verify(readConsumerMock).endField("key_int64", 2);
+
+        inOrder.verify(readConsumerMock).startField("key_double", 4);
+        inOrder.verify(readConsumerMock).addDouble(1.101);
+        inOrder.verify(readConsumerMock).endField("key_double", 4);
+
+        inOrder.verify(readConsumerMock).startField("is_true", 5);
+        inOrder.verify(readConsumerMock).addBoolean(true);
+        inOrder.verify(readConsumerMock).endField("is_true", 5);
+
+        inOrder.verify(readConsumerMock).startField("date", 6);
+        inOrder.verify(readConsumerMock).addInteger(18262);
+        inOrder.verify(readConsumerMock).endField("date", 6);
+
+        inOrder.verify(readConsumerMock).endMessage();
+        Mockito.verifyNoMoreInteractions(readConsumerMock);
+    }
+
+    @Test(expected = RequiredFieldException.class)
+    public void testPayloadDrivenIterationMissingRequired() throws Exception {
+        JsonWriteSupport support = new JsonWriteSupport(getSchema("TestPrimitives"), JsonWriteOptions.builder()
+                .withPayloadDrivenIteration(true)
+                .build());
+        support.init(new Configuration());
+        support.prepareForWrite(new CopyingRecordConsumer(readConsumerMock));
+
+        support.write(new ObjectMapper().readTree("{\"key_int32\":32}"));
+    }
+
     @Test
     public void testArraysOfPrimitives() throws Exception {
         String TypeName = "TestArraysPrimitives";
@@ -187,7 +252,7 @@ public class JsonWriteSupportTest extends JsonParquetTest {
 
         JsonWriteSupport support = new JsonWriteSupport(getSchema(TypeName), true, false);
         support.init(new Configuration());
-        support.prepareForWrite(readConsumerMock);
+        support.prepareForWrite(new CopyingRecordConsumer(readConsumerMock));
 
         String json = "{\"array_string\": null, \"array_bool\": null}";
         JsonNode payload = mapper.readTree(json);
@@ -0,0 +1,292 @@
+package org.getyourguide.parquet.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+
+public class RejectedRecordHandlerTest extends JsonParquetTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final List<String> rejections = new ArrayList<>();
+    private final RejectedRecordHandler handler =
+            (record, fieldPath, reason) -> rejections.add(fieldPath + " " + (record == null ? null : record.get("key_int32")));
+
+    private Path path(String name) {
+        return new Path(folder.getRoot().toURI().resolve(name));
+    }
+
+    private List<Integer> readInts(Path path) throws Exception {
+        List<Integer> values = new ArrayList<>();
+        try (ParquetReader<JsonNode> reader = JsonParquetReader.Builder(path).build()) {
+            for (JsonNode record = reader.read(); record != null; record = reader.read()) {
+                values.add(record.get("key_int32").intValue());
+            }
+        }
+        return values;
+    }
+
+    private ObjectNode record(int i) throws Exception {
+        ObjectNode record = getExample("TestPrimitives").deepCopy();
+        record.put("key_int32", i);
+        return record;
+    }
+
+    @Test
+    public void testRejectedRecordsAreSkipped() throws Exception {
+        JsonWriteMetrics metrics = new JsonWriteMetrics();
+        Path path = path("rejected.parquet");
+        JsonRecordWriter writer = JsonParquetWriter.Builder(path)
+                .withSchema(getSchema("TestPrimitives"))
+                .withOptions(JsonWriteOptions.builder()
+                        .withRejectedRecordHandler(handler)
+                        .withMetrics(metrics)
+                        .build())
+                .buildRecordWriter();
+
+        for (int i = 0; i < 6; i++) {
+            ObjectNode record = record(i);
+            if (i == 1) {
+                record.put("is_true", "yes");
+            } else if (i == 3) {
+                record.remove("key_string");
+            } else if (i == 4) {
+                record.put("datetime", "not a date");
+            }
+
+            try {
+                writer.write(record);
+                assertFalse(i == 1 || i == 3 || i == 4);
+            } catch (RejectedRecordException e) {
+                assertTrue(i == 1 || i == 3 || i == 4);
+            }
+        }
+        writer.close();
+
+        assertEquals(Arrays.asList(0, 2, 5), readInts(path));
+        assertEquals(Arrays.asList("is_true 1", "key_string 3", "datetime 4"), rejections);
+        assertEquals(1, metrics.snapshot().get("is_true").getRejections());
+        assertEquals(1, metrics.snapshot().get("key_string").getRejections());
+        // key_int32 comes before the rejected fields of records 1 and 4
+        assertEquals(5, metrics.snapshot().get("key_int32").getValues());
+    }
+
+    @Test
+    public void testNestedFieldPath() throws Exception {
+        JsonWriteSupport<JsonNode> support = new JsonWriteSupport<>(getSchema("TestNestedStructure"),
+                JsonWriteOptions.builder().withRejectedRecordHandler(handler).build());
+        support.init(new org.apache.hadoop.conf.Configuration());
+        support.prepareForWrite(mock(org.apache.parquet.io.api.RecordConsumer.class));
+
+        try {
+            support.write(mapper.readTree("{\"simple_nested\": {\"key1\": \"2020-13-01\"}}"));
+        } catch (RejectedRecordException e) {
+            assertEquals("simple_nested.key1", e.getFieldPath());
+        }
+        assertEquals(Arrays.asList("simple_nested.key1 null"), rejections);
+    }
+
+    @Test
+    public void testStreamingResumesAfterRejectedRecord() throws Exception {
+        Path path = path("streaming.parquet");
+        JsonStreamingRecordWriter writer = JsonStreamingParquetWriter.Builder(path)
+                .withSchema(getSchema("TestPrimitives"))
+                .withOptions(JsonWriteOptions.builder().withRejectedRecordHandler(handler).build())
+                .buildRecordWriter();
+
+        ObjectNode invalid = record(1);
+        invalid.putObject("key_int64").put("nested", 1);
+        invalid.put("key_double", "invalid");
+        String input = record(0) + "\n" + invalid + "\n" + record(2);
+
+        int rejected = 0;
+        JsonParser parser = new JsonFactory().createParser(input);
+        while (parser.nextToken() != null) {
+            try {
+                writer.write(parser);
+            } catch (RejectedRecordException e) {
+                rejected++;
+            }
+        }
+        writer.close();
+
+        assertEquals(1, rejected);
+        assertEquals(Arrays.asList(0, 2), readInts(path));
+        assertEquals(Arrays.asList("key_int64 1"), rejections);
+    }
+
+    @Test
+    public void testStreamingHandsOverRejectedRecord() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        NdjsonRejectedRecordHandler ndjson = new NdjsonRejectedRecordHandler(out);
+        JsonStreamingRecordWriter writer = JsonStreamingParquetWriter.Builder(path("dead-letter.parquet"))
+                .withSchema(getSchema("TestPrimitives"))
+                .withOptions(JsonWriteOptions.builder().withRejectedRecordHandler(ndjson).build())
+                .buildRecordWriter();
+
+        // the failing field comes first, the rest of the record is skipped
+        ObjectNode invalid = mapper.createObjectNode();
+        invalid.putObject("key_int64").putArray("nested").add(1).addObject().put("deeper", true);
+        record(1).fields().forEachRemaining(field -> invalid.putIfAbsent(field.getKey(), field.getValue()));
+        invalid.put("key_double", "invalid");
+        JsonParser parser = new JsonFactory().createParser(record(0) + "\n" + invalid + "\n" + record(2));
+        while (parser.nextToken() != null) {
+            try {
+                writer.write(parser);
+            } catch (RejectedRecordException e) {
+                // in the dead letter file
+            }
+        }
+        writer.close();
+        ndjson.close();
+
+        String[] lines = out.toString(StandardCharsets.UTF_8.name()).split("\n");
+        assertEquals(1, lines.length);
+        JsonNode line = mapper.readTree(lines[0]);
+        assertEquals("key_int64", line.get("field").asText());
+        assertEquals(invalid, line.get("record"));
+        assertEquals(Arrays.asList(0, 2), readInts(path("dead-letter.parquet")));
+    }
+
+    @Test
+    public void testStreamingHandsOverEachRejectedRecord() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        NdjsonRejectedRecordHandler ndjson = new NdjsonRejectedRecordHandler(out);
+        JsonStreamingRecordWriter writer = JsonStreamingParquetWriter.Builder(path("recorded.parquet"))
+                .withSchema(getSchema("TestPrimitives"))
+                .withOptions(JsonWriteOptions.builder().withRejectedRecordHandler(ndjson).build())
+                .buildRecordWriter();
+
+        // the tokens are recorded into the same buffer for every record, rejected or not
+        ObjectNode first = record(1);
+        first.put("key_int32", "first");
+        ObjectNode second = record(3);
+        second.put("key_double", "second");
+        JsonParser parser = new JsonFactory().createParser(
+                record(0) + "\n" + first + "\n" + record(2) + "\n" + second + "\n" + record(4));
+        while (parser.nextToken() != null) {
+            try {
+                writer.write(parser);
+            } catch (RejectedRecordException e) {
+                // in the dead letter file
+            }
+        }
+        writer.close();
+        ndjson.close();
+
+        String[] lines = out.toString(StandardCharsets.UTF_8.name()).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(first, mapper.readTree(lines[0]).get("record"));
+        assertEquals(second, mapper.readTree(lines[1]).get("record"));
+        assertEquals(Arrays.asList(0, 2, 4), readInts(path("recorded.parquet")));
+    }
+
+    @Test
+    public void testBatchGoesOnAfterRejectedRecords() throws Exception {
+        Path path = path("batch.parquet");
+        JsonRecordWriter writer = JsonParquetWriter.Builder(path)
+                .withSchema(getSchema("TestPrimitives"))
+                .withOptions(JsonWriteOptions.builder().withRejectedRecordHandler(handler).build())
+                .buildRecordWriter();
+
+        List<JsonNode> records = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ObjectNode record = record(i);
+            if (i % 2 == 1) {
+                record.put("key_int32", "odd");
+            }
+            records.add(record);
+        }
+
+        JsonBatchResult result = writer.writeAll(records);
+        JsonBatchResult arrayResult = writer.writeAll(records.toArray(new JsonNode[0]), 1, 3);
+        writer.close();
+
+        assertEquals(3, result.getWritten());
+        assertEquals(2, result.getFailures().size());
+        assertEquals(1, result.getFailures().get(0).getIndex());
+        assertEquals(3, result.getFailures().get(1).getIndex());
+        assertEquals(1, arrayResult.getWritten());
+        assertEquals(0, arrayResult.getFailures().get(0).getIndex());
+        assertEquals(2, arrayResult.getFailures().get(1).getIndex());
+        assertEquals(Arrays.asList(0, 2, 4, 2), readInts(path));
+    }
+
+    @Test
+    public void testNdjsonHandler() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        NdjsonRejectedRecordHandler ndjson = new NdjsonRejectedRecordHandler(out);
+
+        ndjson.reject(mapper.readTree("{\"a\":1}"), "a", "bad value");
+        ndjson.reject(null, null, "invalid");
+        ndjson.close();
+
+        String[] lines = out.toString(StandardCharsets.UTF_8.name()).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(mapper.readTree("{\"field\":\"a\",\"reason\":\"bad value\",\"record\":{\"a\":1}}"),
+                mapper.readTree(lines[0]));
+        JsonNode second = mapper.readTree(lines[1]);
+        assertTrue(second.get("field").isNull());
+        assertTrue(second.get("record").isNull());
+        assertEquals(2, ndjson.getRejected());
+    }
+
+    @Test
+    public void testErrorLogIsRateLimited() {
+        Logger log = mock(Logger.class);
+        WriteErrorLog errorLog = new WriteErrorLog(log, Long.MAX_VALUE);
+
+        for (int i = 0; i < 1000; i++) {
+            errorLog.report("is_true", "type mismatch", "TextNode type not expected");
+        }
+        errorLog.report(null, "RequiredFieldException", "Field key_string missing");
+        errorLog.flush();
+        errorLog.flush();
+
+        verify(log, times(2)).error(anyString(), any(Object.class), any(Object.class));
+        verify(log).warn(anyString(), eq(1001L), anyLong(), any(Object.class));
+    }
+
+    @Test
+    public void testWithoutHandlerTheWriteFails() throws Exception {
+        JsonWriteSupport<JsonNode> support = new JsonWriteSupport<>(getSchema("NullInPayload"));
+        support.init(new org.apache.hadoop.conf.Configuration());
+        support.prepareForWrite(mock(org.apache.parquet.io.api.RecordConsumer.class));
+
+        RuntimeException failure = null;
+        try {
+            support.write(getExample("NullInPayload"));
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        assertTrue(failure instanceof RequiredFieldException);
+        assertNull(support.getOptions().getRejectedRecordHandler());
+    }
+}
@@ -0,0 +1,32 @@
+package org.getyourguide.parquet.json;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+
+public class Utf8BufferTest {
+
+    private static final String[] VALUES = {
+        "", "hello", "fran\u00e7ais", "gr\u00fcezi \u20ac", "\u65e5\u672c\u8a9e", "emoji \uD83D\uDE00 pair", "unpaired \uD83D end",
+        "x".repeat(1000) + "\u00e9"
+    };
+
+    @Test
+    public void testEncodeCharSequence() {
+        Utf8Buffer buffer = new Utf8Buffer();
+        for (String value : VALUES) {
+            assertArrayEquals(value, value.getBytes(StandardCharsets.UTF_8), buffer.encode(value).getBytes());
+        }
+    }
+
+    @Test
+    public void testEncodeCharArray() {
+        Utf8Buffer buffer = new Utf8Buffer();
+        for (String value : VALUES) {
+            char[] chars = ("__" + value + "__").toCharArray();
+            assertArrayEquals(value, value.getBytes(StandardCharsets.UTF_8),
+                buffer.encode(chars, 2, value.length()).getBytes());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.getyourguide.parquet.json;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import org.junit.Test;
+
+public class UuidBufferTest {
+
+    private static final String[] VALUES = {
+        "123e4567-e89b-12d3-a456-426614174000", "00000000-0000-0000-0000-000000000000",
+        "FFFFFFFF-FFFF-FFFF-FFFF-FFFFFFFFFFFF", "6ba7b810-9dad-11d1-80b4-00c04fd430c8"
+    };
+
+    private static byte[] bytes(String value) {
+        UUID uuid = UUID.fromString(value);
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    @Test
+    public void testParseCharSequence() {
+        UuidBuffer buffer = new UuidBuffer();
+        for (String value : VALUES) {
+            assertArrayEquals(value, bytes(value), buffer.parse(value).getBytes());
+        }
+    }
+
+    @Test
+    public void testParseCharArray() {
+        UuidBuffer buffer = new UuidBuffer();
+        for (String value : VALUES) {
+            char[] chars = ("__" + value + "__").toCharArray();
+            assertArrayEquals(value, bytes(value), buffer.parse(chars, 2, value.length()).getBytes());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMisplacedDash() {
+        new UuidBuffer().parse("123e4567e-89b-12d3-a456-426614174000");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNotHex() {
+        new UuidBuffer().parse("123e4567-e89b-12d3-a456-42661417400g");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testShortForm() {
+        new UuidBuffer().parse("123e4567-e89b-12d3-a456-42661417400");
+    }
+}